@@ -0,0 +1,84 @@
+package picoded.conv;
+
+// Java includes
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// JMH includes
+import org.openjdk.jmh.annotations.*;
+
+///
+/// Encode / decode throughput of the BaseX family, across charsets and input sizes.
+///
+/// Compares the BigInteger based BaseX implementation, against the BaseXBlockCodec fast path.
+/// Allocation rate can be measured by running with the gc profiler (`-Dbench.args="-prof gc"`).
+///
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaseXBenchmark {
+	
+	/// Charset to benchmark, base58 / base62 use their default charsets
+	@Param({ "base58", "base62", "custom" })
+	public String charset;
+	
+	/// Input size in bytes, UUID sized / 1 KB / 64 KB
+	@Param({ "16", "1024", "65536" })
+	public int byteLength;
+	
+	/// Custom charset, which is not a "standard" base size
+	public static final String CUSTOM_CHARSET = "0123456789abcdefghijklmnopqrstuvwxyz";
+	
+	protected BaseX baseObj;
+	protected BaseXBlockCodec blockCodec;
+	
+	protected byte[] input;
+	protected String encoded;
+	protected String blockEncoded;
+	
+	@Setup
+	public void setup() {
+		if (charset.equals("base58")) {
+			baseObj = Base58.getInstance();
+		} else if (charset.equals("base62")) {
+			baseObj = Base62.getInstance();
+		} else {
+			baseObj = new BaseX(CUSTOM_CHARSET);
+		}
+		blockCodec = new BaseXBlockCodec(baseObj);
+		
+		input = new byte[byteLength];
+		new Random(byteLength).nextBytes(input);
+		encoded = baseObj.encode(input);
+		blockEncoded = blockCodec.encode(input);
+	}
+	
+	@Benchmark
+	public String encode() {
+		return baseObj.encode(input);
+	}
+	
+	@Benchmark
+	public byte[] decode() {
+		return baseObj.decode(encoded, byteLength);
+	}
+	
+	@Benchmark
+	public boolean isValid() {
+		return baseObj.isValid(encoded);
+	}
+	
+	@Benchmark
+	public String blockEncode() {
+		return blockCodec.encode(input);
+	}
+	
+	@Benchmark
+	public byte[] blockDecode() {
+		return blockCodec.decode(blockEncoded);
+	}
+	
+}
@@ -0,0 +1,78 @@
+package picoded.conv;
+
+// Java includes
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// JMH includes
+import org.openjdk.jmh.annotations.*;
+
+///
+/// Text JSON (ConvertJSON) against binary JSON (ConvertBinaryJSON) serialization throughput,
+/// for a list of records similar to typical cache payloads.
+///
+/// The payload sizes of both formats are printed on setup, for the size comparison.
+///
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertJSONBenchmark {
+	
+	/// Number of records in the payload
+	@Param({ "1", "100", "10000" })
+	public int records;
+	
+	protected List<Object> payload;
+	protected String text;
+	protected byte[] binary;
+	
+	@Setup
+	public void setup() {
+		Random rand = new Random(records);
+		payload = new ArrayList<Object>();
+		for (int a = 0; a < records; ++a) {
+			Map<String, Object> record = new HashMap<String, Object>();
+			record.put("_oid", GUID.base58());
+			record.put("name", "user-" + rand.nextInt(1000));
+			record.put("email", "user" + a + "@example.com");
+			record.put("age", rand.nextInt(100));
+			record.put("score", rand.nextDouble());
+			record.put("active", rand.nextBoolean());
+			record.put("createdAt", System.currentTimeMillis());
+			payload.add(record);
+		}
+		
+		text = ConvertJSON.fromList(payload);
+		binary = ConvertBinaryJSON.fromList(payload);
+		System.out.println("# Payload size for " + records + " records, text : " + text.length()
+			+ " chars, binary : " + binary.length + " bytes");
+	}
+	
+	@Benchmark
+	public String textWrite() {
+		return ConvertJSON.fromList(payload);
+	}
+	
+	@Benchmark
+	public List<Object> textRead() {
+		return ConvertJSON.toList(text);
+	}
+	
+	@Benchmark
+	public byte[] binaryWrite() {
+		return ConvertBinaryJSON.fromList(payload);
+	}
+	
+	@Benchmark
+	public List<Object> binaryRead() {
+		return ConvertBinaryJSON.toList(binary);
+	}
+	
+}
@@ -0,0 +1,93 @@
+package picoded.conv;
+
+// Java includes
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// JMH includes
+import org.openjdk.jmh.annotations.*;
+
+///
+/// GUID generation and encoding throughput.
+///
+/// The `legacy` benchmarks uses the generic BigInteger based Base58 encoding,
+/// for comparison against the specialised GUID encoders.
+///
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GUIDBenchmark {
+	
+	protected UUID uuid;
+	protected String base58str;
+	protected GUIDPool pool;
+	protected String[] batch;
+	
+	@Setup
+	public void setup() {
+		uuid = GUID.randomUUID();
+		base58str = GUID.base58(uuid);
+		pool = new GUIDPool(100000, 50000).start();
+		batch = new String[256];
+	}
+	
+	@TearDown
+	public void tearDown() {
+		pool.stop();
+	}
+	
+	@Benchmark
+	public UUID randomUUID() {
+		return GUID.randomUUID();
+	}
+	
+	@Benchmark
+	public String base58() {
+		return GUID.base58();
+	}
+	
+	@Benchmark
+	public String base64() {
+		return GUID.base64();
+	}
+	
+	@Benchmark
+	public String orderedBase58() {
+		return OrderedGUID.base58();
+	}
+	
+	@Benchmark
+	public String pooledBase58() {
+		return pool.base58();
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(256)
+	public String[] batchBase58() {
+		return GUID.base58(batch);
+	}
+	
+	@Benchmark
+	public String encodeBase58() {
+		return GUID.base58(uuid);
+	}
+	
+	@Benchmark
+	public String legacyEncodeBase58() {
+		return Base58.getInstance().encode(GUID.byteArray(uuid));
+	}
+	
+	@Benchmark
+	public UUID decodeBase58() {
+		return GUID.fromBase58(base58str);
+	}
+	
+	@Benchmark
+	public UUID legacyDecodeBase58() {
+		return GUID.fromByteArray(Base58.getInstance().decode(base58str, 16));
+	}
+	
+}
@@ -0,0 +1,55 @@
+package picoded.conv;
+
+// Java includes
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// JMH includes
+import org.openjdk.jmh.annotations.*;
+
+///
+/// Numeric string parsing (NumberConv) against the previous BigDecimal / NumberFormatException
+/// path of GenericConvert, for valid integers, decimals, and invalid (miss path) input.
+///
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberConvBenchmark {
+	
+	/// Input string to parse
+	@Param({ "12345", "-98765.4321", "not-a-number" })
+	public String input;
+	
+	/// The previous GenericConvert.toNumber path
+	protected static Number bigDecimalNumber(String input, Number fallback) {
+		try {
+			return new BigDecimal(input);
+		} catch (Exception e) {
+			return fallback;
+		}
+	}
+	
+	@Benchmark
+	public long bigDecimalLong() {
+		return bigDecimalNumber(input, 0L).longValue();
+	}
+	
+	@Benchmark
+	public long numberConvLong() {
+		return NumberConv.toLong(input, 0L);
+	}
+	
+	@Benchmark
+	public double bigDecimalDouble() {
+		return bigDecimalNumber(input, 0.0).doubleValue();
+	}
+	
+	@Benchmark
+	public double numberConvDouble() {
+		return NumberConv.toDouble(input, 0.0);
+	}
+	
+}
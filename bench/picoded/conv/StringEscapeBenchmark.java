@@ -0,0 +1,64 @@
+package picoded.conv;
+
+// Java includes
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// JMH includes
+import org.openjdk.jmh.annotations.*;
+
+///
+/// StringEscape html / uri escaping throughput, across input sizes
+///
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringEscapeBenchmark {
+	
+	/// Input size in characters
+	@Param({ "16", "1024", "65536" })
+	public int length;
+	
+	/// Characters to build the input from, with a mix of characters needing escape
+	public static final String INPUT_CHARS = "abcdefghijklmnopqrstuvwxyz0123456789 <>&\"'/?=%";
+	
+	protected String input;
+	protected String escapedHtml;
+	protected String encodedURI;
+	
+	@Setup
+	public void setup() {
+		Random rand = new Random(length);
+		StringBuilder sb = new StringBuilder(length);
+		for (int a = 0; a < length; ++a) {
+			sb.append(INPUT_CHARS.charAt(rand.nextInt(INPUT_CHARS.length())));
+		}
+		input = sb.toString();
+		escapedHtml = StringEscape.escapeHtml(input);
+		encodedURI = StringEscape.encodeURI(input);
+	}
+	
+	@Benchmark
+	public String escapeHtml() {
+		return StringEscape.escapeHtml(input);
+	}
+	
+	@Benchmark
+	public String unescapeHtml() {
+		return StringEscape.unescapeHtml(escapedHtml);
+	}
+	
+	@Benchmark
+	public String encodeURI() {
+		return StringEscape.encodeURI(input);
+	}
+	
+	@Benchmark
+	public String decodeURI() {
+		return StringEscape.decodeURI(encodedURI);
+	}
+	
+}
@@ -0,0 +1,290 @@
+package picoded.conv;
+
+// Java includes
+import java.util.UUID;
+
+///
+/// Specialised 128-bit GUID to base58 encoder / decoder, using the default Base58 charset.
+///
+/// This produces the exact same 22 character string as `Base58.getInstance().encode(byteArray)`,
+/// but works directly on the most / least significant bits pair. Without any BigInteger,
+/// StringBuilder, or intermediate byte / char arrays in between.
+///
+/// Internally the 128 bits is held as 4 unsigned 32 bit limbs (as local long variables), and is
+/// converted 5 characters at a time via division / multiplication by 58^5, which fits in 31 bits.
+///
+/// ### Example Usage
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~{.java}
+///
+/// String id = Base58GUID.encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+///
+/// // Writing into an existing buffer
+/// Base58GUID.encode(msb, lsb, stringBuilder);
+///
+/// // Parsing from a larger string, such as "user-<guid>"
+/// UUID parsed = Base58GUID.decode(key, 5);
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+///
+public class Base58GUID {
+	
+	/// Invalid constructor (throws exception)
+	protected Base58GUID() {
+		throw new IllegalAccessError("Utility class");
+	}
+	
+	//----------------------------------------
+	// Static vars
+	//----------------------------------------
+	
+	/// Encoded GUID string length
+	public static final int LENGTH = 22;
+	
+	/// The charset characters, where the array index is the digit value
+	protected static final char[] CHARSET = Base58.DEFAULT_CHARSET.toCharArray();
+	
+	/// Character to digit value lookup table (ASCII only), with -1 for invalid characters
+	protected static final byte[] CHAR_TO_DIGIT = new byte[128];
+	
+	/// Division word, that is 58^5
+	protected static final long WORD = 58L * 58L * 58L * 58L * 58L;
+	
+	/// 32 bit limb mask
+	protected static final long LIMB_MASK = 0xFFFFFFFFL;
+	
+	static {
+		for (int a = 0; a < CHAR_TO_DIGIT.length; ++a) {
+			CHAR_TO_DIGIT[a] = -1;
+		}
+		for (int a = 0; a < CHARSET.length; ++a) {
+			CHAR_TO_DIGIT[CHARSET[a]] = (byte) a;
+		}
+	}
+	
+	//---------------------------------------------------------------------------------------------
+	// Encoding
+	//---------------------------------------------------------------------------------------------
+	
+	/// Encodes the GUID into the char array
+	///
+	/// @param  most significant bits
+	/// @param  least significant bits
+	/// @param  char array to write into, with atleast 22 characters of space from the offset
+	/// @param  char array offset to write from
+	///
+	/// @return Number of characters written (always 22)
+	public static int encode(long mostSignificant, long leastSignificant, char[] out, int offset) {
+		encode(mostSignificant, leastSignificant, out, null, offset);
+		return LENGTH;
+	}
+	
+	/// Encodes the GUID, appending it into the StringBuilder
+	///
+	/// @param  most significant bits
+	/// @param  least significant bits
+	/// @param  StringBuilder to append into
+	///
+	/// @return The same StringBuilder
+	public static StringBuilder encode(long mostSignificant, long leastSignificant,
+		StringBuilder sb) {
+		int start = sb.length();
+		sb.setLength(start + LENGTH);
+		encode(mostSignificant, leastSignificant, null, sb, start);
+		return sb;
+	}
+	
+	/// Encodes the GUID in place, into either the char array, or the StringBuilder
+	///
+	/// @param  most significant bits
+	/// @param  least significant bits
+	/// @param  char array to write into, or null
+	/// @param  StringBuilder to write into (when there is no char array), with the space set
+	/// @param  offset to write from
+	protected static void encode(long mostSignificant, long leastSignificant, char[] out,
+		StringBuilder sb, int offset) {
+		// 128 bits, as 4 unsigned 32 bit limbs
+		long l0 = mostSignificant >>> 32;
+		long l1 = mostSignificant & LIMB_MASK;
+		long l2 = leastSignificant >>> 32;
+		long l3 = leastSignificant & LIMB_MASK;
+		
+		// Characters are derived from the least significant value first
+		int pos = offset + LENGTH;
+		for (int round = 0; round < 4; ++round) {
+			// 128 bit division by 58^5
+			long cur = l0;
+			long quo = cur / WORD;
+			long rem = cur - quo * WORD;
+			l0 = quo;
+			
+			cur = (rem << 32) | l1;
+			quo = cur / WORD;
+			rem = cur - quo * WORD;
+			l1 = quo;
+			
+			cur = (rem << 32) | l2;
+			quo = cur / WORD;
+			rem = cur - quo * WORD;
+			l2 = quo;
+			
+			cur = (rem << 32) | l3;
+			quo = cur / WORD;
+			rem = cur - quo * WORD;
+			l3 = quo;
+			
+			// 5 characters from the remainder
+			int r = (int) rem;
+			for (int d = 0; d < 5; ++d) {
+				put(out, sb, --pos, CHARSET[r % 58]);
+				r /= 58;
+			}
+		}
+		
+		// 2^128 < 58^22, hence the remaining value is always less then 58^2
+		int r = (int) l3;
+		put(out, sb, --pos, CHARSET[r % 58]);
+		put(out, sb, --pos, CHARSET[r / 58]);
+	}
+	
+	/// Sets the character, into either the char array, or the StringBuilder
+	private static void put(char[] out, StringBuilder sb, int pos, char c) {
+		if (out != null) {
+			out[pos] = c;
+		} else {
+			sb.setCharAt(pos, c);
+		}
+	}
+	
+	/// Encodes the GUID into a 22 character string
+	///
+	/// @param  most significant bits
+	/// @param  least significant bits
+	///
+	/// @return 22 character base58 string
+	public static String encode(long mostSignificant, long leastSignificant) {
+		char[] out = new char[LENGTH];
+		encode(mostSignificant, leastSignificant, out, 0);
+		return new String(out);
+	}
+	
+	/// Encodes the UUID into a 22 character string
+	///
+	/// @param  uuid unique guid value
+	///
+	/// @return 22 character base58 string
+	public static String encode(UUID uuid) {
+		return encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+	
+	//---------------------------------------------------------------------------------------------
+	// Decoding
+	//---------------------------------------------------------------------------------------------
+	
+	/// Gets the digit value of the character at the given position, throws on invalid characters
+	///
+	/// @param  Encoded string
+	/// @param  Character position
+	/// @param  Encoded GUID offset (for error throwing)
+	///
+	/// @return The digit value
+	protected static int digitOf(CharSequence in, int pos, int offset) {
+		char c = in.charAt(pos);
+		int digit = (c < 128) ? CHAR_TO_DIGIT[c] : -1;
+		if (digit < 0) {
+			throw new IllegalArgumentException("Invalid character `" + c + "` for encoded string:"
+				+ in.subSequence(offset, Math.min(offset + LENGTH, in.length())));
+		}
+		return digit;
+	}
+	
+	/// Decodes the 22 character GUID, found at the given offset, into the long array.
+	///
+	/// Similar to `Base58.decode`, values that are larger then 128 bits are truncated.
+	///
+	/// @param  Character sequence to decode from
+	/// @param  Offset to decode from, with atleast 22 characters from it
+	/// @param  long array to write the most, and least significant bits into
+	/// @param  long array offset
+	public static void decode(CharSequence in, int offset, long[] out, int outOffset) {
+		decode(in, offset, out, outOffset, false);
+	}
+	
+	/// Decodes the 22 character GUID, found at the given offset, into a UUID
+	///
+	/// @param  Character sequence to decode from
+	/// @param  Offset to decode from, with atleast 22 characters from it
+	///
+	/// @return The UUID object
+	public static UUID decode(CharSequence in, int offset) {
+		return decode(in, offset, null, 0, true);
+	}
+	
+	/// The actual decoding implementation, either writing into the long array, or returning a UUID
+	///
+	/// @param  Character sequence to decode from
+	/// @param  Offset to decode from, with atleast 22 characters from it
+	/// @param  long array to write the most, and least significant bits into (if not returning a UUID)
+	/// @param  long array offset
+	/// @param  Return as a UUID object instead
+	///
+	/// @return The UUID object, if requested
+	protected static UUID decode(CharSequence in, int offset, long[] out, int outOffset,
+		boolean asUUID) {
+		if (offset < 0 || in.length() - offset < LENGTH) {
+			throw new IllegalArgumentException("Encoded GUID requires " + LENGTH
+				+ " characters from offset " + offset + ", for encoded string:" + in);
+		}
+		
+		// First 2 characters
+		int pos = offset;
+		long l0 = 0;
+		long l1 = 0;
+		long l2 = 0;
+		long l3 = digitOf(in, pos, offset) * 58 + digitOf(in, pos + 1, offset);
+		pos += 2;
+		
+		// Followed by 4 rounds of 5 characters
+		for (int round = 0; round < 4; ++round) {
+			long carry = 0;
+			for (int d = 0; d < 5; ++d) {
+				carry = carry * 58 + digitOf(in, pos++, offset);
+			}
+			
+			// 128 bit multiply by 58^5 and add, excess bits are discarded
+			long cur = l3 * WORD + carry;
+			l3 = cur & LIMB_MASK;
+			carry = cur >>> 32;
+			
+			cur = l2 * WORD + carry;
+			l2 = cur & LIMB_MASK;
+			carry = cur >>> 32;
+			
+			cur = l1 * WORD + carry;
+			l1 = cur & LIMB_MASK;
+			carry = cur >>> 32;
+			
+			cur = l0 * WORD + carry;
+			l0 = cur & LIMB_MASK;
+		}
+		
+		long mostSignificant = (l0 << 32) | l1;
+		long leastSignificant = (l2 << 32) | l3;
+		if (asUUID) {
+			return new UUID(mostSignificant, leastSignificant);
+		}
+		out[outOffset] = mostSignificant;
+		out[outOffset + 1] = leastSignificant;
+		return null;
+	}
+	
+	/// Decodes the 22 character GUID string into a UUID
+	///
+	/// @param  Character sequence to decode from
+	///
+	/// @return The UUID object
+	public static UUID decode(CharSequence in) {
+		return decode(in, 0);
+	}
+	
+}
@@ -12,6 +12,9 @@ public class Base62 extends BaseX {
 	/// Default charset value
 	public static final String DEFAULT_CHARSET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
 	
+	/// Alternative charset in ascending character order, for use with BaseX.encodeSortable
+	public static final String SORTED_CHARSET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+	
 	// ---------------------------------
 	// Object instance functions
 	// ---------------------------------
@@ -0,0 +1,258 @@
+package picoded.conv;
+
+// Java includes
+import java.util.UUID;
+
+///
+/// Specialised 128-bit GUID to 22 character base64 encoder / decoder.
+///
+/// The standard alphabet output is the exact same string as `GUID.base64(uuid)` previously
+/// produced via commons-codec (with the padding removed). With an additional URL-safe alphabet
+/// varient, which uses `-` and `_` in place of `+` and `/`.
+///
+/// This works directly on the most / least significant bits pair, without any regex,
+/// codec object, or intermediate byte array. Decoding accepts both alphabets.
+///
+/// ### Example Usage
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~{.java}
+///
+/// String id = Base64GUID.encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+/// String urlId = Base64GUID.encodeURLSafe(uuid);
+///
+/// // Both strings decodes back to the same UUID
+/// UUID parsed = Base64GUID.decode(urlId);
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+///
+public class Base64GUID {
+	
+	/// Invalid constructor (throws exception)
+	protected Base64GUID() {
+		throw new IllegalAccessError("Utility class");
+	}
+	
+	//----------------------------------------
+	// Static vars
+	//----------------------------------------
+	
+	/// Encoded GUID string length
+	public static final int LENGTH = 22;
+	
+	/// The standard base64 alphabet
+	protected static final char[] STANDARD_CHARSET = ("ABCDEFGHIJKLMNOPQRSTUVWXYZ"
+		+ "abcdefghijklmnopqrstuvwxyz0123456789+/").toCharArray();
+	
+	/// The URL-safe base64 alphabet
+	protected static final char[] URL_SAFE_CHARSET = ("ABCDEFGHIJKLMNOPQRSTUVWXYZ"
+		+ "abcdefghijklmnopqrstuvwxyz0123456789-_").toCharArray();
+	
+	/// Character to digit value lookup table (ASCII only) for both alphabets,
+	/// with -1 for invalid characters
+	protected static final byte[] CHAR_TO_DIGIT = new byte[128];
+	
+	static {
+		for (int a = 0; a < CHAR_TO_DIGIT.length; ++a) {
+			CHAR_TO_DIGIT[a] = -1;
+		}
+		for (int a = 0; a < 64; ++a) {
+			CHAR_TO_DIGIT[STANDARD_CHARSET[a]] = (byte) a;
+			CHAR_TO_DIGIT[URL_SAFE_CHARSET[a]] = (byte) a;
+		}
+	}
+	
+	//---------------------------------------------------------------------------------------------
+	// Encoding
+	//---------------------------------------------------------------------------------------------
+	
+	/// Encodes the GUID into the char array, with the given alphabet
+	///
+	/// @param  most significant bits
+	/// @param  least significant bits
+	/// @param  char array to write into, with atleast 22 characters of space from the offset
+	/// @param  char array offset to write from
+	/// @param  alphabet to use
+	///
+	/// @return Number of characters written (always 22)
+	protected static int encode(long mostSignificant, long leastSignificant, char[] out,
+		int offset, char[] charset) {
+		// First 60 bits, from the most significant bits
+		int pos = offset;
+		for (int shift = 58; shift >= 4; shift -= 6) {
+			out[pos++] = charset[(int) (mostSignificant >>> shift) & 0x3F];
+		}
+		
+		// 4 bits from the most significant, and 2 bits from the least significant
+		out[pos++] = charset[(int) (((mostSignificant & 0xF) << 2) | (leastSignificant >>> 62))];
+		
+		// Remaining 62 bits, where the last character is zero padded
+		for (int shift = 56; shift >= 2; shift -= 6) {
+			out[pos++] = charset[(int) (leastSignificant >>> shift) & 0x3F];
+		}
+		out[pos] = charset[(int) (leastSignificant & 0x3) << 4];
+		return LENGTH;
+	}
+	
+	/// Encodes the GUID into the char array, with the standard alphabet
+	///
+	/// @param  most significant bits
+	/// @param  least significant bits
+	/// @param  char array to write into, with atleast 22 characters of space from the offset
+	/// @param  char array offset to write from
+	///
+	/// @return Number of characters written (always 22)
+	public static int encode(long mostSignificant, long leastSignificant, char[] out, int offset) {
+		return encode(mostSignificant, leastSignificant, out, offset, STANDARD_CHARSET);
+	}
+	
+	/// Encodes the GUID into a 22 character string, with the standard alphabet
+	///
+	/// @param  most significant bits
+	/// @param  least significant bits
+	///
+	/// @return 22 character base64 string
+	public static String encode(long mostSignificant, long leastSignificant) {
+		char[] out = new char[LENGTH];
+		encode(mostSignificant, leastSignificant, out, 0, STANDARD_CHARSET);
+		return new String(out);
+	}
+	
+	/// Encodes the UUID into a 22 character string, with the standard alphabet
+	///
+	/// @param  uuid unique guid value
+	///
+	/// @return 22 character base64 string
+	public static String encode(UUID uuid) {
+		return encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+	
+	/// Encodes the GUID into the char array, with the URL-safe alphabet
+	///
+	/// @param  most significant bits
+	/// @param  least significant bits
+	/// @param  char array to write into, with atleast 22 characters of space from the offset
+	/// @param  char array offset to write from
+	///
+	/// @return Number of characters written (always 22)
+	public static int encodeURLSafe(long mostSignificant, long leastSignificant, char[] out,
+		int offset) {
+		return encode(mostSignificant, leastSignificant, out, offset, URL_SAFE_CHARSET);
+	}
+	
+	/// Encodes the GUID into a 22 character string, with the URL-safe alphabet
+	///
+	/// @param  most significant bits
+	/// @param  least significant bits
+	///
+	/// @return 22 character base64 string
+	public static String encodeURLSafe(long mostSignificant, long leastSignificant) {
+		char[] out = new char[LENGTH];
+		encode(mostSignificant, leastSignificant, out, 0, URL_SAFE_CHARSET);
+		return new String(out);
+	}
+	
+	/// Encodes the UUID into a 22 character string, with the URL-safe alphabet
+	///
+	/// @param  uuid unique guid value
+	///
+	/// @return 22 character base64 string
+	public static String encodeURLSafe(UUID uuid) {
+		return encodeURLSafe(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+	
+	//---------------------------------------------------------------------------------------------
+	// Decoding
+	//---------------------------------------------------------------------------------------------
+	
+	/// Gets the digit value of the character at the given position, throws on invalid characters
+	///
+	/// @param  Encoded string
+	/// @param  Character position
+	/// @param  Encoded GUID offset (for error throwing)
+	///
+	/// @return The digit value
+	protected static long digitOf(CharSequence in, int pos, int offset) {
+		char c = in.charAt(pos);
+		int digit = (c < 128) ? CHAR_TO_DIGIT[c] : -1;
+		if (digit < 0) {
+			throw new IllegalArgumentException("Invalid character `" + c + "` for encoded string:"
+				+ in.subSequence(offset, Math.min(offset + LENGTH, in.length())));
+		}
+		return digit;
+	}
+	
+	/// Decodes the 22 character GUID, found at the given offset, into the long array.
+	/// Either the standard, or URL-safe alphabet (or a mix of both) is accepted.
+	///
+	/// Similar to commons-codec, the unused trailing 4 bits of the last character are ignored.
+	///
+	/// @param  Character sequence to decode from
+	/// @param  Offset to decode from, with atleast 22 characters from it
+	/// @param  long array to write the most, and least significant bits into
+	/// @param  long array offset
+	public static void decode(CharSequence in, int offset, long[] out, int outOffset) {
+		decode(in, offset, out, outOffset, false);
+	}
+	
+	/// Decodes the 22 character GUID, found at the given offset, into a UUID
+	///
+	/// @param  Character sequence to decode from
+	/// @param  Offset to decode from, with atleast 22 characters from it
+	///
+	/// @return The UUID object
+	public static UUID decode(CharSequence in, int offset) {
+		return decode(in, offset, null, 0, true);
+	}
+	
+	/// The actual decoding implementation, either writing into the long array, or returning a UUID
+	///
+	/// @param  Character sequence to decode from
+	/// @param  Offset to decode from, with atleast 22 characters from it
+	/// @param  long array to write the most, and least significant bits into (if not a UUID)
+	/// @param  long array offset
+	/// @param  Return as a UUID object instead
+	///
+	/// @return The UUID object, if requested
+	protected static UUID decode(CharSequence in, int offset, long[] out, int outOffset,
+		boolean asUUID) {
+		if (offset < 0 || in.length() - offset < LENGTH) {
+			throw new IllegalArgumentException("Encoded GUID requires " + LENGTH
+				+ " characters from offset " + offset + ", for encoded string:" + in);
+		}
+		
+		// First 60 bits, into the most significant bits
+		int pos = offset;
+		long mostSignificant = 0;
+		for (int a = 0; a < 10; ++a) {
+			mostSignificant = (mostSignificant << 6) | digitOf(in, pos++, offset);
+		}
+		
+		// Shared character, between the most and least significant bits
+		long shared = digitOf(in, pos++, offset);
+		mostSignificant = (mostSignificant << 4) | (shared >>> 2);
+		long leastSignificant = shared & 0x3;
+		
+		// Remaining 62 bits, with the last character padding discarded
+		for (int a = 0; a < 10; ++a) {
+			leastSignificant = (leastSignificant << 6) | digitOf(in, pos++, offset);
+		}
+		leastSignificant = (leastSignificant << 2) | (digitOf(in, pos, offset) >>> 4);
+		
+		if (asUUID) {
+			return new UUID(mostSignificant, leastSignificant);
+		}
+		out[outOffset] = mostSignificant;
+		out[outOffset + 1] = leastSignificant;
+		return null;
+	}
+	
+	/// Decodes the 22 character GUID string into a UUID
+	///
+	/// @param  Character sequence to decode from
+	///
+	/// @return The UUID object
+	public static UUID decode(CharSequence in) {
+		return decode(in, 0);
+	}
+	
+}
@@ -1,9 +1,14 @@
 package picoded.conv;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigInteger;
-import java.util.HashMap;
-
-import org.apache.commons.codec.digest.DigestUtils;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
 
 ///
 /// A class to convert various data types to BaseX. Where
@@ -16,6 +21,9 @@ import org.apache.commons.codec.digest.DigestUtils;
 ///
 /// However it allows the conversion of any abitaray base types, in a reliable manner.
 ///
+/// BaseX objects are safe to share across threads (such as the Base58 / Base62 singletons),
+/// as the length conversion tables are precomputed on construction.
+///
 public class BaseX {
 	
 	//----------------------------------------
@@ -27,6 +35,9 @@ public class BaseX {
 	/// Reusable big integer of value 0
 	protected static final BigInteger value0_BigInteger = BigInteger.valueOf(0);
 	
+	/// Default bit length, to precompute the bit to string lengths for (256 bytes)
+	public static final int DEFAULT_PRECOMPUTE_BIT_LENGTH = 2048;
+	
 	//----------------------------------------
 	// Object instance / variables / memoizers 
 	//----------------------------------------
@@ -35,23 +46,95 @@ public class BaseX {
 	protected String inCharset = null;
 	/// The char set length as big int
 	protected BigInteger inCharsetLength = null;
-	/// The Memoization cache for bit to string length
-	protected HashMap<Integer, Integer> bitToStringCache = null;
-	/// The Memoization cache for string to bit length
-	protected HashMap<Integer, Integer> stringToBitCache = null;
+	
+	/// The precomputed bit to string length table, where the array index is the bit length
+	protected final int[] bitToStringTable;
+	/// The precomputed string to bit length table, where the array index is the string length
+	protected final int[] stringToBitTable;
+	
+	/// Character to digit value lookup table, sized to the largest charset character,
+	/// with -1 for invalid characters
+	protected final int[] charToDigit;
+	/// Number of digits that can be accumulated into a long, before overflowing
+	protected final int digitsPerLong;
+	/// Powers of the charset length, up to digitsPerLong, as BigInteger
+	protected final BigInteger[] charsetLengthPow;
+	/// Indicates if the charset is in ascending character order, required for sortable encoding
+	protected final boolean sortableCharset;
+	
+	/// The Memoization cache for bit to string length, beyond the precomputed table
+	protected final ConcurrentHashMap<Integer, Integer> bitToStringCache = //
+		new ConcurrentHashMap<Integer, Integer>();
+	/// The Memoization cache for string to bit length, beyond the precomputed table
+	protected final ConcurrentHashMap<Integer, Integer> stringToBitCache = //
+		new ConcurrentHashMap<Integer, Integer>();
 	
 	/// Builds the object with the custom charspace
 	///
 	/// @param  The custom charset to use for bit to string conversion
 	public BaseX(String customCharset) {
+		this(customCharset, DEFAULT_PRECOMPUTE_BIT_LENGTH);
+	}
+	
+	/// Builds the object with the custom charspace, and precomputed length tables.
+	///
+	/// The bit / string length conversion, is precomputed up to the given bit length
+	/// (and its equivalent string length) into immutable tables. Making the object safe
+	/// to share across threads. Lengths beyond it are lazily computed, into a concurrent cache.
+	///
+	/// @param  The custom charset to use for bit to string conversion
+	/// @param  The maximum bit length to precompute for
+	public BaseX(String customCharset, int precomputeBitLength) {
 		if (customCharset == null || customCharset.length() <= 1) {
 			throw new IllegalArgumentException("Charset needs atleast 2 characters");
 		}
+		if (precomputeBitLength < 0) {
+			throw new IllegalArgumentException("Precompute bit length cannot be negative");
+		}
 		
 		inCharset = customCharset;
 		inCharsetLength = BigInteger.valueOf(customCharset.length());
-		bitToStringCache = new HashMap<Integer, Integer>();
-		stringToBitCache = new HashMap<Integer, Integer>();
+		
+		// Character lookup table, sized to the largest character used
+		int radix = customCharset.length();
+		int maxChar = 0;
+		for (int a = 0; a < radix; ++a) {
+			maxChar = Math.max(maxChar, customCharset.charAt(a));
+		}
+		charToDigit = new int[maxChar + 1];
+		for (int a = 0; a <= maxChar; ++a) {
+			charToDigit[a] = -1;
+		}
+		for (int a = radix - 1; a >= 0; --a) {
+			// Done in reverse, so that the first occurence wins (same as String.indexOf)
+			charToDigit[customCharset.charAt(a)] = a;
+		}
+		
+		// Check if the charset is in strictly ascending order
+		boolean ascending = true;
+		for (int a = 1; a < radix; ++a) {
+			if (customCharset.charAt(a - 1) >= customCharset.charAt(a)) {
+				ascending = false;
+				break;
+			}
+		}
+		sortableCharset = ascending;
+		
+		// Derive the number of digits, which can be safely accumulated into a long
+		int k = 1;
+		long pow = radix;
+		while (pow <= Long.MAX_VALUE / radix) {
+			pow *= radix;
+			++k;
+		}
+		digitsPerLong = k;
+		charsetLengthPow = new BigInteger[k + 1];
+		for (int a = 0; a <= k; ++a) {
+			charsetLengthPow[a] = inCharsetLength.pow(a);
+		}
+		
+		bitToStringTable = computeBitToStringTable(precomputeBitLength);
+		stringToBitTable = computeStringToBitTable(bitToStringTable[precomputeBitLength]);
 	}
 	
 	/// Returns the current charspace
@@ -63,6 +146,55 @@ public class BaseX {
 	// Bit-to-string length conversion handling 
 	//--------------------------------------------
 	
+	/// Computes the bitToStringLength values, from 0 to the given bit length (inclusive).
+	///
+	/// As both the bit length, and its string length only ever increases,
+	/// this is done in a single pass, instead of a full computation per bit length.
+	///
+	/// @param  Maximum bit length to compute
+	///
+	/// @return Array of string lengths, where the array index is the bit length
+	protected int[] computeBitToStringTable(int maxBitLength) {
+		int[] ret = new int[maxBitLength + 1];
+		
+		BigInteger base = BigInteger.ONE; // 2^bitlength
+		BigInteger comp = inCharsetLength; // X^n
+		int n = 1;
+		for (int bitlength = 0; bitlength <= maxBitLength; ++bitlength) {
+			while (base.compareTo(comp) > 0) {
+				++n;
+				comp = comp.multiply(inCharsetLength);
+			}
+			ret[bitlength] = n;
+			base = base.shiftLeft(1);
+		}
+		return ret;
+	}
+	
+	/// Computes the stringToBitLength values, from 0 to the given string length (inclusive).
+	///
+	/// Similar to computeBitToStringTable, this is done in a single pass.
+	///
+	/// @param  Maximum string length to compute
+	///
+	/// @return Array of bit lengths, where the array index is the string length
+	protected int[] computeStringToBitTable(int maxStringLength) {
+		int[] ret = new int[maxStringLength + 1];
+		
+		BigInteger base = BigInteger.ONE; // X^stringLength
+		BigInteger comp = value2_BigInteger; // 2^n
+		int n = 1;
+		for (int stringLength = 0; stringLength <= maxStringLength; ++stringLength) {
+			while (base.compareTo(comp) > 0) {
+				++n;
+				comp = comp.shiftLeft(1);
+			}
+			ret[stringLength] = n - 1; // the last known valid value
+			base = base.multiply(inCharsetLength);
+		}
+		return ret;
+	}
+	
 	///
 	/// Calculate the String length needed for the given bit count,
 	///
@@ -80,9 +212,15 @@ public class BaseX {
 	/// @return Lowest string length where valid
 	///
 	public int bitToStringLength(int bitlength) {
+		/// Load from the precomputed table
+		if (bitlength >= 0 && bitlength < bitToStringTable.length) {
+			return bitToStringTable[bitlength];
+		}
+		
 		/// Load from Memoization cache
-		if (bitToStringCache.containsKey(bitlength)) {
-			return bitToStringCache.get(bitlength);
+		Integer cached = bitToStringCache.get(bitlength);
+		if (cached != null) {
+			return cached;
 		}
 		
 		/// Derive the n value
@@ -112,9 +250,15 @@ public class BaseX {
 	/// @return Highest bit length possible
 	///
 	public int stringToBitLength(int stringLength) {
+		/// Load from the precomputed table
+		if (stringLength >= 0 && stringLength < stringToBitTable.length) {
+			return stringToBitTable[stringLength];
+		}
+		
 		/// Load from Memoization cache
-		if (stringToBitCache.containsKey(stringLength)) {
-			return stringToBitCache.get(stringLength);
+		Integer cached = stringToBitCache.get(stringLength);
+		if (cached != null) {
+			return cached;
 		}
 		
 		/// Derive the N value
@@ -251,7 +395,7 @@ public class BaseX {
 		
 		// Variable setup
 		int stringlength = encodedString.length();
-		int indx;
+		int radix = inCharset.length();
 		
 		// Derive max byte length : auto if -1
 		if (byteLength < 0) {
@@ -266,16 +410,29 @@ public class BaseX {
 		//
 		// encodedString = StringBuilder(encodedString).reverse().toString();
 		
-		// Iterate the characters and get the encoded value
-		for (char character : encodedString.toCharArray()) {
-			indx = inCharset.indexOf(character);
+		// Iterate the characters and get the encoded value, where the digits are
+		// accumulated into a long, and only added into the BigInteger once per chunk
+		long chunkValue = 0;
+		int chunkDigits = 0;
+		for (int a = 0; a < stringlength; ++a) {
+			int indx = digitOf(encodedString.charAt(a));
 			if (indx < 0) {
-				throw new IllegalArgumentException("Invalid character `" + character
+				throw new IllegalArgumentException("Invalid character `" + encodedString.charAt(a)
 					+ "` for encoded string:" + encodedString);
 			}
 			
-			// Process each character into the BigInteger value
-			encodedValue = encodedValue.multiply(inCharsetLength).add(BigInteger.valueOf(indx));
+			// Process each character into the chunk value
+			chunkValue = chunkValue * radix + indx;
+			if (++chunkDigits == digitsPerLong) {
+				encodedValue = encodedValue.multiply(charsetLengthPow[chunkDigits]).add(
+					BigInteger.valueOf(chunkValue));
+				chunkValue = 0;
+				chunkDigits = 0;
+			}
+		}
+		if (chunkDigits > 0) {
+			encodedValue = encodedValue.multiply(charsetLengthPow[chunkDigits]).add(
+				BigInteger.valueOf(chunkValue));
 		}
 		
 		// Converts the BigInteger to a byte array value
@@ -343,6 +500,284 @@ public class BaseX {
 		return retValue;
 	}
 	
+	//-----------------------------------------------
+	// Sortable fixed width encoding
+	//-----------------------------------------------
+	
+	/// Indicates if the charset is in ascending character order. Which is required for
+	/// the sortable encoding, where the encoded string order matches the value order.
+	///
+	/// @return true if sortable encoding is supported
+	public boolean isSortable() {
+		return sortableCharset;
+	}
+	
+	/// The fixed string length used by the sortable encoding, of a single 64 bit value
+	///
+	/// @return string length
+	public int sortableLength() {
+		return bitToStringLength(64);
+	}
+	
+	/// Throws an IllegalStateException, if the charset is not sortable
+	protected void assertSortable() {
+		if (!sortableCharset) {
+			throw new IllegalStateException(
+				"Sortable encoding requires a charset in ascending character order, got : "
+					+ inCharset);
+		}
+	}
+	
+	/// Encodes the unsigned 64 bit value, as a fixed width string, most significant digit first
+	///
+	/// @param  unsigned 64 bit value
+	/// @param  char array to write into, with atleast sortableLength() of space from the offset
+	/// @param  char array offset to write from
+	///
+	/// @return Number of characters written
+	protected int encodeUnsigned(long value, char[] out, int offset) {
+		int length = sortableLength();
+		int radix = inCharset.length();
+		
+		// First division is done unsigned, after which the value fits in a signed long
+		int pos = offset + length;
+		out[--pos] = inCharset.charAt((int) Long.remainderUnsigned(value, radix));
+		value = Long.divideUnsigned(value, radix);
+		while (pos > offset) {
+			out[--pos] = inCharset.charAt((int) (value % radix));
+			value /= radix;
+		}
+		return length;
+	}
+	
+	/// Decodes the fixed width string, into its unsigned 64 bit value
+	///
+	/// @param  encoded string
+	/// @param  offset to decode from, with atleast sortableLength() of characters
+	///
+	/// @return unsigned 64 bit value
+	protected long decodeUnsigned(CharSequence in, int offset) {
+		int length = sortableLength();
+		if (offset < 0 || in.length() - offset < length) {
+			throw new IllegalArgumentException("Sortable encoding requires " + length
+				+ " characters from offset " + offset + ", for encoded string:" + in);
+		}
+		
+		int radix = inCharset.length();
+		long limit = Long.divideUnsigned(-1L, radix);
+		long ret = 0;
+		for (int pos = offset; pos < offset + length; ++pos) {
+			int digit = digitOf(in.charAt(pos));
+			if (digit < 0) {
+				throw new IllegalArgumentException("Invalid character `" + in.charAt(pos)
+					+ "` for encoded string:" + in);
+			}
+			
+			// Check for 64 bit overflow, on either the multiplication or addition
+			long shifted = ret * radix;
+			if (Long.compareUnsigned(ret, limit) > 0
+				|| Long.compareUnsigned(shifted + digit, shifted) < 0) {
+				throw new IllegalArgumentException("Encoded value exceeds 64 bits for encoded string:" + in);
+			}
+			ret = shifted + digit;
+		}
+		return ret;
+	}
+	
+	/// Sortable bits for a double, where negative values have all its bits flipped,
+	/// and positive values only the sign bit flipped. So that its unsigned order matches.
+	///
+	/// @param  double value
+	///
+	/// @return unsigned sortable bits
+	protected static long sortableDoubleBits(double value) {
+		long bits = Double.doubleToLongBits(value);
+		return (bits < 0) ? ~bits : (bits ^ Long.MIN_VALUE);
+	}
+	
+	/// Encodes the long value as a fixed width string, where the lexicographic string order,
+	/// matches the numeric order of the values (including negative values).
+	///
+	/// @param  long value to encode
+	/// @param  char array to write into, with atleast sortableLength() of space from the offset
+	/// @param  char array offset to write from
+	///
+	/// @return Number of characters written
+	public int encodeSortable(long value, char[] out, int offset) {
+		assertSortable();
+		return encodeUnsigned(value ^ Long.MIN_VALUE, out, offset);
+	}
+	
+	/// Encodes the long value as a fixed width sortable string
+	///
+	/// @param  long value to encode
+	///
+	/// @return Encoded string, of sortableLength()
+	public String encodeSortable(long value) {
+		char[] out = new char[sortableLength()];
+		encodeSortable(value, out, 0);
+		return new String(out);
+	}
+	
+	/// Encodes the double value as a fixed width string, where the lexicographic string order,
+	/// matches the numeric order of the values. Note that NaN is sorted after positive infinity.
+	///
+	/// @param  double value to encode
+	/// @param  char array to write into, with atleast sortableLength() of space from the offset
+	/// @param  char array offset to write from
+	///
+	/// @return Number of characters written
+	public int encodeSortable(double value, char[] out, int offset) {
+		assertSortable();
+		return encodeUnsigned(sortableDoubleBits(value), out, offset);
+	}
+	
+	/// Encodes the double value as a fixed width sortable string
+	///
+	/// @param  double value to encode
+	///
+	/// @return Encoded string, of sortableLength()
+	public String encodeSortable(double value) {
+		char[] out = new char[sortableLength()];
+		encodeSortable(value, out, 0);
+		return new String(out);
+	}
+	
+	/// Encodes the (long, long) tuple as a fixed width sortable string, of 2 * sortableLength().
+	/// Sorted by the first value, followed by the second value.
+	///
+	/// @param  first long value to encode
+	/// @param  second long value to encode
+	///
+	/// @return Encoded string
+	public String encodeSortable(long first, long second) {
+		int length = sortableLength();
+		char[] out = new char[length * 2];
+		encodeSortable(first, out, 0);
+		encodeSortable(second, out, length);
+		return new String(out);
+	}
+	
+	/// Decodes the sortable long value, at the given offset
+	///
+	/// @param  encoded string
+	/// @param  offset to decode from, with atleast sortableLength() of characters
+	///
+	/// @return decoded long value
+	public long decodeSortableLong(CharSequence in, int offset) {
+		assertSortable();
+		return decodeUnsigned(in, offset) ^ Long.MIN_VALUE;
+	}
+	
+	/// Decodes the sortable long value
+	///
+	/// @param  encoded string
+	///
+	/// @return decoded long value
+	public long decodeSortableLong(CharSequence in) {
+		return decodeSortableLong(in, 0);
+	}
+	
+	/// Decodes the sortable double value, at the given offset
+	///
+	/// @param  encoded string
+	/// @param  offset to decode from, with atleast sortableLength() of characters
+	///
+	/// @return decoded double value
+	public double decodeSortableDouble(CharSequence in, int offset) {
+		assertSortable();
+		long bits = decodeUnsigned(in, offset);
+		return Double.longBitsToDouble((bits < 0) ? (bits ^ Long.MIN_VALUE) : ~bits);
+	}
+	
+	/// Decodes the sortable double value
+	///
+	/// @param  encoded string
+	///
+	/// @return decoded double value
+	public double decodeSortableDouble(CharSequence in) {
+		return decodeSortableDouble(in, 0);
+	}
+	
+	//-----------------------------------------------
+	// Validation without decoding
+	//-----------------------------------------------
+	
+	/// Gets the digit value of the given character
+	///
+	/// @param  Character to lookup
+	///
+	/// @return The digit value, or -1 if its not within the charset
+	public int digitOf(char c) {
+		return (c < charToDigit.length) ? charToDigit[c] : -1;
+	}
+	
+	///
+	/// Checks if the encoded string is valid, without decoding it. That is its made up
+	/// of only charset characters, and its length is one that can be produced by `encode`.
+	///
+	/// Useful for the early rejection of malformed input values, such as GUID strings.
+	///
+	/// @param  Encoded string to check
+	///
+	/// @return true if valid
+	///
+	public boolean isValid(CharSequence encodedString) {
+		if (encodedString == null || !isValidLength(encodedString.length())) {
+			return false;
+		}
+		return isValidCharset(encodedString);
+	}
+	
+	///
+	/// Checks if the encoded string is valid, for the given byte length. Without decoding it.
+	///
+	/// Note that this does not check for encoding loss, as that requires decoding.
+	///
+	/// @param  Encoded string to check
+	/// @param  Byte length expected
+	///
+	/// @return true if valid
+	///
+	public boolean isValid(CharSequence encodedString, int byteLength) {
+		if (encodedString == null || byteLength < 0
+			|| encodedString.length() != bitToStringLength(byteLength * 8)) {
+			return false;
+		}
+		return isValidCharset(encodedString);
+	}
+	
+	/// Checks if the encoded string length, can be produced by `encode`
+	///
+	/// @param  Encoded string length
+	///
+	/// @return true if valid
+	protected boolean isValidLength(int stringLength) {
+		if (stringLength <= 0) {
+			return false;
+		}
+		
+		// The decode byte length may overshoot by one byte
+		int byteLength = stringToDecodeByteLength(stringLength);
+		return bitToStringLength(byteLength * 8) == stringLength
+			|| (byteLength > 0 && bitToStringLength((byteLength - 1) * 8) == stringLength);
+	}
+	
+	/// Checks if the encoded string, is made up of only charset characters
+	///
+	/// @param  Encoded string to check
+	///
+	/// @return true if valid
+	protected boolean isValidCharset(CharSequence encodedString) {
+		for (int a = 0; a < encodedString.length(); ++a) {
+			char c = encodedString.charAt(a);
+			if (c >= charToDigit.length || charToDigit[c] < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
 	/// Does an encoding loss check if acceptEncodingLoss is set to false.
 	///
 	/// Check the first few additional bytes, if its "zero", and hence suffer from no encoding lost.
@@ -366,22 +801,152 @@ public class BaseX {
 	// MD5, SHA1 hashing support utility functions
 	//-----------------------------------------------
 	
+	/// Read buffer size, used for hashing input streams
+	protected static final int HASH_STREAM_BUFFER_SIZE = 64 * 1024;
+	
+	/// Memory mapped region size, used for hashing file channels (64 MB)
+	protected static final long HASH_MAPPED_CHUNK_SIZE = 64L * 1024 * 1024;
+	
+	/// Per thread MessageDigest instances, to avoid the lookup / allocation per hash call
+	protected static final ThreadLocal<MessageDigest> md5Local = ThreadLocal
+		.withInitial(() -> newMessageDigest("MD5"));
+	protected static final ThreadLocal<MessageDigest> sha1Local = ThreadLocal
+		.withInitial(() -> newMessageDigest("SHA-1"));
+	protected static final ThreadLocal<MessageDigest> sha256Local = ThreadLocal
+		.withInitial(() -> newMessageDigest("SHA-256"));
+	
+	/// Gets a new MessageDigest instance, for an algorithm that is gurantted by the JVM
+	///
+	/// @param  The digest algorithm name
+	///
+	/// @return  The MessageDigest
+	protected static MessageDigest newMessageDigest(String algorithm) {
+		try {
+			return MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/// Returns the current thread reusable MD5 MessageDigest, which is reset before returning.
+	///
+	/// Note that the instance should not be passed to, or used by other threads
+	///
+	/// @return  The MessageDigest
+	public static MessageDigest md5Digest() {
+		MessageDigest ret = md5Local.get();
+		ret.reset();
+		return ret;
+	}
+	
+	/// Returns the current thread reusable SHA-1 MessageDigest, which is reset before returning.
+	///
+	/// Note that the instance should not be passed to, or used by other threads
+	///
+	/// @return  The MessageDigest
+	public static MessageDigest sha1Digest() {
+		MessageDigest ret = sha1Local.get();
+		ret.reset();
+		return ret;
+	}
+	
+	/// Returns the current thread reusable SHA-256 MessageDigest, which is reset before returning.
+	///
+	/// Note that the instance should not be passed to, or used by other threads
+	///
+	/// @return  The MessageDigest
+	public static MessageDigest sha256Digest() {
+		MessageDigest ret = sha256Local.get();
+		ret.reset();
+		return ret;
+	}
+	
+	/// Digest the input stream incrementally, till the end of the stream.
+	/// The stream is not closed.
+	///
+	/// @param  The MessageDigest to use
+	/// @param  The input stream to digest
+	///
+	/// @return  The digest result
+	protected static byte[] digest(MessageDigest md, InputStream in) throws IOException {
+		byte[] buffer = new byte[HASH_STREAM_BUFFER_SIZE];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			md.update(buffer, 0, read);
+		}
+		return md.digest();
+	}
+	
+	/// Digest the remaining bytes of the buffer (from its position to its limit).
+	/// The buffer position is left unchanged.
+	///
+	/// @param  The MessageDigest to use
+	/// @param  The byte buffer to digest
+	///
+	/// @return  The digest result
+	protected static byte[] digest(MessageDigest md, ByteBuffer buffer) {
+		md.update(buffer.duplicate());
+		return md.digest();
+	}
+	
+	/// Digest the whole file, by memory mapping it in chunks. Regardless of the channel position.
+	///
+	/// @param  The MessageDigest to use
+	/// @param  The file channel to digest, opened for reading
+	///
+	/// @return  The digest result
+	protected static byte[] digest(MessageDigest md, FileChannel channel) throws IOException {
+		long size = channel.size();
+		for (long pos = 0; pos < size; pos += HASH_MAPPED_CHUNK_SIZE) {
+			long len = Math.min(HASH_MAPPED_CHUNK_SIZE, size - pos);
+			md.update(channel.map(FileChannel.MapMode.READ_ONLY, pos, len));
+		}
+		return md.digest();
+	}
+	
 	/// Hashes the input byte array, into the baseX format
 	///
 	/// @param  The byte array to do md5 hash
 	///
 	/// @return  Hash result in the encoded base format
 	public String md5hash(byte[] byteArr) {
-		return encode(DigestUtils.md5(byteArr));
+		return encode(md5Digest().digest(byteArr));
 	}
 	
-	/// Hashes the input byte array, into the baseX format
+	/// Hashes the input string (as UTF-8), into the baseX format
 	///
-	/// @param  The byte array to do md5 hash
+	/// @param  The string to do md5 hash
 	///
 	/// @return  Hash result in the encoded base format
 	public String md5hash(String str) {
-		return encode(DigestUtils.md5(str));
+		return md5hash(str.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/// Hashes the input stream incrementally (till its end), into the baseX format
+	///
+	/// @param  The input stream to do md5 hash, which is not closed
+	///
+	/// @return  Hash result in the encoded base format
+	public String md5hash(InputStream in) throws IOException {
+		return encode(digest(md5Digest(), in));
+	}
+	
+	/// Hashes the remaining bytes of the buffer, into the baseX format
+	///
+	/// @param  The byte buffer to do md5 hash, its position is left unchanged
+	///
+	/// @return  Hash result in the encoded base format
+	public String md5hash(ByteBuffer buffer) {
+		return encode(digest(md5Digest(), buffer));
+	}
+	
+	/// Hashes the whole file (via memory mapping), into the baseX format
+	///
+	/// @param  The file channel to do md5 hash
+	///
+	/// @return  Hash result in the encoded base format
+	public String md5hash(FileChannel channel) throws IOException {
+		return encode(digest(md5Digest(), channel));
 	}
 	
 	/// Hashes the input byte array, into the baseX format
@@ -390,16 +955,43 @@ public class BaseX {
 	///
 	/// @return  Hash result in the encoded base format
 	public String sha1hash(byte[] byteArr) {
-		return encode(DigestUtils.sha1(byteArr));
+		return encode(sha1Digest().digest(byteArr));
 	}
 	
-	/// Hashes the input byte array, into the baseX format
+	/// Hashes the input string (as UTF-8), into the baseX format
 	///
-	/// @param  The byte array to do sha1 hash
+	/// @param  The string to do sha1 hash
 	///
 	/// @return  Hash result in the encoded base format
 	public String sha1hash(String str) {
-		return encode(DigestUtils.sha1(str));
+		return sha1hash(str.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/// Hashes the input stream incrementally (till its end), into the baseX format
+	///
+	/// @param  The input stream to do sha1 hash, which is not closed
+	///
+	/// @return  Hash result in the encoded base format
+	public String sha1hash(InputStream in) throws IOException {
+		return encode(digest(sha1Digest(), in));
+	}
+	
+	/// Hashes the remaining bytes of the buffer, into the baseX format
+	///
+	/// @param  The byte buffer to do sha1 hash, its position is left unchanged
+	///
+	/// @return  Hash result in the encoded base format
+	public String sha1hash(ByteBuffer buffer) {
+		return encode(digest(sha1Digest(), buffer));
+	}
+	
+	/// Hashes the whole file (via memory mapping), into the baseX format
+	///
+	/// @param  The file channel to do sha1 hash
+	///
+	/// @return  Hash result in the encoded base format
+	public String sha1hash(FileChannel channel) throws IOException {
+		return encode(digest(sha1Digest(), channel));
 	}
 	
 	/// Hashes the input byte array, into the baseX format
@@ -408,16 +1000,43 @@ public class BaseX {
 	///
 	/// @return  Hash result in the encoded base format
 	public String sha256hash(byte[] byteArr) {
-		return encode(DigestUtils.sha256(byteArr));
+		return encode(sha256Digest().digest(byteArr));
 	}
 	
-	/// Hashes the input byte array, into the baseX format
+	/// Hashes the input string (as UTF-8), into the baseX format
 	///
-	/// @param  The byte array to do sha256 hash
+	/// @param  The string to do sha256 hash
 	///
 	/// @return  Hash result in the encoded base format
 	public String sha256hash(String str) {
-		return encode(DigestUtils.sha256(str));
+		return sha256hash(str.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/// Hashes the input stream incrementally (till its end), into the baseX format
+	///
+	/// @param  The input stream to do sha256 hash, which is not closed
+	///
+	/// @return  Hash result in the encoded base format
+	public String sha256hash(InputStream in) throws IOException {
+		return encode(digest(sha256Digest(), in));
+	}
+	
+	/// Hashes the remaining bytes of the buffer, into the baseX format
+	///
+	/// @param  The byte buffer to do sha256 hash, its position is left unchanged
+	///
+	/// @return  Hash result in the encoded base format
+	public String sha256hash(ByteBuffer buffer) {
+		return encode(digest(sha256Digest(), buffer));
+	}
+	
+	/// Hashes the whole file (via memory mapping), into the baseX format
+	///
+	/// @param  The file channel to do sha256 hash
+	///
+	/// @return  Hash result in the encoded base format
+	public String sha256hash(FileChannel channel) throws IOException {
+		return encode(digest(sha256Digest(), channel));
 	}
 	
 }
@@ -0,0 +1,678 @@
+package picoded.conv;
+
+// Java includes
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+///
+/// A BigInteger free, block based encoder / decoder for any BaseX charset.
+///
+/// Input values are processed in fixed size byte blocks, where each block is encoded into
+/// exactly `bitToStringLength(blockByteLength * 8)` characters. The encoded output of any
+/// single block is byte-for-byte identical to `BaseX.encode` for the same charset and length.
+/// As such for inputs that fit within a single block (like UUID, or hashes), the results are
+/// fully interchangeable with the BaseX class.
+///
+/// Internally each block is treated as a big-endian number of unsigned 32 bit limbs, and is
+/// converted using plain long arithmetic. Dividing by the largest power of the charset length
+/// that fits in 31 bits, hence extracting several characters per pass. Character to digit
+/// lookup is done via a precomputed table, instead of a charset scan.
+///
+/// Larger inputs are processed block by block, making its cost linear with the input size,
+/// which is what allows the InputStream / OutputStream streaming modes.
+///
+/// ### Example Usage
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~{.java}
+///
+/// BaseXBlockCodec codec = new BaseXBlockCodec(Base58.getInstance());
+///
+/// // Same result as Base58.getInstance().encode(hashBytes), for hashes up to 32 bytes
+/// String key = codec.encode(hashBytes);
+///
+/// // Streaming of large payloads
+/// try (OutputStream out = codec.encodingStream(writer)) {
+/// 	IOUtils.copy(fileInputStream, out);
+/// }
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+///
+/// Note that this object is immutable, and can be safely shared across threads. While the
+/// streams it creates are not.
+///
+public class BaseXBlockCodec {
+	
+	//----------------------------------------
+	// Static vars
+	//----------------------------------------
+	
+	/// Default block byte length, large enough to fit a SHA-256 hash in a single block
+	public static final int DEFAULT_BLOCK_BYTE_LENGTH = 32;
+	
+	/// The maximum value (exclusive) for a single limb division word. This is kept to 31 bits,
+	/// so that (remainder << 32 | limb) always fits within a positive long
+	protected static final long WORD_LIMIT = 1L << 31;
+	
+	//----------------------------------------
+	// Object instance / variables
+	//----------------------------------------
+	
+	/// The BaseX object, whose encoding format is followed
+	protected final BaseX baseX;
+	
+	/// The charset characters, where the array index is the digit value
+	protected final char[] charsetChars;
+	
+	/// The charset length, aka the radix
+	protected final int radix;
+	
+	/// Character to digit value lookup table, with -1 for invalid characters
+	protected final int[] charToDigit;
+	
+	/// Number of characters to process per long arithmetic pass
+	protected final int digitsPerWord;
+	
+	/// Powers of the radix, from radix^0 to radix^digitsPerWord
+	protected final long[] radixPow;
+	
+	/// Number of bytes per full block
+	protected final int blockByteLength;
+	
+	/// Number of characters per full block
+	protected final int blockStringLength;
+	
+	/// Number of 32 bit limbs needed to process a full block
+	protected final int blockLimbLength;
+	
+	/// Encoded string length, for each byte length from 0 to blockByteLength
+	protected final int[] byteToStringLength;
+	
+	/// Decoded byte length, for each string length from 0 to blockStringLength. -1 if invalid
+	protected final int[] stringToByteLength;
+	
+	/// Builds the codec with the default block byte length
+	///
+	/// @param  The BaseX object, whose charset and encoding format is to be followed
+	public BaseXBlockCodec(BaseX base) {
+		this(base, DEFAULT_BLOCK_BYTE_LENGTH);
+	}
+	
+	/// Builds the codec with the custom charset, and default block byte length
+	///
+	/// @param  The custom charset to use for bit to string conversion
+	public BaseXBlockCodec(String customCharset) {
+		this(new BaseX(customCharset), DEFAULT_BLOCK_BYTE_LENGTH);
+	}
+	
+	/// Builds the codec with the given block byte length
+	///
+	/// @param  The BaseX object, whose charset and encoding format is to be followed
+	/// @param  The number of bytes per block
+	public BaseXBlockCodec(BaseX base, int inBlockByteLength) {
+		if (base == null) {
+			throw new IllegalArgumentException("Missing BaseX object to build codec from");
+		}
+		if (inBlockByteLength <= 0) {
+			throw new IllegalArgumentException("Block byte length needs to be atleast 1");
+		}
+		
+		baseX = base;
+		charsetChars = base.charset().toCharArray();
+		radix = charsetChars.length;
+		blockByteLength = inBlockByteLength;
+		
+		// Character lookup table, shared with the BaseX object
+		charToDigit = base.charToDigit;
+		
+		// Derive the largest radix power that fits within a division word
+		int k = 1;
+		long pow = radix;
+		while (pow * radix <= WORD_LIMIT) {
+			pow *= radix;
+			++k;
+		}
+		digitsPerWord = k;
+		radixPow = new long[k + 1];
+		radixPow[0] = 1;
+		for (int a = 1; a <= k; ++a) {
+			radixPow[a] = radixPow[a - 1] * radix;
+		}
+		
+		// Precompute the string lengths, for every possible block length
+		byteToStringLength = new int[blockByteLength + 1];
+		for (int a = 1; a <= blockByteLength; ++a) {
+			byteToStringLength[a] = base.bitToStringLength(a * 8);
+		}
+		blockStringLength = byteToStringLength[blockByteLength];
+		
+		// And its reverse mapping, used for trailing partial blocks
+		stringToByteLength = new int[blockStringLength + 1];
+		for (int a = 0; a <= blockStringLength; ++a) {
+			stringToByteLength[a] = -1;
+		}
+		stringToByteLength[0] = 0;
+		for (int a = 1; a <= blockByteLength; ++a) {
+			if (stringToByteLength[byteToStringLength[a]] >= 0) {
+				throw new IllegalArgumentException("Charset length of " + radix
+					+ " is too large for a block byte length of " + blockByteLength);
+			}
+			stringToByteLength[byteToStringLength[a]] = a;
+		}
+		
+		// Limbs needed to hold the largest possible block value
+		blockLimbLength = (base.stringToBitLength(blockStringLength) + 32) / 32;
+	}
+	
+	//----------------------------------------
+	// Basic getters
+	//----------------------------------------
+	
+	/// Returns the BaseX object used
+	public BaseX baseX() {
+		return baseX;
+	}
+	
+	/// Returns the current charspace
+	public String charset() {
+		return baseX.charset();
+	}
+	
+	/// Returns the number of bytes per full block
+	public int blockByteLength() {
+		return blockByteLength;
+	}
+	
+	/// Returns the number of characters per full block
+	public int blockStringLength() {
+		return blockStringLength;
+	}
+	
+	/// Returns the encoded string length for the given input byte length
+	///
+	/// @param  Byte length to encode
+	///
+	/// @return The encoded string length
+	public int encodedLength(long byteLength) {
+		long fullBlocks = byteLength / blockByteLength;
+		int trailing = (int) (byteLength % blockByteLength);
+		return (int) (fullBlocks * blockStringLength + byteToStringLength[trailing]);
+	}
+	
+	/// Returns the decoded byte length for the given encoded string length
+	///
+	/// @param  Encoded string length
+	///
+	/// @return The decoded byte length, or -1 if its not a valid encoded length
+	public int decodedLength(long stringLength) {
+		long fullBlocks = stringLength / blockStringLength;
+		int trailing = stringToByteLength[(int) (stringLength % blockStringLength)];
+		if (trailing < 0) {
+			return -1;
+		}
+		return (int) (fullBlocks * blockByteLength + trailing);
+	}
+	
+	//----------------------------------------
+	// Single block encoding / decoding
+	//----------------------------------------
+	
+	/// Encodes a single block (of up to blockByteLength), into the output char array
+	///
+	/// The output is identical to BaseX.encode, for the same byte values
+	///
+	/// @param  Byte array to encode from
+	/// @param  Byte array offset to start from
+	/// @param  Number of bytes to encode, up to blockByteLength
+	/// @param  Output char array
+	/// @param  Output char array offset to write into
+	///
+	/// @return Number of characters written
+	public int encodeBlock(byte[] in, int off, int len, char[] out, int outOff) {
+		return encodeBlock(in, off, len, out, outOff, new int[blockLimbLength]);
+	}
+	
+	/// Encodes a single block, using the given limbs array as scratch space
+	///
+	/// @param  Byte array to encode from
+	/// @param  Byte array offset to start from
+	/// @param  Number of bytes to encode, up to blockByteLength
+	/// @param  Output char array
+	/// @param  Output char array offset to write into
+	/// @param  Scratch space, of atleast blockLimbLength
+	///
+	/// @return Number of characters written
+	protected int encodeBlock(byte[] in, int off, int len, char[] out, int outOff, int[] limbs) {
+		if (len < 0 || len > blockByteLength) {
+			throw new IllegalArgumentException("Invalid block byte length : " + len);
+		}
+		
+		// Load the bytes as big-endian 32 bit limbs
+		int limbCount = (len + 3) / 4;
+		int pos = off;
+		for (int a = 0; a < limbCount; ++a) {
+			int limbBytes = (a == 0) ? len - (limbCount - 1) * 4 : 4;
+			int v = 0;
+			for (int b = 0; b < limbBytes; ++b) {
+				v = (v << 8) | (in[pos++] & 0xFF);
+			}
+			limbs[a] = v;
+		}
+		
+		// The characters are derived from the least significant value first,
+		// hence the output is filled up in reverse.
+		int stringLength = byteToStringLength[len];
+		int outPos = outOff + stringLength;
+		int start = 0;
+		long divisor = radixPow[digitsPerWord];
+		while (outPos > outOff) {
+			// Skip the leading zero limbs
+			while (start < limbCount && limbs[start] == 0) {
+				++start;
+			}
+			
+			// Divide the limbs, by the word divisor
+			long rem = 0;
+			for (int a = start; a < limbCount; ++a) {
+				long cur = (rem << 32) | (limbs[a] & 0xFFFFFFFFL);
+				long quo = cur / divisor;
+				rem = cur - quo * divisor;
+				limbs[a] = (int) quo;
+			}
+			
+			// And extract the characters from the remainder
+			for (int d = 0; d < digitsPerWord && outPos > outOff; ++d) {
+				out[--outPos] = charsetChars[(int) (rem % radix)];
+				rem /= radix;
+			}
+		}
+		return stringLength;
+	}
+	
+	/// Decodes a single block (of up to blockStringLength characters), into the output byte array
+	///
+	/// The output is identical to BaseX.decode, for the same string and byteLength
+	///
+	/// @param  Encoded string to decode from
+	/// @param  Offset to start from
+	/// @param  Number of characters to decode, up to blockStringLength
+	/// @param  Output byte array
+	/// @param  Output byte array offset to write into
+	/// @param  Byte length to output
+	/// @param  Set this to false, to make the byte encoding length strict
+	///
+	/// @return Number of bytes written
+	public int decodeBlock(CharSequence in, int off, int len, byte[] out, int outOff,
+		int byteLength, boolean acceptEncodingLoss) {
+		return decodeBlock(in, off, len, out, outOff, byteLength, acceptEncodingLoss,
+			new int[blockLimbLength]);
+	}
+	
+	/// Decodes a single block, using the given limbs array as scratch space
+	///
+	/// @param  Encoded string to decode from
+	/// @param  Offset to start from
+	/// @param  Number of characters to decode, up to blockStringLength
+	/// @param  Output byte array
+	/// @param  Output byte array offset to write into
+	/// @param  Byte length to output
+	/// @param  Set this to false, to make the byte encoding length strict
+	/// @param  Scratch space, of atleast blockLimbLength
+	///
+	/// @return Number of bytes written
+	protected int decodeBlock(CharSequence in, int off, int len, byte[] out, int outOff,
+		int byteLength, boolean acceptEncodingLoss, int[] limbs) {
+		if (len < 0 || len > blockStringLength) {
+			throw new IllegalArgumentException("Invalid block string length : " + len);
+		}
+		
+		// Reset the scratch limbs
+		int limbCount = blockLimbLength;
+		for (int a = 0; a < limbCount; ++a) {
+			limbs[a] = 0;
+		}
+		
+		// Accumulate the characters, digitsPerWord at a time
+		int pos = off;
+		int end = off + len;
+		while (pos < end) {
+			int chunk = Math.min(digitsPerWord, end - pos);
+			long carry = 0;
+			for (int a = 0; a < chunk; ++a) {
+				carry = carry * radix + digitOf(in, pos++, off, len);
+			}
+			
+			// limbs = limbs * radix^chunk + carry
+			long mul = radixPow[chunk];
+			for (int a = limbCount - 1; a >= 0; --a) {
+				long cur = (limbs[a] & 0xFFFFFFFFL) * mul + carry;
+				limbs[a] = (int) cur;
+				carry = cur >>> 32;
+			}
+		}
+		
+		// Write out the lowest byteLength bytes, as big-endian
+		for (int a = 0; a < byteLength; ++a) {
+			out[outOff + byteLength - 1 - a] = limbByte(limbs, limbCount, a);
+		}
+		
+		// Check that no bits were lost, if its strict
+		if (!acceptEncodingLoss) {
+			for (int a = byteLength; a < limbCount * 4; ++a) {
+				if (limbByte(limbs, limbCount, a) != 0) {
+					throw new IllegalArgumentException("Encoded value loss for given byteLength("
+						+ byteLength + ") for input encodedString: " + in.subSequence(off, end));
+				}
+			}
+		}
+		return byteLength;
+	}
+	
+	/// Gets the digit value of the character at the given position, throws on invalid characters
+	///
+	/// @param  Encoded string
+	/// @param  Character position
+	/// @param  Encoded block offset (for error throwing)
+	/// @param  Encoded block length (for error throwing)
+	///
+	/// @return The digit value
+	protected int digitOf(CharSequence in, int pos, int off, int len) {
+		char c = in.charAt(pos);
+		int digit = (c < charToDigit.length) ? charToDigit[c] : -1;
+		if (digit < 0) {
+			throw new IllegalArgumentException("Invalid character `" + c + "` for encoded string:"
+				+ in.subSequence(off, off + len));
+		}
+		return digit;
+	}
+	
+	/// Gets the n-th least significant byte from the limbs
+	///
+	/// @param  Limbs to read from
+	/// @param  Number of limbs
+	/// @param  Byte position, from the least significant byte
+	///
+	/// @return The byte value
+	protected static byte limbByte(int[] limbs, int limbCount, int bytePos) {
+		int limbIndex = limbCount - 1 - (bytePos >> 2);
+		if (limbIndex < 0) {
+			return 0;
+		}
+		return (byte) (limbs[limbIndex] >>> ((bytePos & 3) << 3));
+	}
+	
+	//----------------------------------------
+	// Full byte array encoding / decoding
+	//----------------------------------------
+	
+	/// Encodes the byte array, block by block
+	///
+	/// @param  Byte Array values to encode
+	///
+	/// @return Encoded string
+	public String encode(byte[] bArr) {
+		return encode(bArr, 0, bArr.length);
+	}
+	
+	/// Encodes the byte array, block by block
+	///
+	/// @param  Byte Array values to encode
+	/// @param  Byte array offset to start from
+	/// @param  Number of bytes to encode
+	///
+	/// @return Encoded string
+	public String encode(byte[] bArr, int off, int len) {
+		char[] out = new char[encodedLength(len)];
+		int[] limbs = new int[blockLimbLength];
+		int outPos = 0;
+		int end = off + len;
+		for (int pos = off; pos < end; pos += blockByteLength) {
+			outPos += encodeBlock(bArr, pos, Math.min(blockByteLength, end - pos), out, outPos, limbs);
+		}
+		return new String(out);
+	}
+	
+	/// Decodes the encoded string, block by block
+	///
+	/// @param  Encoded string to convert
+	///
+	/// @return Decoded byte array
+	public byte[] decode(CharSequence encodedString) {
+		int stringLength = encodedString.length();
+		int byteLength = decodedLength(stringLength);
+		if (byteLength < 0) {
+			throw new IllegalArgumentException("Invalid encoded string length of " + stringLength
+				+ " for block string length of " + blockStringLength);
+		}
+		
+		byte[] out = new byte[byteLength];
+		int[] limbs = new int[blockLimbLength];
+		int outPos = 0;
+		for (int pos = 0; pos < stringLength; pos += blockStringLength) {
+			int chunk = Math.min(blockStringLength, stringLength - pos);
+			outPos += decodeBlock(encodedString, pos, chunk, out, outPos, stringToByteLength[chunk],
+				false, limbs);
+		}
+		return out;
+	}
+	
+	//----------------------------------------
+	// Streaming support
+	//----------------------------------------
+	
+	/// Returns an OutputStream, where the written bytes are encoded into the given Writer
+	///
+	/// Note that closing the stream, writes out the trailing partial block, and closes the Writer.
+	/// Use `EncodingOutputStream.finish()` if the Writer should be kept open.
+	///
+	/// @param  Writer to output the encoded characters into
+	///
+	/// @return The encoding OutputStream
+	public EncodingOutputStream encodingStream(Writer out) {
+		return new EncodingOutputStream(out);
+	}
+	
+	/// Returns an InputStream, which decodes the characters read from the given Reader
+	///
+	/// @param  Reader to read the encoded characters from
+	///
+	/// @return The decoding InputStream
+	public DecodingInputStream decodingStream(Reader in) {
+		return new DecodingInputStream(in);
+	}
+	
+	/// OutputStream, that encodes the bytes block by block into a Writer
+	public class EncodingOutputStream extends OutputStream {
+		
+		/// Writer to output into
+		protected final Writer writer;
+		
+		/// Pending block bytes
+		protected final byte[] block = new byte[blockByteLength];
+		
+		/// Number of pending block bytes
+		protected int blockPos = 0;
+		
+		/// Encoded characters buffer
+		protected final char[] chars = new char[blockStringLength];
+		
+		/// Scratch limbs
+		protected final int[] limbs = new int[blockLimbLength];
+		
+		/// Finished flag, after which writes are no longer allowed
+		protected boolean finished = false;
+		
+		/// Constructor with the writer to output into
+		protected EncodingOutputStream(Writer out) {
+			writer = out;
+		}
+		
+		@Override
+		public void write(int b) throws IOException {
+			ensureNotFinished();
+			block[blockPos++] = (byte) b;
+			if (blockPos == blockByteLength) {
+				writeBlock();
+			}
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			ensureNotFinished();
+			int end = off + len;
+			int pos = off;
+			while (pos < end) {
+				// Full blocks can skip the pending block buffer entirely
+				if (blockPos == 0 && end - pos >= blockByteLength) {
+					writer.write(chars, 0, encodeBlock(b, pos, blockByteLength, chars, 0, limbs));
+					pos += blockByteLength;
+					continue;
+				}
+				int copy = Math.min(blockByteLength - blockPos, end - pos);
+				System.arraycopy(b, pos, block, blockPos, copy);
+				blockPos += copy;
+				pos += copy;
+				if (blockPos == blockByteLength) {
+					writeBlock();
+				}
+			}
+		}
+		
+		/// Flushes the writer, note that any pending partial block is NOT written,
+		/// as it would change the block boundaries. See `finish()`
+		@Override
+		public void flush() throws IOException {
+			writer.flush();
+		}
+		
+		/// Writes out any pending partial block, without closing the writer
+		public void finish() throws IOException {
+			if (finished) {
+				return;
+			}
+			if (blockPos > 0) {
+				writeBlock();
+			}
+			finished = true;
+			writer.flush();
+		}
+		
+		@Override
+		public void close() throws IOException {
+			finish();
+			writer.close();
+		}
+		
+		/// Encodes and write out the pending block
+		protected void writeBlock() throws IOException {
+			writer.write(chars, 0, encodeBlock(block, 0, blockPos, chars, 0, limbs));
+			blockPos = 0;
+		}
+		
+		/// Throws an IOException if finish was called
+		protected void ensureNotFinished() throws IOException {
+			if (finished) {
+				throw new IOException("Encoding stream is already finished");
+			}
+		}
+	}
+	
+	/// InputStream, that decodes the characters block by block from a Reader
+	public class DecodingInputStream extends InputStream {
+		
+		/// Reader to read from
+		protected final Reader reader;
+		
+		/// Encoded characters buffer, for a single block
+		protected final char[] chars = new char[blockStringLength];
+		
+		/// CharSequence view of the chars buffer
+		protected final CharSequence charSeq = CharBuffer.wrap(chars);
+		
+		/// Decoded block bytes
+		protected final byte[] block = new byte[blockByteLength];
+		
+		/// Number of decoded bytes in block, and the current read position
+		protected int blockLen = 0;
+		protected int blockPos = 0;
+		
+		/// Scratch limbs
+		protected final int[] limbs = new int[blockLimbLength];
+		
+		/// End of stream flag
+		protected boolean eof = false;
+		
+		/// Constructor with the reader to read from
+		protected DecodingInputStream(Reader in) {
+			reader = in;
+		}
+		
+		@Override
+		public int read() throws IOException {
+			if (blockPos >= blockLen && !readBlock()) {
+				return -1;
+			}
+			return block[blockPos++] & 0xFF;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (blockPos >= blockLen && !readBlock()) {
+				return -1;
+			}
+			int copy = Math.min(len, blockLen - blockPos);
+			System.arraycopy(block, blockPos, b, off, copy);
+			blockPos += copy;
+			return copy;
+		}
+		
+		@Override
+		public int available() {
+			return blockLen - blockPos;
+		}
+		
+		@Override
+		public void close() throws IOException {
+			reader.close();
+		}
+		
+		/// Reads and decode the next block
+		///
+		/// @return false, if there is no more blocks
+		protected boolean readBlock() throws IOException {
+			if (eof) {
+				return false;
+			}
+			
+			// Read in a full block worth of characters (if possible)
+			int len = 0;
+			while (len < blockStringLength) {
+				int r = reader.read(chars, len, blockStringLength - len);
+				if (r < 0) {
+					eof = true;
+					break;
+				}
+				len += r;
+			}
+			if (len == 0) {
+				return false;
+			}
+			
+			// Get the block byte length, and decode it
+			int byteLength = stringToByteLength[len];
+			if (byteLength < 0) {
+				throw new IOException("Invalid trailing block string length of " + len);
+			}
+			blockLen = decodeBlock(charSeq, 0, len, block, 0, byteLength, false, limbs);
+			blockPos = 0;
+			return blockLen > 0;
+		}
+	}
+	
+}
@@ -0,0 +1,476 @@
+package picoded.conv;
+
+// Java libs
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+///
+/// Bulk (column) conversions, of a List / Iterable / Object[] of values into a primitive or
+/// String array. With the same per element results as GenericConvert.toInt / toLong /
+/// toDouble / toString, using the given fallback for each element.
+///
+/// Instead of the full instanceof chain per element, the conversion is decided once per run of
+/// elements of the same class. Such as a column of Integer, or numeric String values.
+///
+/// Conversions can be written into a caller provided array (which must fit all the elements),
+/// and large inputs can be split across a ForkJoinPool. Inputs which are not random access
+/// lists (or arrays) are first copied into one.
+///
+/// ### Example Usage
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~{.java}
+///
+/// int[] ages = ColumnConv.toIntArray(ageColumn, -1);
+///
+/// // Into an existing array, in parallel
+/// double[] scores = new double[scoreColumn.size()];
+/// ColumnConv.toDoubleArray(scoreColumn, scores, 0.0, ForkJoinPool.commonPool());
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+///
+public class ColumnConv {
+	
+	/// Invalid constructor (throws exception)
+	protected ColumnConv() {
+		throw new IllegalAccessError("Utility class");
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Element kinds, decided once per run of the same class
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Null elements, which uses the fallback
+	protected static final int KIND_NULL = 0;
+	
+	/// Number elements, converted directly
+	protected static final int KIND_NUMBER = 1;
+	
+	/// String elements, parsed with NumberConv
+	protected static final int KIND_STRING = 2;
+	
+	/// Any other elements, converted with GenericConvert
+	protected static final int KIND_OTHER = 3;
+	
+	/// Minimum number of elements per ForkJoinPool task
+	public static final int PARALLEL_THRESHOLD = 8192;
+	
+	/// Gets the element kind, of the class
+	///
+	/// @param  Element class, or null for null elements
+	///
+	/// @returns The element kind
+	protected static int kindOf(Class<?> cls) {
+		if (cls == null) {
+			return KIND_NULL;
+		} else if (cls == String.class) {
+			return KIND_STRING;
+		} else if (Number.class.isAssignableFrom(cls)) {
+			return KIND_NUMBER;
+		}
+		return KIND_OTHER;
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Range conversions, deciding the conversion once per run of elements
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Converts a range of elements, writing into the output array at the same index
+	protected static interface RangeConverter {
+		/// Converts the elements from (inclusive), to (exclusive)
+		void convert(List<?> input, int from, int to);
+	}
+	
+	/// Converts the int range
+	protected static void intRange(List<?> input, int from, int to, int[] out, int fallback) {
+		Class<?> runClass = null;
+		int kind = KIND_NULL;
+		for (int i = from; i < to; ++i) {
+			Object e = input.get(i);
+			Class<?> cls = (e == null) ? null : e.getClass();
+			if (cls != runClass) {
+				runClass = cls;
+				kind = kindOf(cls);
+			}
+			switch (kind) {
+			case KIND_NULL:
+				out[i] = fallback;
+				break;
+			case KIND_NUMBER:
+				out[i] = ((Number) e).intValue();
+				break;
+			case KIND_STRING:
+				out[i] = NumberConv.toInt((String) e, fallback);
+				break;
+			default:
+				out[i] = GenericConvert.toInt(e, fallback);
+			}
+		}
+	}
+	
+	/// Converts the long range
+	protected static void longRange(List<?> input, int from, int to, long[] out, long fallback) {
+		Class<?> runClass = null;
+		int kind = KIND_NULL;
+		for (int i = from; i < to; ++i) {
+			Object e = input.get(i);
+			Class<?> cls = (e == null) ? null : e.getClass();
+			if (cls != runClass) {
+				runClass = cls;
+				kind = kindOf(cls);
+			}
+			switch (kind) {
+			case KIND_NULL:
+				out[i] = fallback;
+				break;
+			case KIND_NUMBER:
+				out[i] = ((Number) e).longValue();
+				break;
+			case KIND_STRING:
+				out[i] = NumberConv.toLong((String) e, fallback);
+				break;
+			default:
+				out[i] = GenericConvert.toLong(e, fallback);
+			}
+		}
+	}
+	
+	/// Converts the double range
+	protected static void doubleRange(List<?> input, int from, int to, double[] out,
+		double fallback) {
+		Class<?> runClass = null;
+		int kind = KIND_NULL;
+		for (int i = from; i < to; ++i) {
+			Object e = input.get(i);
+			Class<?> cls = (e == null) ? null : e.getClass();
+			if (cls != runClass) {
+				runClass = cls;
+				kind = kindOf(cls);
+			}
+			switch (kind) {
+			case KIND_NULL:
+				out[i] = fallback;
+				break;
+			case KIND_NUMBER:
+				out[i] = ((Number) e).doubleValue();
+				break;
+			case KIND_STRING:
+				out[i] = NumberConv.toDouble((String) e, fallback);
+				break;
+			default:
+				out[i] = GenericConvert.toDouble(e, fallback);
+			}
+		}
+	}
+	
+	/// Converts the String range
+	protected static void stringRange(List<?> input, int from, int to, String[] out,
+		String fallback) {
+		Class<?> runClass = null;
+		int kind = KIND_NULL;
+		for (int i = from; i < to; ++i) {
+			Object e = input.get(i);
+			Class<?> cls = (e == null) ? null : e.getClass();
+			if (cls != runClass) {
+				runClass = cls;
+				kind = kindOf(cls);
+			}
+			switch (kind) {
+			case KIND_NULL:
+				out[i] = fallback;
+				break;
+			case KIND_STRING:
+				out[i] = (String) e;
+				break;
+			default:
+				out[i] = GenericConvert.toString(e, fallback);
+			}
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Input handling, and parallel splitting
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// ForkJoinPool task, splitting the range till its within PARALLEL_THRESHOLD
+	protected static class RangeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		protected final List<?> input;
+		protected final int from;
+		protected final int to;
+		protected final RangeConverter converter;
+		
+		/// Constructor
+		protected RangeTask(List<?> inInput, int inFrom, int inTo, RangeConverter inConverter) {
+			input = inInput;
+			from = inFrom;
+			to = inTo;
+			converter = inConverter;
+		}
+		
+		@Override
+		protected void compute() {
+			if (to - from <= PARALLEL_THRESHOLD) {
+				converter.convert(input, from, to);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new RangeTask(input, from, mid, converter), new RangeTask(input, mid, to,
+				converter));
+		}
+	}
+	
+	/// Gets the input as a random access list, copying it only if needed
+	///
+	/// @param  Input values
+	///
+	/// @returns The random access list
+	protected static List<?> randomAccessList(Iterable<?> input) {
+		if (input instanceof List && input instanceof RandomAccess) {
+			return (List<?>) input;
+		}
+		List<Object> ret = (input instanceof Collection) ? new ArrayList<Object>(
+			((Collection<?>) input).size()) : new ArrayList<Object>();
+		for (Object e : input) {
+			ret.add(e);
+		}
+		return ret;
+	}
+	
+	/// Converts the whole input, in parallel if applicable
+	///
+	/// @param  Random access input list
+	/// @param  Output array length
+	/// @param  ForkJoinPool to use, or null
+	/// @param  Range converter to use
+	protected static void convert(List<?> input, int outLength, ForkJoinPool pool,
+		RangeConverter converter) {
+		int size = input.size();
+		if (outLength < size) {
+			throw new IllegalArgumentException("Output array length (" + outLength
+				+ ") is smaller then the input size (" + size + ")");
+		}
+		if (pool == null || size <= PARALLEL_THRESHOLD) {
+			converter.convert(input, 0, size);
+		} else {
+			pool.invoke(new RangeTask(input, 0, size, converter));
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// int arrays
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Converts the values, into the int array
+	///
+	/// @param  Input values
+	/// @param  Output array, which must fit all the values
+	/// @param  Fallback, for each value that is null or not convertable
+	/// @param  ForkJoinPool, to split large inputs across (or null)
+	public static void toIntArray(Iterable<?> input, int[] out, int fallback, ForkJoinPool pool) {
+		convert(randomAccessList(input), out.length, pool, (in, from, to) -> intRange(in, from, to,
+			out, fallback));
+	}
+	
+	/// Converts the values, into the int array
+	///
+	/// @param  Input values
+	/// @param  Output array, which must fit all the values
+	/// @param  Fallback, for each value that is null or not convertable
+	/// @param  ForkJoinPool, to split large inputs across (or null)
+	public static void toIntArray(Object[] input, int[] out, int fallback, ForkJoinPool pool) {
+		toIntArray(Arrays.asList(input), out, fallback, pool);
+	}
+	
+	/// Converts the values, into a new int array
+	///
+	/// @param  Input values
+	/// @param  Fallback, for each value that is null or not convertable
+	///
+	/// @returns The int array
+	public static int[] toIntArray(Iterable<?> input, int fallback) {
+		List<?> list = randomAccessList(input);
+		int[] ret = new int[list.size()];
+		toIntArray(list, ret, fallback, null);
+		return ret;
+	}
+	
+	/// Converts the values, into a new int array
+	///
+	/// @param  Input values
+	/// @param  Fallback, for each value that is null or not convertable
+	///
+	/// @returns The int array
+	public static int[] toIntArray(Object[] input, int fallback) {
+		return toIntArray(Arrays.asList(input), fallback);
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// long arrays
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Converts the values, into the long array
+	///
+	/// @param  Input values
+	/// @param  Output array, which must fit all the values
+	/// @param  Fallback, for each value that is null or not convertable
+	/// @param  ForkJoinPool, to split large inputs across (or null)
+	public static void toLongArray(Iterable<?> input, long[] out, long fallback,
+		ForkJoinPool pool) {
+		convert(randomAccessList(input), out.length, pool, (in, from, to) -> longRange(in, from,
+			to, out, fallback));
+	}
+	
+	/// Converts the values, into the long array
+	///
+	/// @param  Input values
+	/// @param  Output array, which must fit all the values
+	/// @param  Fallback, for each value that is null or not convertable
+	/// @param  ForkJoinPool, to split large inputs across (or null)
+	public static void toLongArray(Object[] input, long[] out, long fallback, ForkJoinPool pool) {
+		toLongArray(Arrays.asList(input), out, fallback, pool);
+	}
+	
+	/// Converts the values, into a new long array
+	///
+	/// @param  Input values
+	/// @param  Fallback, for each value that is null or not convertable
+	///
+	/// @returns The long array
+	public static long[] toLongArray(Iterable<?> input, long fallback) {
+		List<?> list = randomAccessList(input);
+		long[] ret = new long[list.size()];
+		toLongArray(list, ret, fallback, null);
+		return ret;
+	}
+	
+	/// Converts the values, into a new long array
+	///
+	/// @param  Input values
+	/// @param  Fallback, for each value that is null or not convertable
+	///
+	/// @returns The long array
+	public static long[] toLongArray(Object[] input, long fallback) {
+		return toLongArray(Arrays.asList(input), fallback);
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// double arrays
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Converts the values, into the double array
+	///
+	/// @param  Input values
+	/// @param  Output array, which must fit all the values
+	/// @param  Fallback, for each value that is null or not convertable
+	/// @param  ForkJoinPool, to split large inputs across (or null)
+	public static void toDoubleArray(Iterable<?> input, double[] out, double fallback,
+		ForkJoinPool pool) {
+		convert(randomAccessList(input), out.length, pool, (in, from, to) -> doubleRange(in, from,
+			to, out, fallback));
+	}
+	
+	/// Converts the values, into the double array
+	///
+	/// @param  Input values
+	/// @param  Output array, which must fit all the values
+	/// @param  Fallback, for each value that is null or not convertable
+	/// @param  ForkJoinPool, to split large inputs across (or null)
+	public static void toDoubleArray(Object[] input, double[] out, double fallback,
+		ForkJoinPool pool) {
+		toDoubleArray(Arrays.asList(input), out, fallback, pool);
+	}
+	
+	/// Converts the values, into a new double array
+	///
+	/// @param  Input values
+	/// @param  Fallback, for each value that is null or not convertable
+	///
+	/// @returns The double array
+	public static double[] toDoubleArray(Iterable<?> input, double fallback) {
+		List<?> list = randomAccessList(input);
+		double[] ret = new double[list.size()];
+		toDoubleArray(list, ret, fallback, null);
+		return ret;
+	}
+	
+	/// Converts the values, into a new double array
+	///
+	/// @param  Input values
+	/// @param  Fallback, for each value that is null or not convertable
+	///
+	/// @returns The double array
+	public static double[] toDoubleArray(Object[] input, double fallback) {
+		return toDoubleArray(Arrays.asList(input), fallback);
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// String arrays
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Converts the values, into the String array
+	///
+	/// @param  Input values
+	/// @param  Output array, which must fit all the values
+	/// @param  Fallback, for each value that is null
+	/// @param  ForkJoinPool, to split large inputs across (or null)
+	public static void toStringArray(Iterable<?> input, String[] out, String fallback,
+		ForkJoinPool pool) {
+		convert(randomAccessList(input), out.length, pool, (in, from, to) -> stringRange(in, from,
+			to, out, fallback));
+	}
+	
+	/// Converts the values, into the String array
+	///
+	/// @param  Input values
+	/// @param  Output array, which must fit all the values
+	/// @param  Fallback, for each value that is null
+	/// @param  ForkJoinPool, to split large inputs across (or null)
+	public static void toStringArray(Object[] input, String[] out, String fallback,
+		ForkJoinPool pool) {
+		toStringArray(Arrays.asList(input), out, fallback, pool);
+	}
+	
+	/// Converts the values, into a new String array
+	///
+	/// @param  Input values
+	/// @param  Fallback, for each value that is null
+	///
+	/// @returns The String array
+	public static String[] toStringArray(Iterable<?> input, String fallback) {
+		List<?> list = randomAccessList(input);
+		String[] ret = new String[list.size()];
+		toStringArray(list, ret, fallback, null);
+		return ret;
+	}
+	
+	/// Converts the values, into a new String array
+	///
+	/// @param  Input values
+	/// @param  Fallback, for each value that is null
+	///
+	/// @returns The String array
+	public static String[] toStringArray(Object[] input, String fallback) {
+		return toStringArray(Arrays.asList(input), fallback);
+	}
+	
+}
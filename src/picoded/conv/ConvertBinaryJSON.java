@@ -0,0 +1,241 @@
+package picoded.conv;
+
+// Java libs
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+// Jackson library used
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+// Picoded libs
+import picoded.conv.ConvertJSON.InvalidFormatJSON;
+
+///
+/// Binary JSON (Smile format) varient of ConvertJSON, for compact service to service,
+/// and cache payloads. Handling the same Map / List / primitive structures as ConvertJSON.
+///
+/// Smile is a binary encoding of the JSON data model, which is smaller and faster to parse
+/// then text JSON. Especially for repeated map keys, which are back referenced instead of
+/// repeated. Note that the output is NOT human readable, use ConvertJSON for that.
+///
+/// The only notable difference from text JSON, is that byte[] values are stored as raw binary.
+/// And hence read back as byte[], instead of a base64 string.
+///
+/// ---------------------------------------------------------------------------------------------------
+///
+/// Technical notes: Jackson with the Smile data format is used internally.
+///
+public class ConvertBinaryJSON {
+	
+	/// Invalid constructor (throws exception)
+	protected ConvertBinaryJSON() {
+		throw new IllegalAccessError("Utility class");
+	}
+	
+	/// Internal reused object mapper, via the jackson smile factory
+	protected static final ObjectMapper cachedMapper = buildMapper();
+	
+	/// Builds the object mapper used, with the same leniency configuration as ConvertJSON
+	///
+	/// @returns The Jacksons smile map builder
+	protected static ObjectMapper buildMapper() {
+		SmileFactory factory = new SmileFactory();
+		
+		// Back reference repeated map keys, and short string values
+		factory.configure(SmileGenerator.Feature.CHECK_SHARED_NAMES, true);
+		factory.configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, true);
+		
+		ObjectMapper cm = new ObjectMapper(factory);
+		
+		// Same leniency as ConvertJSON, applicable only for the text sections
+		cm.configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+		cm.configure(JsonParser.Feature.ALLOW_NUMERIC_LEADING_ZEROS, true);
+		cm.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
+		
+		// Streams are owned (and closed) by the caller
+		cm.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
+		cm.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+		
+		return cm;
+	}
+	
+	/// Writes the input object as binary json, into the OutputStream (which is not closed)
+	///
+	/// @param  OutputStream to output into
+	/// @param  Input object to convert
+	protected static void writeValue(OutputStream output, Object input) throws IOException {
+		try (JsonGenerator gen = cachedMapper.getFactory().createGenerator(output)) {
+			cachedMapper.writeValue(gen, input);
+		}
+	}
+	
+	/////////////////////////////////////////////////
+	//
+	// From java objects to binary JSON
+	//
+	/////////////////////////////////////////////////
+	
+	/// Converts input Map into binary json
+	///
+	/// @param  Input map to convert
+	///
+	/// @return The binary json
+	public static byte[] fromMap(Map<String, ?> input) {
+		return fromObject(input);
+	}
+	
+	/// Converts input List into binary json
+	///
+	/// @param  Input list to convert
+	///
+	/// @return The binary json
+	public static byte[] fromList(List<?> input) {
+		return fromObject(input);
+	}
+	
+	/// Converts input object into binary json
+	///
+	/// @param  Input object to convert
+	///
+	/// @return The binary json
+	public static byte[] fromObject(Object input) {
+		try {
+			ByteArrayOutputStream ret = new ByteArrayOutputStream();
+			writeValue(ret, input);
+			return ret.toByteArray();
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
+	}
+	
+	/// Writes the input object as binary json, into the OutputStream (which is not closed)
+	///
+	/// @param  Input object to convert
+	/// @param  OutputStream to output into
+	public static void fromObject(Object input, OutputStream output) throws IOException {
+		try {
+			writeValue(output, input);
+		} catch (JsonProcessingException e) {
+			// Format exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
+	}
+	
+	/////////////////////////////////////////////////
+	//
+	// From binary JSON to java object
+	//
+	/////////////////////////////////////////////////
+	
+	/// Converts binary json into an mapping object
+	///
+	/// @param  Binary JSON
+	///
+	/// @return  Output Map if successful, else throws an error
+	@SuppressWarnings("unchecked")
+	public static Map<String, Object> toMap(byte[] input) {
+		return (Map<String, Object>) toCustomClass(input, Map.class);
+	}
+	
+	/// Converts binary json into an list array
+	///
+	/// @param  Binary JSON
+	///
+	/// @return  Output List if successful, else throws an error
+	@SuppressWarnings("unchecked")
+	public static List<Object> toList(byte[] input) {
+		return (List<Object>) toCustomClass(input, List.class);
+	}
+	
+	/// Converts binary json into any output object (depends on input)
+	///
+	/// @param  Binary JSON
+	///
+	/// @return  Output object (either map or list)
+	public static Object toObject(byte[] input) {
+		return toCustomClass(input, Object.class);
+	}
+	
+	/// Converts binary json into a custom output object
+	///
+	/// @param  Binary JSON
+	///
+	/// @return  Output object (either map or list, or other class)
+	public static Object toCustomClass(byte[] input, Class<?> c) {
+		try {
+			return cachedMapper.readValue(input, c);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
+	}
+	
+	/// Converts the binary json InputStream into an mapping object
+	///
+	/// @param  Binary JSON InputStream (which is not closed)
+	///
+	/// @return  Output Map if successful, else throws an error
+	@SuppressWarnings("unchecked")
+	public static Map<String, Object> toMap(InputStream input) throws IOException {
+		return (Map<String, Object>) toCustomClass(input, Map.class);
+	}
+	
+	/// Converts the binary json InputStream into an list array
+	///
+	/// @param  Binary JSON InputStream (which is not closed)
+	///
+	/// @return  Output List if successful, else throws an error
+	@SuppressWarnings("unchecked")
+	public static List<Object> toList(InputStream input) throws IOException {
+		return (List<Object>) toCustomClass(input, List.class);
+	}
+	
+	/// Converts the binary json InputStream into a custom output object
+	///
+	/// @param  Binary JSON InputStream (which is not closed)
+	///
+	/// @return  Output object (either map or list, or other class)
+	public static Object toCustomClass(InputStream input, Class<?> c) throws IOException {
+		try {
+			return cachedMapper.readValue(input, c);
+		} catch (JsonProcessingException e) {
+			// Format exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
+	}
+	
+	/////////////////////////////////////////////////
+	//
+	// Conversion between text and binary JSON
+	//
+	/////////////////////////////////////////////////
+	
+	/// Converts a json string into binary json
+	///
+	/// @param  JSON string
+	///
+	/// @return The binary json
+	public static byte[] fromJSON(String input) {
+		return fromObject(ConvertJSON.toObject(input));
+	}
+	
+	/// Converts binary json into a json string
+	///
+	/// @param  Binary JSON
+	///
+	/// @return The json string
+	public static String toJSON(byte[] input) {
+		return ConvertJSON.fromObject(toObject(input));
+	}
+	
+}
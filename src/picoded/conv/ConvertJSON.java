@@ -1,13 +1,28 @@
 package picoded.conv;
 
 // Java libs
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 // Jackson library used
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 
 ///
 /// json simplification helpers. When you do not need custom object / array structures
@@ -19,6 +34,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 ///
 /// Technical notes: Jackson is used internally.
 ///
+/// For large JSON data, the Reader / InputStream / Writer / OutputStream varients streams
+/// the data directly via the Jackson parser / generator, without an intermediate string.
+/// Note that these streams are never closed by ConvertJSON, and is left to the caller.
+/// Format errors are thrown as InvalidFormatJSON, while stream IOException are passed on.
+///
+/// The lenient parsing is done via the ConvertJSONProfile.LENIENT prebuilt readers / writer.
+///
 public class ConvertJSON {
 	
 	/// Invalid constructor (throws exception)
@@ -41,39 +63,25 @@ public class ConvertJSON {
 		}
 	}
 	
-	/// Internal reused object mapper, this is via jackson json converter
-	///
-	/// Memoizer for cachedMapper()
-	private static volatile ObjectMapper cachedMapper = null;
-	
-	/// cachedMapper used for JSON string parsing, this is generated once,
-	/// and reused for each return call
+	/// The ObjectMapper used for JSON parsing, from the LENIENT profile.
 	///
 	/// Note that the JSON formatting here ALLOW COMMENTS, and single quotes.
 	/// Basically making it as "linent" as a valid JSON structure in JS.
+	/// See ConvertJSONProfile, for the strict (and faster), or pretty printing varients.
 	///
 	/// @returns The Jacksons cached map builder
 	private static ObjectMapper cachedMapper() {
-		
-		// Reuse old object mapping
-		if (cachedMapper != null) {
-			return cachedMapper;
-		}
-		
-		// New object mapping
-		ObjectMapper cm = new ObjectMapper();
-		
-		// Allow comments in strings
-		cm.configure(JsonParser.Feature.ALLOW_COMMENTS, true);
-		
-		// Allow leading 0's in the int
-		cm.configure(JsonParser.Feature.ALLOW_NUMERIC_LEADING_ZEROS, true);
-		
-		// Allow single quotes in JSON
-		cm.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-		
-		// Actual map builder
-		return cachedMapper = cm;
+		return ConvertJSONProfile.LENIENT.mapper;
+	}
+	
+	/// Returns the shared jackson ObjectMapper, with the same lenient parsing as ConvertJSON.
+	///
+	/// This is meant for other picoded classes which works directly on the jackson token
+	/// stream (such as LazyJSONMap), and should NOT be reconfigured.
+	///
+	/// @returns The Jacksons cached map builder
+	public static ObjectMapper sharedMapper() {
+		return cachedMapper();
 	}
 	
 	/////////////////////////////////////////////////
@@ -112,7 +120,55 @@ public class ConvertJSON {
 	/// @return The json string
 	public static String fromObject(Object input) {
 		try {
-			return cachedMapper().writeValueAsString(input);
+			return ConvertJSONProfile.LENIENT.writer.writeValueAsString(input);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
+	}
+	
+	/////////////////////////////////////////////////
+	//
+	// From java objects to JSON streams
+	//
+	/////////////////////////////////////////////////
+	
+	/// Writes the input object as json, into the Writer (which is not closed)
+	///
+	/// @param  Input object to convert
+	/// @param  Writer to output into
+	public static void fromObject(Object input, Writer output) throws IOException {
+		try {
+			ConvertJSONProfile.LENIENT.writer.writeValue(output, input);
+		} catch (JsonProcessingException e) {
+			// Format exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
+	}
+	
+	/// Writes the input object as UTF-8 json, into the OutputStream (which is not closed)
+	///
+	/// @param  Input object to convert
+	/// @param  OutputStream to output into
+	public static void fromObject(Object input, OutputStream output) throws IOException {
+		try {
+			ConvertJSONProfile.LENIENT.writer.writeValue(output, input);
+		} catch (JsonProcessingException e) {
+			// Format exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
+	}
+	
+	/// Converts input object into UTF-8 json bytes, without an intermediate string.
+	///
+	/// Note that the output is built with jackson recycled (per thread) buffer segments.
+	///
+	/// @param  Input object to convert
+	///
+	/// @return The UTF-8 json bytes
+	public static byte[] fromObjectAsBytes(Object input) {
+		try {
+			return ConvertJSONProfile.LENIENT.writer.writeValueAsBytes(input);
 		} catch (IOException e) {
 			// Any exception is recasted as InvalidFormatJSON
 			throw new InvalidFormatJSON(e);
@@ -137,22 +193,74 @@ public class ConvertJSON {
 	
 	/// Converts a double[] to a json string
 	public static String fromArray(double[] input) {
-		return ConvertJSON.fromObject(input);
+		if (input == null) {
+			return "null";
+		}
+		try {
+			StringWriter ret = new StringWriter(input.length * 8 + 2);
+			try (JsonGenerator gen = cachedMapper().getFactory().createGenerator(ret)) {
+				gen.writeArray(input, 0, input.length);
+			}
+			return ret.toString();
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
 	}
 	
 	/// Converts a int[] to a json string
 	public static String fromArray(int[] input) {
-		return ConvertJSON.fromObject(input);
+		if (input == null) {
+			return "null";
+		}
+		try {
+			StringWriter ret = new StringWriter(input.length * 4 + 2);
+			try (JsonGenerator gen = cachedMapper().getFactory().createGenerator(ret)) {
+				gen.writeArray(input, 0, input.length);
+			}
+			return ret.toString();
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
 	}
 	
 	/// Converts a long[] to a json string
 	public static String fromArray(long[] input) {
-		return ConvertJSON.fromObject(input);
+		if (input == null) {
+			return "null";
+		}
+		try {
+			StringWriter ret = new StringWriter(input.length * 8 + 2);
+			try (JsonGenerator gen = cachedMapper().getFactory().createGenerator(ret)) {
+				gen.writeArray(input, 0, input.length);
+			}
+			return ret.toString();
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
 	}
 	
-	/// Converts a long[] to a json string
+	/// Converts a float[] to a json string
 	public static String fromArray(float[] input) {
-		return ConvertJSON.fromObject(input);
+		if (input == null) {
+			return "null";
+		}
+		try {
+			StringWriter ret = new StringWriter(input.length * 8 + 2);
+			try (JsonGenerator gen = cachedMapper().getFactory().createGenerator(ret)) {
+				gen.writeStartArray(input.length);
+				for (float value : input) {
+					gen.writeNumber(value);
+				}
+				gen.writeEndArray();
+			}
+			return ret.toString();
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
 	}
 	
 	/////////////////////////////////////////////////
@@ -200,13 +308,324 @@ public class ConvertJSON {
 	/// @return  Output object (either map or list, or other class)
 	public static Object toCustomClass(String input, Class<?> c) {
 		try {
-			return cachedMapper().readValue(input, c);
+			return ConvertJSONProfile.LENIENT.reader(c).readValue(input);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
+	}
+	
+	/////////////////////////////////////////////////
+	//
+	// From JSON streams to java object
+	//
+	/////////////////////////////////////////////////
+	
+	/// Converts the json Reader into an mapping object
+	///
+	/// @param  JSON Reader (which is not closed)
+	///
+	/// @return  Output Map if successful, else throws an error
+	@SuppressWarnings("unchecked")
+	public static Map<String, Object> toMap(Reader input) throws IOException {
+		return (Map<String, Object>) toCustomClass(input, Map.class);
+	}
+	
+	/// Converts the json InputStream into an mapping object
+	///
+	/// @param  JSON InputStream (which is not closed)
+	///
+	/// @return  Output Map if successful, else throws an error
+	@SuppressWarnings("unchecked")
+	public static Map<String, Object> toMap(InputStream input) throws IOException {
+		return (Map<String, Object>) toCustomClass(input, Map.class);
+	}
+	
+	/// Converts the json Reader into an list array
+	///
+	/// @param  JSON Reader (which is not closed)
+	///
+	/// @return  Output List if successful, else throws an error
+	@SuppressWarnings("unchecked")
+	public static List<Object> toList(Reader input) throws IOException {
+		return (List<Object>) toCustomClass(input, List.class);
+	}
+	
+	/// Converts the json InputStream into an list array
+	///
+	/// @param  JSON InputStream (which is not closed)
+	///
+	/// @return  Output List if successful, else throws an error
+	@SuppressWarnings("unchecked")
+	public static List<Object> toList(InputStream input) throws IOException {
+		return (List<Object>) toCustomClass(input, List.class);
+	}
+	
+	/// Converts the json Reader into any output object (depends on input)
+	///
+	/// @param  JSON Reader (which is not closed)
+	///
+	/// @return  Output object (either map or list)
+	public static Object toObject(Reader input) throws IOException {
+		return toCustomClass(input, Object.class);
+	}
+	
+	/// Converts the json InputStream into any output object (depends on input)
+	///
+	/// @param  JSON InputStream (which is not closed)
+	///
+	/// @return  Output object (either map or list)
+	public static Object toObject(InputStream input) throws IOException {
+		return toCustomClass(input, Object.class);
+	}
+	
+	/// Converts the json Reader into a custom output object
+	///
+	/// @param  JSON Reader (which is not closed)
+	///
+	/// @return  Output object (either map or list, or other class)
+	public static Object toCustomClass(Reader input, Class<?> c) throws IOException {
+		try {
+			return ConvertJSONProfile.LENIENT.reader(c).readValue(input);
+		} catch (JsonProcessingException e) {
+			// Format exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
+	}
+	
+	/// Converts the json InputStream into a custom output object
+	///
+	/// @param  JSON InputStream (which is not closed)
+	///
+	/// @return  Output object (either map or list, or other class)
+	public static Object toCustomClass(InputStream input, Class<?> c) throws IOException {
+		try {
+			return ConvertJSONProfile.LENIENT.reader(c).readValue(input);
+		} catch (JsonProcessingException e) {
+			// Format exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
+	}
+	
+	/////////////////////////////////////////////////
+	//
+	// From UTF-8 JSON bytes to java object
+	//
+	/////////////////////////////////////////////////
+	
+	/// Converts the UTF-8 json bytes into an mapping object
+	///
+	/// @param  UTF-8 JSON bytes
+	///
+	/// @return  Output Map if successful, else throws an error
+	public static Map<String, Object> toMap(byte[] input) {
+		return toMap(input, 0, input.length);
+	}
+	
+	/// Converts the UTF-8 json bytes (within the given range) into an mapping object
+	///
+	/// @param  UTF-8 JSON bytes
+	/// @param  Offset to read from
+	/// @param  Number of bytes to read
+	///
+	/// @return  Output Map if successful, else throws an error
+	@SuppressWarnings("unchecked")
+	public static Map<String, Object> toMap(byte[] input, int offset, int length) {
+		return (Map<String, Object>) toCustomClass(input, offset, length, Map.class);
+	}
+	
+	/// Converts the UTF-8 json bytes (within the given range) into an list array
+	///
+	/// @param  UTF-8 JSON bytes
+	/// @param  Offset to read from
+	/// @param  Number of bytes to read
+	///
+	/// @return  Output List if successful, else throws an error
+	@SuppressWarnings("unchecked")
+	public static List<Object> toList(byte[] input, int offset, int length) {
+		return (List<Object>) toCustomClass(input, offset, length, List.class);
+	}
+	
+	/// Converts the UTF-8 json bytes (within the given range) into any output object
+	///
+	/// @param  UTF-8 JSON bytes
+	/// @param  Offset to read from
+	/// @param  Number of bytes to read
+	///
+	/// @return  Output object (either map or list)
+	public static Object toObject(byte[] input, int offset, int length) {
+		return toCustomClass(input, offset, length, Object.class);
+	}
+	
+	/// Converts the UTF-8 json bytes (within the given range) into a custom output object
+	///
+	/// @param  UTF-8 JSON bytes
+	/// @param  Offset to read from
+	/// @param  Number of bytes to read
+	/// @param  Class to output as
+	///
+	/// @return  Output object (either map or list, or other class)
+	public static Object toCustomClass(byte[] input, int offset, int length, Class<?> c) {
+		try {
+			return ConvertJSONProfile.LENIENT.reader(c).readValue(input, offset, length);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
+	}
+	
+	/// Converts the remaining UTF-8 json bytes of the buffer into an mapping object,
+	/// the buffer position is left unchanged.
+	///
+	/// @param  UTF-8 JSON byte buffer
+	///
+	/// @return  Output Map if successful, else throws an error
+	@SuppressWarnings("unchecked")
+	public static Map<String, Object> toMap(ByteBuffer input) {
+		return (Map<String, Object>) toCustomClass(input, Map.class);
+	}
+	
+	/// Converts the remaining UTF-8 json bytes of the buffer into any output object,
+	/// the buffer position is left unchanged.
+	///
+	/// @param  UTF-8 JSON byte buffer
+	///
+	/// @return  Output object (either map or list)
+	public static Object toObject(ByteBuffer input) {
+		return toCustomClass(input, Object.class);
+	}
+	
+	/// Converts the remaining UTF-8 json bytes of the buffer into a custom output object,
+	/// the buffer position is left unchanged.
+	///
+	/// Heap buffers are parsed directly from its backing array, while direct buffers
+	/// are streamed without copying it into an array first.
+	///
+	/// @param  UTF-8 JSON byte buffer
+	/// @param  Class to output as
+	///
+	/// @return  Output object (either map or list, or other class)
+	public static Object toCustomClass(ByteBuffer input, Class<?> c) {
+		if (input.hasArray()) {
+			return toCustomClass(input.array(), input.arrayOffset() + input.position(),
+				input.remaining(), c);
+		}
+		try {
+			return ConvertJSONProfile.LENIENT.reader(c).readValue(
+				new ByteBufferBackedInputStream(input.duplicate()));
 		} catch (IOException e) {
 			// Any exception is recasted as InvalidFormatJSON
 			throw new InvalidFormatJSON(e);
 		}
 	}
 	
+	/////////////////////////////////////////////////
+	//
+	// Iterating JSON array streams, one element at a time
+	//
+	/////////////////////////////////////////////////
+	
+	/// Iterator over the elements of a streamed json array, where only the current element
+	/// is held in memory. Format errors are thrown as InvalidFormatJSON while iterating.
+	///
+	/// Closing the iterator closes the parser, but not the underlying stream.
+	public static class JSONIterator<T> implements Iterator<T>, Closeable {
+		
+		/// The underlying jackson iterator
+		protected final MappingIterator<T> source;
+		
+		/// Wraps the jackson iterator
+		protected JSONIterator(MappingIterator<T> inSource) {
+			source = inSource;
+		}
+		
+		/// Returns true if there are more elements
+		@Override
+		public boolean hasNext() {
+			try {
+				return source.hasNext();
+			} catch (RuntimeJsonMappingException e) {
+				throw new InvalidFormatJSON(e);
+			}
+		}
+		
+		/// Returns the next element
+		@Override
+		public T next() {
+			try {
+				return source.next();
+			} catch (RuntimeJsonMappingException e) {
+				throw new InvalidFormatJSON(e);
+			}
+		}
+		
+		/// Closes the parser
+		@Override
+		public void close() throws IOException {
+			source.close();
+		}
+	}
+	
+	/// Iterates the top level json array (or sequence of json objects) found in the Reader,
+	/// as maps one at a time. Without loading the whole array into memory.
+	///
+	/// @param  JSON Reader (which is not closed)
+	///
+	/// @return  Iterator of maps
+	public static JSONIterator<Map<String, Object>> toMapIterator(Reader input)
+		throws IOException {
+		return toCustomClassIterator(input, Map.class);
+	}
+	
+	/// Iterates the top level json array (or sequence of json objects) found in the InputStream,
+	/// as maps one at a time. Without loading the whole array into memory.
+	///
+	/// @param  JSON InputStream (which is not closed)
+	///
+	/// @return  Iterator of maps
+	public static JSONIterator<Map<String, Object>> toMapIterator(InputStream input)
+		throws IOException {
+		return toCustomClassIterator(input, Map.class);
+	}
+	
+	/// Iterates the top level json array (or sequence of json values) found in the Reader,
+	/// as the custom class one at a time.
+	///
+	/// @param  JSON Reader (which is not closed)
+	/// @param  Class of each element
+	///
+	/// @return  Iterator of elements
+	@SuppressWarnings("unchecked")
+	public static <T> JSONIterator<T> toCustomClassIterator(Reader input, Class<?> c)
+		throws IOException {
+		try {
+			MappingIterator<T> iter = ConvertJSONProfile.LENIENT.reader(c).readValues(input);
+			return new JSONIterator<T>(iter);
+		} catch (JsonProcessingException e) {
+			// Format exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
+	}
+	
+	/// Iterates the top level json array (or sequence of json values) found in the InputStream,
+	/// as the custom class one at a time.
+	///
+	/// @param  JSON InputStream (which is not closed)
+	/// @param  Class of each element
+	///
+	/// @return  Iterator of elements
+	@SuppressWarnings("unchecked")
+	public static <T> JSONIterator<T> toCustomClassIterator(InputStream input, Class<?> c)
+		throws IOException {
+		try {
+			MappingIterator<T> iter = ConvertJSONProfile.LENIENT.reader(c).readValues(input);
+			return new JSONIterator<T>(iter);
+		} catch (JsonProcessingException e) {
+			// Format exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
+		}
+	}
+	
 	/////////////////////////////////////////////////
 	//
 	// From string to array conversion
@@ -248,76 +667,174 @@ public class ConvertJSON {
 		return ret;
 	}
 	
-	/// Converts a json string into a double[] array
+	/// Initial buffer size, used for parsing primitive arrays
+	protected static final int PRIMITIVE_BUFFER_SIZE = 16;
+	
+	/// Creates the parser for the json string, and moves it to the start of the array
 	///
 	/// @param  Input JSON string
 	///
-	/// @return Converted double[] array, or Null for input 'null'
-	public static double[] toDoubleArray(String input) {
-		List<Object> rawList = ConvertJSON.toList(input);
-		if (rawList == null) {
+	/// @return The JsonParser at the start of the array, or null for input 'null'
+	protected static JsonParser primitiveArrayParser(String input) throws IOException {
+		JsonParser parser = cachedMapper().getFactory().createParser(input);
+		JsonToken token = parser.nextToken();
+		if (token == JsonToken.VALUE_NULL) {
+			parser.close();
 			return null;
 		}
-		
-		double[] ret = new double[rawList.size()];
-		for (int a = 0; a < rawList.size(); ++a) {
-			ret[a] = ((Number) rawList.get(a)).doubleValue();
+		if (token != JsonToken.START_ARRAY) {
+			parser.close();
+			throw new InvalidFormatJSON("Expected a JSON array, found " + token, null);
+		}
+		return parser;
+	}
+	
+	/// Gets the next numeric token of the array, throws on any other non numeric value
+	///
+	/// @param  JsonParser within the array
+	///
+	/// @return true if a number is found, false at the end of the array
+	protected static boolean nextArrayNumber(JsonParser parser) throws IOException {
+		JsonToken token = parser.nextToken();
+		if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+			return true;
+		}
+		if (token == JsonToken.END_ARRAY) {
+			return false;
+		}
+		throw new InvalidFormatJSON("Expected a numeric array value, found " + token, null);
+	}
+	
+	/// Gets the current numeric token as a long, with the same narrowing as Number.longValue()
+	///
+	/// @param  JsonParser at the numeric token
+	///
+	/// @return long value
+	protected static long currentLongValue(JsonParser parser) throws IOException {
+		JsonParser.NumberType type = parser.getNumberType();
+		if (type == JsonParser.NumberType.INT || type == JsonParser.NumberType.LONG) {
+			return parser.getLongValue();
+		}
+		if (type == JsonParser.NumberType.BIG_INTEGER) {
+			return parser.getBigIntegerValue().longValue();
+		}
+		return (long) parser.getDoubleValue();
+	}
+	
+	/// Gets the current numeric token as a int, with the same narrowing as Number.intValue()
+	///
+	/// @param  JsonParser at the numeric token
+	///
+	/// @return int value
+	protected static int currentIntValue(JsonParser parser) throws IOException {
+		JsonParser.NumberType type = parser.getNumberType();
+		if (type == JsonParser.NumberType.INT || type == JsonParser.NumberType.LONG) {
+			return (int) parser.getLongValue();
+		}
+		if (type == JsonParser.NumberType.BIG_INTEGER) {
+			return parser.getBigIntegerValue().intValue();
+		}
+		return (int) parser.getDoubleValue();
+	}
+	
+	/// Converts a json string into a double[] array, parsed directly from the token stream
+	///
+	/// @param  Input JSON string
+	///
+	/// @return Converted double[] array, or Null for input 'null'
+	public static double[] toDoubleArray(String input) {
+		try (JsonParser parser = primitiveArrayParser(input)) {
+			if (parser == null) {
+				return null;
+			}
+			double[] ret = new double[PRIMITIVE_BUFFER_SIZE];
+			int size = 0;
+			while (nextArrayNumber(parser)) {
+				if (size == ret.length) {
+					ret = Arrays.copyOf(ret, size * 2);
+				}
+				ret[size++] = parser.getDoubleValue();
+			}
+			return (size == ret.length) ? ret : Arrays.copyOf(ret, size);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
 		}
-		return ret;
 	}
 	
-	/// Converts a json string into a int[] array
+	/// Converts a json string into a int[] array, parsed directly from the token stream
 	///
 	/// @param  Input JSON string
 	///
 	/// @return Converted int[] array, or Null for input 'null'
 	public static int[] toIntArray(String input) {
-		List<Object> rawList = ConvertJSON.toList(input);
-		if (rawList == null) {
-			return null;
-		}
-		
-		int[] ret = new int[rawList.size()];
-		for (int a = 0; a < rawList.size(); ++a) {
-			ret[a] = ((Number) rawList.get(a)).intValue();
+		try (JsonParser parser = primitiveArrayParser(input)) {
+			if (parser == null) {
+				return null;
+			}
+			int[] ret = new int[PRIMITIVE_BUFFER_SIZE];
+			int size = 0;
+			while (nextArrayNumber(parser)) {
+				if (size == ret.length) {
+					ret = Arrays.copyOf(ret, size * 2);
+				}
+				ret[size++] = currentIntValue(parser);
+			}
+			return (size == ret.length) ? ret : Arrays.copyOf(ret, size);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
 		}
-		return ret;
 	}
 	
-	/// Converts a json string into a float[] array
+	/// Converts a json string into a float[] array, parsed directly from the token stream
 	///
 	/// @param  Input JSON string
 	///
 	/// @return Converted float[] array, or Null for input 'null'
 	public static float[] toFloatArray(String input) {
-		List<Object> rawList = ConvertJSON.toList(input);
-		if (rawList == null) {
-			return null;
-		}
-		
-		float[] ret = new float[rawList.size()];
-		for (int a = 0; a < rawList.size(); ++a) {
-			ret[a] = ((Number) rawList.get(a)).floatValue();
+		try (JsonParser parser = primitiveArrayParser(input)) {
+			if (parser == null) {
+				return null;
+			}
+			float[] ret = new float[PRIMITIVE_BUFFER_SIZE];
+			int size = 0;
+			while (nextArrayNumber(parser)) {
+				if (size == ret.length) {
+					ret = Arrays.copyOf(ret, size * 2);
+				}
+				ret[size++] = (float) parser.getDoubleValue();
+			}
+			return (size == ret.length) ? ret : Arrays.copyOf(ret, size);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
 		}
-		return ret;
 	}
 	
-	/// Converts a json string into a long[] array
+	/// Converts a json string into a long[] array, parsed directly from the token stream
 	///
 	/// @param  Input JSON string
 	///
 	/// @return Converted long[] array, or Null for input 'null'
 	public static long[] toLongArray(String input) {
-		List<Object> rawList = ConvertJSON.toList(input);
-		if (rawList == null) {
-			return null;
-		}
-		
-		long[] ret = new long[rawList.size()];
-		for (int a = 0; a < rawList.size(); ++a) {
-			ret[a] = ((Number) rawList.get(a)).longValue();
+		try (JsonParser parser = primitiveArrayParser(input)) {
+			if (parser == null) {
+				return null;
+			}
+			long[] ret = new long[PRIMITIVE_BUFFER_SIZE];
+			int size = 0;
+			while (nextArrayNumber(parser)) {
+				if (size == ret.length) {
+					ret = Arrays.copyOf(ret, size * 2);
+				}
+				ret[size++] = currentLongValue(parser);
+			}
+			return (size == ret.length) ? ret : Arrays.copyOf(ret, size);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new InvalidFormatJSON(e);
 		}
-		return ret;
 	}
 	
 }
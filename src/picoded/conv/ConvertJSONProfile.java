@@ -0,0 +1,312 @@
+package picoded.conv;
+
+// Java libs
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Jackson library used
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+///
+/// Named JSON mapper profiles, with prebuilt (and cached) jackson ObjectReader / ObjectWriter.
+///
+/// ConvertJSON itself uses the LENIENT profile. Hot paths which does not need its leniency
+/// (comments, single quotes, leading zeros), can use STRICT_FAST instead. While custom
+/// serializers / modules can be registered as their own named profile.
+///
+/// The ObjectReader / ObjectWriter are immutable, and are cached per target class, skipping
+/// the per call type resolution of ObjectMapper.readValue. All profiles are safely published
+/// (final fields, within a ConcurrentHashMap), and can be used across threads.
+///
+/// Note that the ObjectMapper should be fully configured BEFORE it is registered, and never
+/// reconfigured after. As the readers / writers built from it, will not reflect the changes.
+///
+/// ### Example Usage
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~{.java}
+///
+/// Map<String, Object> map = ConvertJSONProfile.STRICT_FAST.toMap(jsonString);
+/// String pretty = ConvertJSONProfile.PRETTY.fromObject(map);
+///
+/// // Registering a custom profile
+/// ObjectMapper mapper = new ObjectMapper();
+/// mapper.registerModule(customModule);
+/// ConvertJSONProfile.register("custom", mapper);
+///
+/// ConvertJSONProfile.get("custom").toCustomClass(jsonString, CustomClass.class);
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+///
+public class ConvertJSONProfile {
+	
+	//----------------------------------------
+	// Profile registry
+	//----------------------------------------
+	
+	/// The registered profiles, by name
+	protected static final ConcurrentHashMap<String, ConvertJSONProfile> registry =
+		new ConcurrentHashMap<String, ConvertJSONProfile>();
+	
+	/// Strict JSON parsing, using jackson default settings
+	public static final ConvertJSONProfile STRICT_FAST = register("STRICT_FAST", strictMapper());
+	
+	/// Lenient JSON parsing (comments, single quotes, leading zeros), as used by ConvertJSON
+	public static final ConvertJSONProfile LENIENT = register("LENIENT", lenientMapper());
+	
+	/// Lenient JSON parsing, with indented (pretty printed) output
+	public static final ConvertJSONProfile PRETTY = register("PRETTY", prettyMapper());
+	
+	/// Builds the STRICT_FAST mapper
+	///
+	/// @returns ObjectMapper with jackson defaults, which does not close the caller streams
+	protected static ObjectMapper strictMapper() {
+		ObjectMapper ret = new ObjectMapper();
+		
+		// Streams are owned (and closed) by the caller
+		ret.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
+		ret.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+		return ret;
+	}
+	
+	/// Builds the LENIENT mapper
+	///
+	/// Note that the JSON formatting here ALLOW COMMENTS, and single quotes.
+	/// Basically making it as "linent" as a valid JSON structure in JS.
+	///
+	/// @returns ObjectMapper with lenient parsing
+	protected static ObjectMapper lenientMapper() {
+		ObjectMapper ret = strictMapper();
+		
+		// Allow comments in strings
+		ret.configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+		
+		// Allow leading 0's in the int
+		ret.configure(JsonParser.Feature.ALLOW_NUMERIC_LEADING_ZEROS, true);
+		
+		// Allow single quotes in JSON
+		ret.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
+		return ret;
+	}
+	
+	/// Builds the PRETTY mapper
+	///
+	/// @returns ObjectMapper with lenient parsing, and indented output
+	protected static ObjectMapper prettyMapper() {
+		ObjectMapper ret = lenientMapper();
+		ret.configure(SerializationFeature.INDENT_OUTPUT, true);
+		return ret;
+	}
+	
+	/// Registers a new named profile, with the given (fully configured) ObjectMapper
+	///
+	/// @param  Profile name
+	/// @param  ObjectMapper to use, which should not be reconfigured after
+	///
+	/// @returns The registered profile
+	public static ConvertJSONProfile register(String name, ObjectMapper mapper) {
+		if (name == null || mapper == null) {
+			throw new IllegalArgumentException("Profile name, and mapper cannot be null");
+		}
+		ConvertJSONProfile profile = new ConvertJSONProfile(name, mapper);
+		if (registry.putIfAbsent(name, profile) != null) {
+			throw new IllegalArgumentException("Profile is already registered : " + name);
+		}
+		return profile;
+	}
+	
+	/// Gets the named profile
+	///
+	/// @param  Profile name
+	///
+	/// @returns The registered profile, throws IllegalArgumentException if not found
+	public static ConvertJSONProfile get(String name) {
+		ConvertJSONProfile ret = registry.get(name);
+		if (ret == null) {
+			throw new IllegalArgumentException("Unknown JSON profile : " + name);
+		}
+		return ret;
+	}
+	
+	/// Returns the registered profile names
+	///
+	/// @returns Unmodifiable set of profile names
+	public static Set<String> names() {
+		return Collections.unmodifiableSet(registry.keySet());
+	}
+	
+	//----------------------------------------
+	// Profile instance
+	//----------------------------------------
+	
+	/// Profile name
+	protected final String name;
+	
+	/// The underlying ObjectMapper
+	protected final ObjectMapper mapper;
+	
+	/// The generic writer, resolving the type of each value at runtime
+	protected final ObjectWriter writer;
+	
+	/// Prebuilt readers, for the common Map, List, and Object types
+	protected final ObjectReader mapReader;
+	protected final ObjectReader listReader;
+	protected final ObjectReader objectReader;
+	
+	/// Cached readers, per target class
+	protected final ConcurrentHashMap<Class<?>, ObjectReader> readers =
+		new ConcurrentHashMap<Class<?>, ObjectReader>();
+	
+	/// Cached writers, per root value class
+	protected final ConcurrentHashMap<Class<?>, ObjectWriter> writers =
+		new ConcurrentHashMap<Class<?>, ObjectWriter>();
+	
+	/// Constructor, use register() instead
+	///
+	/// @param  Profile name
+	/// @param  ObjectMapper to use
+	protected ConvertJSONProfile(String inName, ObjectMapper inMapper) {
+		name = inName;
+		mapper = inMapper;
+		writer = inMapper.writer();
+		mapReader = reader(Map.class);
+		listReader = reader(List.class);
+		objectReader = reader(Object.class);
+	}
+	
+	/// Returns the profile name
+	public String name() {
+		return name;
+	}
+	
+	/// Returns the underlying ObjectMapper, which should NOT be reconfigured
+	public ObjectMapper mapper() {
+		return mapper;
+	}
+	
+	/// Returns the cached ObjectReader, for the given target class
+	///
+	/// @param  Target class to read into
+	///
+	/// @returns The ObjectReader
+	public ObjectReader reader(Class<?> c) {
+		ObjectReader ret = readers.get(c);
+		if (ret == null) {
+			ret = readers.computeIfAbsent(c, mapper::readerFor);
+		}
+		return ret;
+	}
+	
+	/// Returns the generic ObjectWriter, which resolves the value type at runtime
+	///
+	/// @returns The ObjectWriter
+	public ObjectWriter writer() {
+		return writer;
+	}
+	
+	/// Returns the cached ObjectWriter, for the given root value class
+	///
+	/// @param  Root value class to write
+	///
+	/// @returns The ObjectWriter
+	public ObjectWriter writer(Class<?> c) {
+		ObjectWriter ret = writers.get(c);
+		if (ret == null) {
+			ret = writers.computeIfAbsent(c, mapper::writerFor);
+		}
+		return ret;
+	}
+	
+	//----------------------------------------
+	// Convinence conversions
+	//----------------------------------------
+	
+	/// Converts input object into a json string
+	///
+	/// @param  Input object to convert
+	///
+	/// @return The json string
+	public String fromObject(Object input) {
+		try {
+			return writer.writeValueAsString(input);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new ConvertJSON.InvalidFormatJSON(e);
+		}
+	}
+	
+	/// Converts input object into UTF-8 json bytes
+	///
+	/// @param  Input object to convert
+	///
+	/// @return The UTF-8 json bytes
+	public byte[] fromObjectAsBytes(Object input) {
+		try {
+			return writer.writeValueAsBytes(input);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new ConvertJSON.InvalidFormatJSON(e);
+		}
+	}
+	
+	/// Converts json string into an mapping object
+	///
+	/// @param  JSON string
+	///
+	/// @return  Output Map if successful, else throws an error
+	public Map<String, Object> toMap(String input) {
+		return read(mapReader, input);
+	}
+	
+	/// Converts json string into an list array
+	///
+	/// @param  JSON string
+	///
+	/// @return  Output List if successful, else throws an error
+	public List<Object> toList(String input) {
+		return read(listReader, input);
+	}
+	
+	/// Converts json string into any output object (depends on input)
+	///
+	/// @param  JSON string
+	///
+	/// @return  Output object (either map or list)
+	public Object toObject(String input) {
+		return read(objectReader, input);
+	}
+	
+	/// Converts json string into a custom output object
+	///
+	/// @param  JSON string
+	/// @param  Output class
+	///
+	/// @return  Output object of the given class
+	public <T> T toCustomClass(String input, Class<T> c) {
+		return read(reader(c), input);
+	}
+	
+	/// Reads the json string, with the given reader
+	///
+	/// @param  ObjectReader to use
+	/// @param  JSON string
+	///
+	/// @return  Output object
+	protected static <T> T read(ObjectReader reader, String input) {
+		try {
+			return reader.readValue(input);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new ConvertJSON.InvalidFormatJSON(e);
+		}
+	}
+	
+}
@@ -2,6 +2,7 @@ package picoded.conv;
 
 // Java includes
 import java.nio.ByteBuffer;
+import java.security.SecureRandom;
 import java.util.UUID;
 
 // Apache includes
@@ -76,19 +77,22 @@ public class GUID {
 	/// @param  uuid unique guid value
 	/// @returns string of 22 characters representing the GUID
 	public static String base64(UUID uuid) {
-		byte[] uuidArr = byteArray(uuid);
-		
-		// Convert a byte array to base64 string : for safe storing of GUID in JSql
-		String s = new Base64().encodeAsString(uuidArr).replaceAll("=", "");
-		
-		// Conversion to base64, with blank is impossible (as 0 still produces a valid char)
-		// Hence a length less then 22 check is pointless (will not happen)
-		//
-		// if (s.length() < 22) {
-		// 	throw new RuntimeException("GUID generation exception, invalid length of " + s.length() + " (" + s + ")");
-		// }
-		
-		return s.substring(0, 22); //remove uneeded
+		return Base64GUID.encode(uuid);
+	}
+	
+	/// RANDOMLY Returns a 22 character URL-safe base64 GUID string
+	///
+	/// @returns string of 22 characters representing the GUID
+	public static String base64url() {
+		return base64url(randomUUID());
+	}
+	
+	/// Returns a 22 character URL-safe base64 GUID string, using `-` and `_` instead of `+` and `/`
+	///
+	/// @param  uuid unique guid value
+	/// @returns string of 22 characters representing the GUID
+	public static String base64url(UUID uuid) {
+		return Base64GUID.encodeURLSafe(uuid);
 	}
 	
 	/// RANDOMLY Returns a 22 character base58 GUID string
@@ -104,8 +108,95 @@ public class GUID {
 	/// @param  uuid unique guid value
 	/// @returns string of 22 characters representing the GUID
 	public static String base58(UUID uuid) {
-		byte[] uuidArr = byteArray(uuid);
-		return Base58.getInstance().encode(uuidArr);
+		return Base58GUID.encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+	
+	//---------------------------------------------------------------------------------------------
+	// Batch generation of RANDOM GUID values
+	//---------------------------------------------------------------------------------------------
+	
+	/// Number of GUIDs, to fetch random bytes for, in a single SecureRandom call
+	protected static final int BATCH_RANDOM_SIZE = 256;
+	
+	/// Shared SecureRandom used for batch generation, similar to UUID.randomUUID()
+	protected static final SecureRandom batchRandom = new SecureRandom();
+	
+	/// RANDOMLY fills the long array with GUIDs, as most and least significant bits pairs.
+	///
+	/// This produces the same version 4 GUID as randomUUID(), however the random bytes
+	/// for up to 256 GUIDs are fetched in a single SecureRandom call, instead of once per GUID.
+	///
+	/// @param   long array to fill, of even length
+	/// @returns the same long array
+	public static long[] longPairs(long[] out) {
+		if ((out.length & 1) != 0) {
+			throw new IllegalArgumentException("Long pair array needs to be of even length, got "
+				+ out.length);
+		}
+		
+		int count = out.length / 2;
+		byte[] randomBytes = new byte[Math.min(count, BATCH_RANDOM_SIZE) * 16];
+		ByteBuffer bb = ByteBuffer.wrap(randomBytes);
+		
+		for (int a = 0; a < count; ++a) {
+			// Fetch the next batch of random bytes, when needed
+			int batchPos = a % BATCH_RANDOM_SIZE;
+			if (batchPos == 0) {
+				batchRandom.nextBytes(randomBytes);
+			}
+			
+			// Apply the version 4, and IETF variant bits, same as UUID.randomUUID()
+			long mostSignificant = bb.getLong(batchPos * 16);
+			long leastSignificant = bb.getLong(batchPos * 16 + 8);
+			out[a * 2] = (mostSignificant & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+			out[a * 2 + 1] = (leastSignificant & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+		}
+		return out;
+	}
+	
+	/// RANDOMLY fills the char arrays with 22 character base58 GUIDs.
+	///
+	/// Existing char arrays, of atleast 22 characters are reused, else new ones are allocated
+	///
+	/// @param   array of char arrays to fill
+	/// @returns the same array of char arrays
+	public static char[][] base58(char[][] out) {
+		long[] pairs = longPairs(new long[Math.min(out.length, BATCH_RANDOM_SIZE) * 2]);
+		for (int a = 0; a < out.length; ++a) {
+			int batchPos = a % BATCH_RANDOM_SIZE;
+			if (a > 0 && batchPos == 0) {
+				longPairs(pairs);
+			}
+			if (out[a] == null || out[a].length < Base58GUID.LENGTH) {
+				out[a] = new char[Base58GUID.LENGTH];
+			}
+			Base58GUID.encode(pairs[batchPos * 2], pairs[batchPos * 2 + 1], out[a], 0);
+		}
+		return out;
+	}
+	
+	/// RANDOMLY fills the string array with 22 character base58 GUIDs
+	///
+	/// @param   string array to fill
+	/// @returns the same string array
+	public static String[] base58(String[] out) {
+		long[] pairs = longPairs(new long[Math.min(out.length, BATCH_RANDOM_SIZE) * 2]);
+		for (int a = 0; a < out.length; ++a) {
+			int batchPos = a % BATCH_RANDOM_SIZE;
+			if (a > 0 && batchPos == 0) {
+				longPairs(pairs);
+			}
+			out[a] = Base58GUID.encode(pairs[batchPos * 2], pairs[batchPos * 2 + 1]);
+		}
+		return out;
+	}
+	
+	/// RANDOMLY Returns an array of 22 character base58 GUID strings
+	///
+	/// @param   number of GUIDs to generate
+	/// @returns string array of the GUIDs
+	public static String[] base58(int count) {
+		return base58(new String[count]);
 	}
 	
 	//---------------------------------------------------------------------------------------------
@@ -138,19 +229,33 @@ public class GUID {
 		return fromLongPair(bb.getLong(0), bb.getLong(8));
 	}
 	
-	/// Returns a UUID using a base64 GUID string
+	/// Returns a UUID using a base64 GUID string, of either the standard or URL-safe alphabet
+	///
+	/// Note that only the standard 22 character GUID string (or 24 characters with padding)
+	/// uses the Base64GUID fast path, while other string lengths fallsback to commons-codec.
 	///
 	/// @param   base64 string to convert from
 	/// @returns A UUID object
 	public static UUID fromBase64(String base64str) {
+		int len = base64str.length();
+		if (len == Base64GUID.LENGTH
+			|| (len == Base64GUID.LENGTH + 2 && base64str.endsWith("=="))) {
+			return Base64GUID.decode(base64str, 0);
+		}
 		return fromByteArray(Base64.decodeBase64(base64str));
 	}
 	
 	/// Returns a UUID using a base58 GUID string
 	///
-	/// @param   base64 string to convert from
+	/// Note that only the standard 22 character GUID string uses the Base58GUID fast path,
+	/// while other string lengths fallsback to the generic Base58 decoding.
+	///
+	/// @param   base58 string to convert from
 	/// @returns A UUID object
 	public static UUID fromBase58(String base58str) {
+		if (base58str.length() == Base58GUID.LENGTH) {
+			return Base58GUID.decode(base58str, 0);
+		}
 		return fromByteArray(Base58.getInstance().decode(base58str));
 	}
 	
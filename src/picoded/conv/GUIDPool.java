@@ -0,0 +1,237 @@
+package picoded.conv;
+
+// Java includes
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+///
+/// A lock free pool of pre-generated, base58 encoded, RANDOM GUID strings.
+///
+/// The pool is refilled in batches (see GUID.base58(String[])) by a background daemon thread,
+/// whenever its size falls below the low watermark. Request threads never block on the pool,
+/// if the pool is empty, the GUID is simply generated inline instead.
+///
+/// The throughput counters can be used to size the pool. A high `servedInlineCount()`
+/// relative to `servedFromPoolCount()` means the pool capacity, or batch size is too small.
+///
+/// ### Example Usage
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~{.java}
+///
+/// GUIDPool pool = new GUIDPool(10000, 2000).start();
+///
+/// String id = pool.base58();
+///
+/// // On shutdown
+/// pool.stop();
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+///
+public class GUIDPool {
+	
+	//----------------------------------------
+	// Pool configuration and state
+	//----------------------------------------
+	
+	/// Maximum number of GUIDs to hold in the pool
+	protected final int capacity;
+	
+	/// Pool size, to trigger a background refill at
+	protected final int lowWatermark;
+	
+	/// Number of GUIDs to generate, per refill batch
+	protected final int batchSize;
+	
+	/// The pre-generated GUIDs
+	protected final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<String>();
+	
+	/// Current pool size, as ConcurrentLinkedQueue.size() is not a constant time operation
+	protected final AtomicInteger size = new AtomicInteger(0);
+	
+	/// Background refill thread, null if not started
+	protected volatile Thread refillThread = null;
+	
+	//----------------------------------------
+	// Throughput counters
+	//----------------------------------------
+	
+	/// Number of GUIDs served from the pool
+	protected final LongAdder servedFromPool = new LongAdder();
+	
+	/// Number of GUIDs generated inline, due to an empty pool
+	protected final LongAdder servedInline = new LongAdder();
+	
+	/// Number of GUIDs generated into the pool
+	protected final LongAdder refilled = new LongAdder();
+	
+	/// Number of refill batches run
+	protected final LongAdder refillBatches = new LongAdder();
+	
+	//----------------------------------------
+	// Constructor
+	//----------------------------------------
+	
+	/// Builds the pool, with the low watermark at half the capacity
+	///
+	/// @param  Maximum number of GUIDs to hold in the pool
+	public GUIDPool(int inCapacity) {
+		this(inCapacity, inCapacity / 2);
+	}
+	
+	/// Builds the pool, with a default batch size of 256
+	///
+	/// @param  Maximum number of GUIDs to hold in the pool
+	/// @param  Pool size, to trigger a background refill at
+	public GUIDPool(int inCapacity, int inLowWatermark) {
+		this(inCapacity, inLowWatermark, GUID.BATCH_RANDOM_SIZE);
+	}
+	
+	/// Builds the pool
+	///
+	/// @param  Maximum number of GUIDs to hold in the pool
+	/// @param  Pool size, to trigger a background refill at
+	/// @param  Number of GUIDs to generate, per refill batch
+	public GUIDPool(int inCapacity, int inLowWatermark, int inBatchSize) {
+		if (inCapacity <= 0 || inBatchSize <= 0) {
+			throw new IllegalArgumentException("Pool capacity, and batch size needs to be atleast 1");
+		}
+		if (inLowWatermark < 0 || inLowWatermark >= inCapacity) {
+			throw new IllegalArgumentException("Low watermark needs to be between 0 and capacity, got "
+				+ inLowWatermark);
+		}
+		capacity = inCapacity;
+		lowWatermark = inLowWatermark;
+		batchSize = inBatchSize;
+	}
+	
+	//----------------------------------------
+	// Pool usage
+	//----------------------------------------
+	
+	/// Returns a RANDOM 22 character base58 GUID string, from the pool if possible.
+	///
+	/// This never blocks, on an empty pool the GUID is generated inline
+	///
+	/// @returns string of 22 characters representing the GUID
+	public String base58() {
+		String ret = queue.poll();
+		if (ret == null) {
+			servedInline.increment();
+			requestRefill();
+			return GUID.base58();
+		}
+		
+		servedFromPool.increment();
+		if (size.decrementAndGet() <= lowWatermark) {
+			requestRefill();
+		}
+		return ret;
+	}
+	
+	/// Fills the pool up to its capacity, in the current thread.
+	///
+	/// Note that as the pool is filled in batches, it may exceed its capacity by less then a batch
+	///
+	/// @returns Number of GUIDs added
+	public int fill() {
+		int added = 0;
+		String[] batch = new String[batchSize];
+		while (size.get() < capacity) {
+			GUID.base58(batch);
+			for (String guid : batch) {
+				queue.offer(guid);
+			}
+			size.addAndGet(batch.length);
+			added += batch.length;
+			refillBatches.increment();
+		}
+		refilled.add(added);
+		return added;
+	}
+	
+	/// Returns the current number of GUIDs in the pool
+	public int size() {
+		return size.get();
+	}
+	
+	//----------------------------------------
+	// Background refill handling
+	//----------------------------------------
+	
+	/// Starts the background refill thread (if not started), and fills the pool
+	///
+	/// @returns this pool
+	public synchronized GUIDPool start() {
+		if (refillThread != null) {
+			return this;
+		}
+		Thread thread = new Thread(this::refillLoop, "GUIDPool-refill");
+		thread.setDaemon(true);
+		refillThread = thread;
+		thread.start();
+		return this;
+	}
+	
+	/// Stops the background refill thread, GUIDs remaining in the pool can still be used
+	public synchronized void stop() {
+		Thread thread = refillThread;
+		refillThread = null;
+		if (thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+	
+	/// Wakes up the background refill thread (if any), without blocking
+	protected void requestRefill() {
+		Thread thread = refillThread;
+		if (thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+	
+	/// The background refill thread loop
+	protected void refillLoop() {
+		Thread self = Thread.currentThread();
+		while (refillThread == self) {
+			if (size.get() <= lowWatermark || queue.isEmpty()) {
+				fill();
+			}
+			LockSupport.park(this);
+		}
+	}
+	
+	//----------------------------------------
+	// Throughput counters
+	//----------------------------------------
+	
+	/// Returns the number of GUIDs served from the pool
+	public long servedFromPoolCount() {
+		return servedFromPool.sum();
+	}
+	
+	/// Returns the number of GUIDs generated inline, due to an empty pool
+	public long servedInlineCount() {
+		return servedInline.sum();
+	}
+	
+	/// Returns the number of GUIDs generated into the pool
+	public long refilledCount() {
+		return refilled.sum();
+	}
+	
+	/// Returns the number of refill batches run
+	public long refillBatchCount() {
+		return refillBatches.sum();
+	}
+	
+	/// Resets all throughput counters
+	public void resetCounters() {
+		servedFromPool.reset();
+		servedInline.reset();
+		refilled.reset();
+		refillBatches.reset();
+	}
+	
+}
@@ -8,6 +8,7 @@ import java.util.function.BiFunction;
 import picoded.struct.GenericConvertArrayList;
 import picoded.struct.GenericConvertList;
 import picoded.struct.GenericConvertMap;
+import picoded.struct.LazyJSONMap;
 import picoded.struct.ProxyGenericConvertMap;
 
 ///
@@ -96,6 +97,51 @@ public class GenericConvert extends GenericConvertStandard {
 		return toGenericConvertStringMap(input, null);
 	}
 	
+	// To LazyJSONMap
+	//--------------------------------------------------------------------------------------------------
+	
+	/// To GenericConvertMap conversion of generic object, where JSON strings are lazily decoded
+	///
+	/// This is the same as toGenericConvertStringMap, except that JSON strings are returned as
+	/// a LazyJSONMap, which only decodes the values that are read. This is meant for large JSON
+	/// strings, where only a few keys are read. Note that the LazyJSONMap is NOT thread safe,
+	/// and that invalid values are only detected when read (throwing an InvalidFormatJSON).
+	///
+	/// @param input     The input value to convert
+	/// @param fallbck   The fallback default (if not convertable)
+	///
+	/// @returns         The converted value
+	@SuppressWarnings("unchecked")
+	public static <K extends String, V> GenericConvertMap<K, V> toLazyMap(Object input,
+		Object fallbck) {
+		
+		// If String instance, attampt lazy JSON conversion
+		if (input instanceof String) {
+			try {
+				LazyJSONMap strMap = LazyJSONMap.parse((String) input);
+				if (strMap != null) {
+					return (GenericConvertMap<K, V>) strMap;
+				}
+			} catch (Exception e) {
+				// Silence the exception
+			}
+			return toGenericConvertStringMap(fallbck, null);
+		}
+		
+		// Any other input, is converted as per normal
+		return toGenericConvertStringMap(input, fallbck);
+	}
+	
+	///
+	/// Default Null fallback, To GenericConvertMap conversion, with lazily decoded JSON strings
+	///
+	/// @param input     The input value to convert
+	///
+	/// @returns         The converted value
+	public static <K extends String, V> GenericConvertMap<K, V> toLazyMap(Object input) {
+		return toLazyMap(input, null);
+	}
+	
 	// To GenericConvertList
 	//--------------------------------------------------------------------------------------------------
 	
@@ -270,45 +316,56 @@ public class GenericConvert extends GenericConvertStandard {
 		return NestedObject.normalizeObjectPath(base, splitKeyPath, res);
 	}
 	
-	// //--------------------------------------------------------------------------------------------------
-	// //
-	// // to BiFunction Map, used to automated put conversion handling
-	// // NOTE: Removed due to lack of use
-	// //
-	// //--------------------------------------------------------------------------------------------------
-	// 
-	// protected static BiFunction<Object, Object, String> toString_BiFunction = (i, f) -> GenericConvert.toString(i, f);
-	// protected static BiFunction<Object, Object, String[]> toStringArray_BiFunction = (i, f) -> GenericConvert
-	// 	.toStringArray(i, f);
-	// 
-	// protected static Map<Class<?>, BiFunction<Object, Object, ?>> biFunctionMap = null;
-	// 
-	// public static Map<Class<?>, BiFunction<Object, Object, ?>> biFunctionMap() {
-	// 	if (biFunctionMap != null) {
-	// 		return biFunctionMap;
-	// 	}
-	// 	
-	// 	Map<Class<?>, BiFunction<Object, Object, ?>> ret = new HashMap<Class<?>, BiFunction<Object, Object, ?>>();
-	// 	
-	// 	ret.put(String.class, toString_BiFunction);
-	// 	ret.put(String[].class, toStringArray_BiFunction);
-	// 	
-	// 	biFunctionMap = ret;
-	// 	return biFunctionMap;
-	// }
-	// 
-	// /// Gets and return the relevent BiFunction for the given class
-	// public static BiFunction<Object, Object, ?> getBiFunction(Class<?> resultClassObj) {
-	// 	return biFunctionMap().get(resultClassObj);
-	// }
-	// 
-	// /// Gets and return the relevent BiFunction for the given class, throws an error if not found
-	// public static BiFunction<Object, Object, ?> getBiFunction_noisy(Class<?> resultClassObj) {
-	// 	BiFunction<Object, Object, ?> ret = getBiFunction(resultClassObj);
-	// 	if (ret == null) {
-	// 		throw new RuntimeException("Unable to find specified class object: " + resultClassObj);
-	// 	}
-	// 	return ret;
-	// }
+	//--------------------------------------------------------------------------------------------------
+	//
+	// Type dispatched conversion, see GenericConvertRegistry
+	//
+	//--------------------------------------------------------------------------------------------------
+	
+	/// Converts the input into the target class, using the resolved (source, target) converter
+	///
+	/// @param input        The input value to convert
+	/// @param resultClass  The target class to convert to
+	/// @param fallbck      The fallback default (if not convertable)
+	///
+	/// @returns            The converted value
+	public static <T> T convert(Object input, Class<T> resultClass, Object fallbck) {
+		return GenericConvertRegistry.convert(input, resultClass, fallbck);
+	}
+	
+	/// Default null fallback, for `convert(input, resultClass, fallbck)`
+	///
+	/// @param input        The input value to convert
+	/// @param resultClass  The target class to convert to
+	///
+	/// @returns            The converted value
+	public static <T> T convert(Object input, Class<T> resultClass) {
+		return GenericConvertRegistry.convert(input, resultClass, null);
+	}
+	
+	/// Gets and return the relevent BiFunction of (input, fallback) for the given class
+	///
+	/// @param resultClassObj  The target class to convert to
+	///
+	/// @returns               The BiFunction, or null if the class is not supported
+	public static <T> BiFunction<Object, Object, T> getBiFunction(Class<T> resultClassObj) {
+		if (!GenericConvertRegistry.isSupported(resultClassObj)) {
+			return null;
+		}
+		return (i, f) -> GenericConvertRegistry.convert(i, resultClassObj, f);
+	}
+	
+	/// Gets and return the relevent BiFunction for the given class, throws an error if not found
+	///
+	/// @param resultClassObj  The target class to convert to
+	///
+	/// @returns               The BiFunction
+	public static <T> BiFunction<Object, Object, T> getBiFunction_noisy(Class<T> resultClassObj) {
+		BiFunction<Object, Object, T> ret = getBiFunction(resultClassObj);
+		if (ret == null) {
+			throw new RuntimeException("Unable to find specified class object: " + resultClassObj);
+		}
+		return ret;
+	}
 	
 }
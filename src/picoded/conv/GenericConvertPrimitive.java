@@ -125,6 +125,11 @@ class GenericConvertPrimitive {
 			return fallbck;
 		}
 		
+		if (input instanceof String) {
+			// Numeric string fast path, directly into the primitive
+			return NumberConv.toInt((String) input, fallbck);
+		}
+		
 		return (GenericConvert.toNumber(input, fallbck)).intValue();
 	}
 	
@@ -157,6 +162,11 @@ class GenericConvertPrimitive {
 			return fallbck;
 		}
 		
+		if (input instanceof String) {
+			// Numeric string fast path, directly into the primitive
+			return NumberConv.toLong((String) input, fallbck);
+		}
+		
 		return (GenericConvert.toNumber(input, fallbck)).longValue();
 	}
 	
@@ -221,6 +231,11 @@ class GenericConvertPrimitive {
 			return fallbck;
 		}
 		
+		if (input instanceof String) {
+			// Numeric string fast path, directly into the primitive
+			return NumberConv.toDouble((String) input, fallbck);
+		}
+		
 		return (GenericConvert.toNumber(input, fallbck)).doubleValue();
 	}
 	
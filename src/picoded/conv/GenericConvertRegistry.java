@@ -0,0 +1,372 @@
+package picoded.conv;
+
+// Java libs
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+// Picoded libs
+import picoded.struct.GenericConvertList;
+import picoded.struct.GenericConvertMap;
+
+///
+/// Type dispatch table for GenericConvert conversions, keyed by (source class, target class).
+///
+/// Each (source, target) pair is resolved once into a converter BiFunction of
+/// (input, fallback), held in a ClassValue of the source class. Resolution is in the
+/// following order
+///
+/// + User registered converter, for the source class (or its super classes / interfaces)
+/// + No conversion, if the input is already an instance of the (non primitive) target class
+/// + Source specific converters, such as Number to primitives, and numeric strings
+/// + The generic GenericConvert.toX conversion, for the target class
+///
+/// The results are the same as the respective GenericConvert.toX(input, fallback) call.
+/// Where for primitive targets, the fallback is itself converted (with a 0 / false default).
+///
+/// Each resolved pair has a hit counter, see hitCounts(), for profiling the hottest
+/// conversions. Null inputs are counted with the Void source class.
+///
+/// ### Example Usage
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~{.java}
+///
+/// int num = GenericConvertRegistry.convert("123", int.class, 0);
+///
+/// // Custom conversion, from a user class
+/// GenericConvertRegistry.register(Money.class, String.class, (i, f) -> ((Money) i).format());
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+///
+public class GenericConvertRegistry {
+	
+	/// Invalid constructor (throws exception)
+	protected GenericConvertRegistry() {
+		throw new IllegalAccessError("Utility class");
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Converters
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// A resolved converter, for a (source, target) pair
+	protected static class Converter implements BiFunction<Object, Object, Object> {
+		/// The conversion function
+		protected final BiFunction<Object, Object, ?> function;
+		
+		/// Hit counter, shared across resolutions of the same pair
+		protected final LongAdder hits;
+		
+		/// Constructor
+		protected Converter(BiFunction<Object, Object, ?> inFunction, LongAdder inHits) {
+			function = inFunction;
+			hits = inHits;
+		}
+		
+		/// Converts the input, with the fallback
+		@Override
+		public Object apply(Object input, Object fallback) {
+			hits.increment();
+			return function.apply(input, fallback);
+		}
+	}
+	
+	/// Generic converters, for each supported target class
+	protected static final Map<Class<?>, BiFunction<Object, Object, ?>> genericConverters =
+		new HashMap<Class<?>, BiFunction<Object, Object, ?>>();
+	
+	/// Boxed to primitive classes
+	protected static final Map<Class<?>, Class<?>> primitiveClasses =
+		new HashMap<Class<?>, Class<?>>();
+	
+	static {
+		genericConverters.put(Object.class, (i, f) -> (i != null) ? i : f);
+		genericConverters.put(String.class, GenericConvert::toString);
+		genericConverters.put(String[].class, GenericConvert::toStringArray);
+		genericConverters.put(Object[].class, GenericConvert::toObjectArray);
+		genericConverters.put(Map.class, GenericConvert::toStringMap);
+		genericConverters.put(List.class, GenericConvert::toList);
+		genericConverters.put(GenericConvertMap.class, GenericConvert::toGenericConvertStringMap);
+		genericConverters.put(GenericConvertList.class, GenericConvert::toGenericConvertList);
+		genericConverters.put(UUID.class, GenericConvert::toUUID);
+		genericConverters.put(Number.class, (i, f) -> GenericConvert.toNumber(i, GenericConvert
+			.toNumber(f)));
+		
+		// Primitives (with the fallback converted)
+		genericConverters.put(boolean.class, (i, f) -> GenericConvert.toBoolean(i, GenericConvert
+			.toBoolean(f)));
+		genericConverters.put(int.class, (i, f) -> GenericConvert.toInt(i, GenericConvert
+			.toInt(f)));
+		genericConverters.put(long.class, (i, f) -> GenericConvert.toLong(i, GenericConvert
+			.toLong(f)));
+		genericConverters.put(float.class, (i, f) -> GenericConvert.toFloat(i, GenericConvert
+			.toFloat(f)));
+		genericConverters.put(double.class, (i, f) -> GenericConvert.toDouble(i, GenericConvert
+			.toDouble(f)));
+		genericConverters.put(byte.class, (i, f) -> GenericConvert.toByte(i, GenericConvert
+			.toByte(f)));
+		genericConverters.put(short.class, (i, f) -> GenericConvert.toShort(i, GenericConvert
+			.toShort(f)));
+		genericConverters.put(char.class, (i, f) -> GenericConvert.toChar(i, GenericConvert
+			.toChar(f)));
+		
+		// Boxed classes, are converted as primitives
+		primitiveClasses.put(Boolean.class, boolean.class);
+		primitiveClasses.put(Integer.class, int.class);
+		primitiveClasses.put(Long.class, long.class);
+		primitiveClasses.put(Float.class, float.class);
+		primitiveClasses.put(Double.class, double.class);
+		primitiveClasses.put(Byte.class, byte.class);
+		primitiveClasses.put(Short.class, short.class);
+		primitiveClasses.put(Character.class, char.class);
+	}
+	
+	/// Source specific converters from Number, for primitive targets
+	protected static final Map<Class<?>, BiFunction<Object, Object, ?>> numberConverters =
+		new HashMap<Class<?>, BiFunction<Object, Object, ?>>();
+	
+	/// Source specific converters from String, for primitive targets
+	protected static final Map<Class<?>, BiFunction<Object, Object, ?>> stringConverters =
+		new HashMap<Class<?>, BiFunction<Object, Object, ?>>();
+	
+	static {
+		numberConverters.put(boolean.class, (i, f) -> ((Number) i).floatValue() > 0.0F);
+		numberConverters.put(int.class, (i, f) -> ((Number) i).intValue());
+		numberConverters.put(long.class, (i, f) -> ((Number) i).longValue());
+		numberConverters.put(float.class, (i, f) -> ((Number) i).floatValue());
+		numberConverters.put(double.class, (i, f) -> ((Number) i).doubleValue());
+		numberConverters.put(byte.class, (i, f) -> ((Number) i).byteValue());
+		numberConverters.put(short.class, (i, f) -> ((Number) i).shortValue());
+		numberConverters.put(char.class, (i, f) -> (char) ((Number) i).shortValue());
+		
+		stringConverters.put(int.class, (i, f) -> NumberConv.toInt((String) i, GenericConvert
+			.toInt(f)));
+		stringConverters.put(long.class, (i, f) -> NumberConv.toLong((String) i, GenericConvert
+			.toLong(f)));
+		stringConverters.put(double.class, (i, f) -> NumberConv.toDouble((String) i,
+			GenericConvert.toDouble(f)));
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Registry state
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// User registered converters, for each source class, and target class
+	/// (Each target map is replaced, and never modified, once registered)
+	protected static final Map<Class<?>, Map<Class<?>, BiFunction<Object, Object, ?>>> registry =
+		new ConcurrentHashMap<Class<?>, Map<Class<?>, BiFunction<Object, Object, ?>>>();
+	
+	/// Hit counters, for each "source -> target" pair resolved
+	protected static final ConcurrentHashMap<String, LongAdder> hitCounters =
+		new ConcurrentHashMap<String, LongAdder>();
+	
+	/// Resolved converters for each source class, by target class.
+	/// This is replaced on each registration, so that all pairs are resolved again.
+	protected static volatile ClassValue<ConcurrentHashMap<Class<?>, Converter>> resolved =
+		newResolvedClassValue();
+	
+	/// Builds an empty resolved converters ClassValue
+	protected static ClassValue<ConcurrentHashMap<Class<?>, Converter>> newResolvedClassValue() {
+		return new ClassValue<ConcurrentHashMap<Class<?>, Converter>>() {
+			@Override
+			protected ConcurrentHashMap<Class<?>, Converter> computeValue(Class<?> source) {
+				return new ConcurrentHashMap<Class<?>, Converter>();
+			}
+		};
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Public API
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Registers a converter, for the source class (and its sub classes), to the target class.
+	/// Replacing any existing converter for the same pair.
+	///
+	/// @param  Source class to convert from
+	/// @param  Target class to convert to
+	/// @param  Converter of (input, fallback), the input is never null
+	public static <T> void register(Class<?> source, Class<T> target,
+		BiFunction<Object, Object, ? extends T> converter) {
+		if (source == null || target == null || converter == null) {
+			throw new IllegalArgumentException("Missing source, target, or converter");
+		}
+		synchronized (registry) {
+			Map<Class<?>, BiFunction<Object, Object, ?>> targets =
+				new HashMap<Class<?>, BiFunction<Object, Object, ?>>();
+			if (registry.containsKey(source)) {
+				targets.putAll(registry.get(source));
+			}
+			targets.put(targetClass(target), converter);
+			registry.put(source, targets);
+			resolved = newResolvedClassValue();
+		}
+	}
+	
+	/// Converts the input into the target class
+	///
+	/// @param  Input to convert
+	/// @param  Target class to convert to
+	/// @param  Fallback, if the input is null or not convertable
+	///
+	/// @returns The converted value
+	@SuppressWarnings("unchecked")
+	public static <T> T convert(Object input, Class<T> target, Object fallback) {
+		return (T) converter(input == null ? Void.class : input.getClass(), target).apply(input,
+			fallback);
+	}
+	
+	/// Converts the input into the target class, with a null fallback
+	///
+	/// @param  Input to convert
+	/// @param  Target class to convert to
+	///
+	/// @returns The converted value
+	public static <T> T convert(Object input, Class<T> target) {
+		return convert(input, target, null);
+	}
+	
+	/// Checks if the target class is supported, either by default, or by any registration
+	///
+	/// @param  Target class to check
+	///
+	/// @returns true if its supported
+	public static boolean isSupported(Class<?> target) {
+		Class<?> targetClass = targetClass(target);
+		if (genericConverters.containsKey(targetClass)) {
+			return true;
+		}
+		for (Map<Class<?>, BiFunction<Object, Object, ?>> targets : registry.values()) {
+			if (targets.containsKey(targetClass)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/// Returns the hit counts, of each resolved "source -> target" class name pair
+	///
+	/// @returns Map of the hit counts
+	public static Map<String, Long> hitCounts() {
+		Map<String, Long> ret = new HashMap<String, Long>();
+		for (Map.Entry<String, LongAdder> entry : hitCounters.entrySet()) {
+			ret.put(entry.getKey(), entry.getValue().sum());
+		}
+		return ret;
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Resolution
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Normalizes boxed target classes, into their primitive classes
+	protected static Class<?> targetClass(Class<?> target) {
+		Class<?> ret = primitiveClasses.get(target);
+		return (ret != null) ? ret : target;
+	}
+	
+	/// Gets the resolved converter, for the (source, target) pair
+	///
+	/// @param  Source class, or Void for null inputs
+	/// @param  Target class
+	///
+	/// @returns The converter, throws an exception if the target is not supported at all.
+	///          Targets only registered for other source classes, returns the fallback.
+	protected static Converter converter(Class<?> source, Class<?> target) {
+		ConcurrentHashMap<Class<?>, Converter> targets = resolved.get(source);
+		Converter ret = targets.get(target);
+		if (ret == null) {
+			BiFunction<Object, Object, ?> function = resolve(source, targetClass(target));
+			if (function == null) {
+				if (!isSupported(target)) {
+					throw new RuntimeException("Unable to find specified class object: " + target);
+				}
+				
+				// Target is only registered for other source classes, hence its the fallback
+				function = (i, f) -> f;
+			}
+			LongAdder hits = hitCounters.computeIfAbsent(source.getName() + " -> "
+				+ target.getName(), (k) -> new LongAdder());
+			ret = new Converter(function, hits);
+			targets.put(target, ret);
+		}
+		return ret;
+	}
+	
+	/// Resolves the conversion function, for the (source, target) pair
+	///
+	/// @param  Source class, or Void for null inputs
+	/// @param  Target class, normalized by targetClass()
+	///
+	/// @returns The conversion function, or null if not supported
+	protected static BiFunction<Object, Object, ?> resolve(Class<?> source, Class<?> target) {
+		BiFunction<Object, Object, ?> generic = genericConverters.get(target);
+		if (source == Void.class) {
+			return generic;
+		}
+		
+		// User registered converter, null inputs (Void) are never passed to it
+		BiFunction<Object, Object, ?> user = registeredConverter(source, target);
+		if (user != null) {
+			return user;
+		}
+		
+		// No conversion needed
+		if (!target.isPrimitive() && target.isAssignableFrom(source)) {
+			return (i, f) -> i;
+		}
+		
+		// Source specific conversions
+		if (Number.class.isAssignableFrom(source) && numberConverters.containsKey(target)) {
+			return numberConverters.get(target);
+		}
+		if (source == String.class && stringConverters.containsKey(target)) {
+			return stringConverters.get(target);
+		}
+		return generic;
+	}
+	
+	/// Finds the registered converter, for the source class, its super classes, or interfaces
+	///
+	/// @param  Source class
+	/// @param  Target class
+	///
+	/// @returns The registered converter, or null
+	protected static BiFunction<Object, Object, ?> registeredConverter(Class<?> source,
+		Class<?> target) {
+		if (registry.isEmpty()) {
+			return null;
+		}
+		
+		// Breadth first, from the source class, followed by its super classes
+		List<Class<?>> queue = new ArrayList<Class<?>>();
+		queue.add(source);
+		for (int i = 0; i < queue.size(); ++i) {
+			Class<?> cls = queue.get(i);
+			Map<Class<?>, BiFunction<Object, Object, ?>> targets = registry.get(cls);
+			if (targets != null && targets.containsKey(target)) {
+				return targets.get(target);
+			}
+			if (cls.getSuperclass() != null) {
+				queue.add(cls.getSuperclass());
+			}
+			for (Class<?> inf : cls.getInterfaces()) {
+				queue.add(inf);
+			}
+		}
+		return null;
+	}
+	
+}
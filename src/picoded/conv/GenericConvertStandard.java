@@ -1,11 +1,17 @@
 package picoded.conv;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
 ///
 /// Contains conversions to Java standard objects types
 ///
@@ -65,10 +71,83 @@ class GenericConvertStandard extends GenericConvertPrimitive {
 		return list;
 	}
 	
+	/// Maximum number of JSON strings, memorized by resolvedListOrMap
+	protected static final int RESOLVED_JSON_CACHE_SIZE = 1024;
+	
+	/// Memo of JSON strings resolved by resolvedListOrMap, so that repeated fetches over the same
+	/// JSON string do not reparse it each time. Keys are weak, and compared by identity.
+	///
+	/// The memorized map / list are shared, and are never modified or handed out directly. Only
+	/// copies of them (or their parts) are returned, see copyResolved.
+	protected static final Cache<String, Object> resolvedJSONCache = CacheBuilder.newBuilder()
+		.weakKeys().maximumSize(RESOLVED_JSON_CACHE_SIZE).recordStats().build();
+	
+	/// Memorized result, for strings which are neither a JSON map or list
+	protected static final Object UNRESOLVED_JSON = new Object();
+	
+	/// Returns the hit / miss statistics, of the resolvedListOrMap JSON string memo
+	public static CacheStats resolvedJSONCacheStats() {
+		return resolvedJSONCache.stats();
+	}
+	
 	/// Converts anything to a list or map
 	///
+	/// JSON strings are memorized (by identity), and a copy of the memorized map / list is
+	/// returned. So that the result can be modified, without affecting later conversions.
+	///
 	/// @return List<?> or Map<String,?> or null
 	protected static Object resolvedListOrMap(Object base) {
+		if (base instanceof String) {
+			return copyResolved(sharedResolvedListOrMap(base));
+		}
+		return resolveListOrMap(base);
+	}
+	
+	/// Converts anything to a list or map, where JSON strings are memorized (by identity)
+	///
+	/// Note that the map / list resolved from a JSON string is the shared memorized instance,
+	/// which MUST NOT be modified. Any part of it returned to a caller, should be copied first.
+	///
+	/// @return List<?> or Map<String,?> or null
+	protected static Object sharedResolvedListOrMap(Object base) {
+		if (base instanceof String) {
+			Object ret = resolvedJSONCache.getIfPresent(base);
+			if (ret == null) {
+				ret = resolveListOrMap(base);
+				resolvedJSONCache.put((String) base, (ret != null) ? ret : UNRESOLVED_JSON);
+			}
+			return (ret != UNRESOLVED_JSON) ? ret : null;
+		}
+		return resolveListOrMap(base);
+	}
+	
+	/// Deep copies the map / list values, from a shared resolved JSON string.
+	/// Any other values (String, Number, Boolean), are immutable and returned as it is.
+	///
+	/// @return The copied value
+	protected static Object copyResolved(Object value) {
+		if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			Map<String, Object> ret = new LinkedHashMap<String, Object>(map.size() * 4 / 3 + 1);
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				ret.put((String) entry.getKey(), copyResolved(entry.getValue()));
+			}
+			return ret;
+		} else if (value instanceof List) {
+			List<?> list = (List<?>) value;
+			List<Object> ret = new ArrayList<Object>(list.size());
+			for (Object item : list) {
+				ret.add(copyResolved(item));
+			}
+			return ret;
+		}
+		return value;
+	}
+	
+	/// Converts anything to a list or map, without the JSON string memo
+	///
+	/// @return List<?> or Map<String,?> or null
+	protected static Object resolveListOrMap(Object base) {
 		Map<String, Object> baseMap = null;
 		List<Object> baseList = null;
 		// Base to map / list conversion
@@ -76,6 +155,9 @@ class GenericConvertStandard extends GenericConvertPrimitive {
 			baseMap = toStringMap(base);
 		} else if (base instanceof List) {
 			baseList = toList(base);
+		} else if (base instanceof String && isJSONArrayString((String) base)) {
+			// Skips the (failing) map conversion attempt, for JSON arrays
+			return toList(base);
 		}
 		
 		// Fail on getting base item : attempts conversion
@@ -91,6 +173,19 @@ class GenericConvertStandard extends GenericConvertPrimitive {
 		return baseMap;
 	}
 	
+	/// Checks if the string starts with a JSON array "[", after any whitespace
+	///
+	/// @return true if it starts with a JSON array
+	protected static boolean isJSONArrayString(String input) {
+		for (int i = 0, len = input.length(); i < len; ++i) {
+			char c = input.charAt(i);
+			if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+				return c == '[';
+			}
+		}
+		return false;
+	}
+	
 	// to string conversion
 	//--------------------------------------------------------------------------------------------------
 	
@@ -400,13 +495,9 @@ class GenericConvertStandard extends GenericConvertPrimitive {
 		}
 		
 		if (input instanceof String && ((String) input).length() > 0) {
-			//Numeric string conversion
-			
-			try {
-				return new BigDecimal(input.toString());
-			} catch (Exception e) {
-				return fallbck;
-			}
+			//Numeric string conversion, without throwing on invalid strings
+			BigDecimal ret = NumberConv.toBigDecimal((String) input, null);
+			return (ret != null) ? ret : fallbck;
 		}
 		
 		return fallbck;
@@ -0,0 +1,562 @@
+package picoded.conv;
+
+// Java libs
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Picoded libs
+import picoded.struct.GenericConvertMap;
+
+///
+/// Diff / patch generation between two JSON like Map / List trees. So that updates of large
+/// nested documents can be stored, or replicated, as the change only.
+///
+/// Two patch formats are supported
+///
+/// + RFC 6902 JSON Patch, as a list of operation maps (add / remove / replace / move / copy /
+///   test), with RFC 6901 JSON Pointer paths. Such as { "op":"add", "path":"/a/0", "value":1 }
+/// + RFC 7396 JSON Merge Patch, as a partial map. Where a null value removes the key, and
+///   lists are always replaced in full. Note that this means a null value cannot be set.
+///
+/// List differences are done by index (with removals from the end), and not by the longest
+/// common subsequence. So an insertion at the start of a list, is a replace of every item after.
+///
+/// Apply functions mutate the given tree in place, and returns its root (which only differs,
+/// if the root itself is replaced). Inserted values are deep copied, so the patch and the tree
+/// never share any Map / List. Any invalid patch throws an IllegalArgumentException.
+///
+/// ### Example Usage
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~{.java}
+///
+/// List<Map<String, Object>> patch = JSONDiff.diff(oldDoc, newDoc);
+/// String patchJSON = ConvertJSON.fromList(patch);
+///
+/// // Elsewhere, on a copy of oldDoc
+/// JSONDiff.applyPatch(replicaDoc, ConvertJSON.toList(patchJSON));
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+///
+public class JSONDiff {
+	
+	/// Invalid constructor (throws exception)
+	protected JSONDiff() {
+		throw new IllegalAccessError("Utility class");
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// RFC 6902 JSON Patch generation
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Generates the RFC 6902 JSON Patch, which transforms the source into the target
+	///
+	/// @param  source tree (Map / List / value)
+	/// @param  target tree (Map / List / value)
+	///
+	/// @returns List of patch operations, empty if both are equal
+	public static List<Map<String, Object>> diff(Object source, Object target) {
+		List<Map<String, Object>> ret = new ArrayList<Map<String, Object>>();
+		diff(source, target, new StringBuilder(), ret);
+		return ret;
+	}
+	
+	/// Recursive diff implementation, appending to the operation list
+	///
+	/// @param  source value
+	/// @param  target value
+	/// @param  JSON Pointer path of the value, which is restored on return
+	/// @param  List of patch operations to append into
+	@SuppressWarnings("unchecked")
+	protected static void diff(Object source, Object target, StringBuilder path,
+		List<Map<String, Object>> ops) {
+		if (source instanceof Map && target instanceof Map) {
+			Map<String, Object> sourceMap = (Map<String, Object>) source;
+			Map<String, Object> targetMap = (Map<String, Object>) target;
+			int pathLen = path.length();
+			
+			// Removed, and changed keys
+			for (Map.Entry<String, Object> entry : sourceMap.entrySet()) {
+				appendPointer(path, entry.getKey());
+				if (!targetMap.containsKey(entry.getKey())) {
+					ops.add(operation("remove", path.toString(), null, false));
+				} else {
+					diff(entry.getValue(), targetMap.get(entry.getKey()), path, ops);
+				}
+				path.setLength(pathLen);
+			}
+			
+			// Added keys
+			for (Map.Entry<String, Object> entry : targetMap.entrySet()) {
+				if (!sourceMap.containsKey(entry.getKey())) {
+					appendPointer(path, entry.getKey());
+					ops.add(operation("add", path.toString(), entry.getValue(), true));
+					path.setLength(pathLen);
+				}
+			}
+			return;
+		}
+		
+		if (source instanceof List && target instanceof List) {
+			List<Object> sourceList = (List<Object>) source;
+			List<Object> targetList = (List<Object>) target;
+			int pathLen = path.length();
+			int common = Math.min(sourceList.size(), targetList.size());
+			
+			// Changed items, by index
+			for (int i = 0; i < common; ++i) {
+				path.append('/').append(i);
+				diff(sourceList.get(i), targetList.get(i), path, ops);
+				path.setLength(pathLen);
+			}
+			
+			// Removed items, from the end, so that the earlier indexes stay valid
+			for (int i = sourceList.size() - 1; i >= common; --i) {
+				path.append('/').append(i);
+				ops.add(operation("remove", path.toString(), null, false));
+				path.setLength(pathLen);
+			}
+			
+			// Added items, appended in order
+			for (int i = common; i < targetList.size(); ++i) {
+				path.append("/-");
+				ops.add(operation("add", path.toString(), targetList.get(i), true));
+				path.setLength(pathLen);
+			}
+			return;
+		}
+		
+		if (!valueEquals(source, target)) {
+			ops.add(operation("replace", path.toString(), target, true));
+		}
+	}
+	
+	/// Builds a single patch operation map
+	///
+	/// @param  Operation name
+	/// @param  JSON Pointer path
+	/// @param  Value of the operation
+	/// @param  Include the value in the operation
+	///
+	/// @returns The operation map
+	protected static Map<String, Object> operation(String op, String path, Object value,
+		boolean hasValue) {
+		Map<String, Object> ret = new HashMap<String, Object>();
+		ret.put("op", op);
+		ret.put("path", path);
+		if (hasValue) {
+			ret.put("value", value);
+		}
+		return ret;
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// RFC 6902 JSON Patch application
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Applies the RFC 6902 JSON Patch to the tree, in place
+	///
+	/// @param  tree to modify (Map / List / value)
+	/// @param  List of patch operations
+	///
+	/// @returns The tree root, which is only a new object if the root was replaced
+	public static Object applyPatch(Object root, List<?> patch) {
+		for (Object opObj : patch) {
+			GenericConvertMap<String, Object> op = GenericConvert.toGenericConvertStringMap(opObj);
+			if (op == null) {
+				throw new IllegalArgumentException("Invalid patch operation : " + opObj);
+			}
+			root = applyOperation(root, op);
+		}
+		return root;
+	}
+	
+	/// Applies a single patch operation
+	///
+	/// @param  tree to modify
+	/// @param  the patch operation
+	///
+	/// @returns The tree root
+	protected static Object applyOperation(Object root, GenericConvertMap<String, Object> op) {
+		String name = op.getString("op");
+		List<String> path = parsePointer(op.getString("path"));
+		
+		if ("add".equals(name)) {
+			return add(root, path, deepCopy(requireValue(op)));
+		} else if ("remove".equals(name)) {
+			remove(root, path);
+			return path.isEmpty() ? null : root;
+		} else if ("replace".equals(name)) {
+			Object value = deepCopy(requireValue(op));
+			remove(root, path);
+			return add(root, path, value);
+		} else if ("move".equals(name) || "copy".equals(name)) {
+			String fromStr = op.getString("from");
+			List<String> from = parsePointer(fromStr);
+			if ("move".equals(name)) {
+				if (path.size() > from.size() && path.subList(0, from.size()).equals(from)) {
+					throw new IllegalArgumentException("Cannot move into its own child : "
+						+ fromStr);
+				}
+				Object value = get(root, from);
+				remove(root, from);
+				return add(root, path, value);
+			}
+			return add(root, path, deepCopy(get(root, from)));
+		} else if ("test".equals(name)) {
+			if (!valueEquals(get(root, path), requireValue(op))) {
+				throw new IllegalArgumentException("Patch test failed for path : "
+					+ op.getString("path"));
+			}
+			return root;
+		}
+		throw new IllegalArgumentException("Unknown patch operation : " + name);
+	}
+	
+	/// Gets the operation value, which is required
+	///
+	/// @param  the patch operation
+	///
+	/// @returns the value, which may be null
+	protected static Object requireValue(Map<String, Object> op) {
+		if (!op.containsKey("value")) {
+			throw new IllegalArgumentException("Missing value for patch operation : " + op);
+		}
+		return op.get("value");
+	}
+	
+	/// Gets the value at the path, which must exist
+	///
+	/// @param  tree root
+	/// @param  parsed JSON Pointer path
+	///
+	/// @returns The value
+	@SuppressWarnings("unchecked")
+	protected static Object get(Object root, List<String> path) {
+		Object cur = root;
+		for (String token : path) {
+			if (cur instanceof Map) {
+				Map<String, Object> map = (Map<String, Object>) cur;
+				if (!map.containsKey(token)) {
+					throw new IllegalArgumentException("Path not found : " + toPointer(path));
+				}
+				cur = map.get(token);
+			} else if (cur instanceof List) {
+				List<Object> list = (List<Object>) cur;
+				cur = list.get(listIndex(list, token, false, path));
+			} else {
+				throw new IllegalArgumentException("Path not found : " + toPointer(path));
+			}
+		}
+		return cur;
+	}
+	
+	/// Adds the value at the path, inserting into lists, and setting for maps
+	///
+	/// @param  tree root
+	/// @param  parsed JSON Pointer path
+	/// @param  value to add
+	///
+	/// @returns The tree root
+	@SuppressWarnings("unchecked")
+	protected static Object add(Object root, List<String> path, Object value) {
+		if (path.isEmpty()) {
+			return value;
+		}
+		Object parent = get(root, path.subList(0, path.size() - 1));
+		String token = path.get(path.size() - 1);
+		if (parent instanceof Map) {
+			((Map<String, Object>) parent).put(token, value);
+		} else if (parent instanceof List) {
+			List<Object> list = (List<Object>) parent;
+			list.add(listIndex(list, token, true, path), value);
+		} else {
+			throw new IllegalArgumentException("Path not found : " + toPointer(path));
+		}
+		return root;
+	}
+	
+	/// Removes the value at the path, which must exist
+	///
+	/// @param  tree root
+	/// @param  parsed JSON Pointer path
+	@SuppressWarnings("unchecked")
+	protected static void remove(Object root, List<String> path) {
+		if (path.isEmpty()) {
+			return;
+		}
+		Object parent = get(root, path.subList(0, path.size() - 1));
+		String token = path.get(path.size() - 1);
+		if (parent instanceof Map) {
+			Map<String, Object> map = (Map<String, Object>) parent;
+			if (!map.containsKey(token)) {
+				throw new IllegalArgumentException("Path not found : " + toPointer(path));
+			}
+			map.remove(token);
+		} else if (parent instanceof List) {
+			List<Object> list = (List<Object>) parent;
+			list.remove(listIndex(list, token, false, path));
+		} else {
+			throw new IllegalArgumentException("Path not found : " + toPointer(path));
+		}
+	}
+	
+	/// Parses the list index token
+	///
+	/// @param  list to index into
+	/// @param  index token, which can be "-" for the end of the list (if inserting)
+	/// @param  is inserting, allowing the index to be the list size
+	/// @param  full path (for error message)
+	///
+	/// @returns The list index
+	protected static int listIndex(List<Object> list, String token, boolean insert,
+		List<String> path) {
+		int max = insert ? list.size() : list.size() - 1;
+		if (insert && "-".equals(token)) {
+			return list.size();
+		}
+		int idx = -1;
+		if (token.length() > 0 && token.length() <= 9 && token.chars().allMatch(Character::isDigit)
+			&& (token.length() == 1 || token.charAt(0) != '0')) {
+			idx = Integer.parseInt(token);
+		}
+		if (idx < 0 || idx > max) {
+			throw new IllegalArgumentException("Invalid list index for path : " + toPointer(path));
+		}
+		return idx;
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// RFC 6901 JSON Pointer handling
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Appends an escaped JSON Pointer token, with its leading "/"
+	///
+	/// @param  path to append into
+	/// @param  unescaped token
+	protected static void appendPointer(StringBuilder path, String token) {
+		path.append('/');
+		for (int i = 0; i < token.length(); ++i) {
+			char c = token.charAt(i);
+			if (c == '~') {
+				path.append("~0");
+			} else if (c == '/') {
+				path.append("~1");
+			} else {
+				path.append(c);
+			}
+		}
+	}
+	
+	/// Converts the unescaped tokens into a JSON Pointer string
+	///
+	/// @param  unescaped tokens
+	///
+	/// @returns JSON Pointer string
+	public static String toPointer(List<String> tokens) {
+		StringBuilder ret = new StringBuilder();
+		for (String token : tokens) {
+			appendPointer(ret, token);
+		}
+		return ret.toString();
+	}
+	
+	/// Parses the JSON Pointer string into its unescaped tokens
+	///
+	/// @param  JSON Pointer string, such as "/a/0/b~1c"
+	///
+	/// @returns unescaped tokens, empty for the root "" pointer
+	public static List<String> parsePointer(String pointer) {
+		if (pointer == null) {
+			throw new IllegalArgumentException("Missing JSON Pointer path");
+		}
+		List<String> ret = new ArrayList<String>();
+		if (pointer.isEmpty()) {
+			return ret;
+		}
+		if (pointer.charAt(0) != '/') {
+			throw new IllegalArgumentException("Invalid JSON Pointer : " + pointer);
+		}
+		int start = 1;
+		while (true) {
+			int end = pointer.indexOf('/', start);
+			String token = pointer.substring(start, end < 0 ? pointer.length() : end);
+			ret.add(token.replace("~1", "/").replace("~0", "~"));
+			if (end < 0) {
+				return ret;
+			}
+			start = end + 1;
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// RFC 7396 JSON Merge Patch
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Generates the RFC 7396 JSON Merge Patch, which transforms the source into the target
+	///
+	/// @param  source tree
+	/// @param  target tree
+	///
+	/// @returns The merge patch, which is an empty map if both are equal.
+	///          Or the target itself, if either of them is not a map.
+	@SuppressWarnings("unchecked")
+	public static Object mergePatch(Object source, Object target) {
+		if (!(source instanceof Map) || !(target instanceof Map)) {
+			return target;
+		}
+		Map<String, Object> sourceMap = (Map<String, Object>) source;
+		Map<String, Object> targetMap = (Map<String, Object>) target;
+		Map<String, Object> ret = new HashMap<String, Object>();
+		
+		// Removed keys
+		for (String key : sourceMap.keySet()) {
+			if (!targetMap.containsKey(key)) {
+				ret.put(key, null);
+			}
+		}
+		
+		// Added, and changed keys
+		for (Map.Entry<String, Object> entry : targetMap.entrySet()) {
+			String key = entry.getKey();
+			Object value = entry.getValue();
+			if (!sourceMap.containsKey(key)) {
+				ret.put(key, value);
+			} else if (!valueEquals(sourceMap.get(key), value)) {
+				ret.put(key, mergePatch(sourceMap.get(key), value));
+			}
+		}
+		return ret;
+	}
+	
+	/// Applies the RFC 7396 JSON Merge Patch to the tree, in place
+	///
+	/// @param  tree to modify
+	/// @param  merge patch to apply
+	///
+	/// @returns The tree root, which is only a new object if the root was replaced
+	@SuppressWarnings("unchecked")
+	public static Object applyMergePatch(Object root, Object patch) {
+		if (!(patch instanceof Map)) {
+			return deepCopy(patch);
+		}
+		Map<String, Object> rootMap = (root instanceof Map) ? (Map<String, Object>) root
+			: new HashMap<String, Object>();
+		for (Map.Entry<String, Object> entry : ((Map<String, Object>) patch).entrySet()) {
+			if (entry.getValue() == null) {
+				rootMap.remove(entry.getKey());
+			} else {
+				rootMap.put(entry.getKey(), applyMergePatch(rootMap.get(entry.getKey()), entry
+					.getValue()));
+			}
+		}
+		return rootMap;
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Value utilities
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Set of integer number classes, which are compared by their long value
+	protected static final Set<Class<?>> integerClasses = new HashSet<Class<?>>();
+	static {
+		integerClasses.add(Byte.class);
+		integerClasses.add(Short.class);
+		integerClasses.add(Integer.class);
+		integerClasses.add(Long.class);
+	}
+	
+	/// Deep equality of two JSON values. Where integer numbers of different classes
+	/// (such as Integer, and Long) are equal if they have the same value.
+	///
+	/// @param  first value
+	/// @param  second value
+	///
+	/// @returns true if equal
+	@SuppressWarnings("unchecked")
+	public static boolean valueEquals(Object a, Object b) {
+		if (a == b) {
+			return true;
+		}
+		if (a == null || b == null) {
+			return false;
+		}
+		if (a instanceof Map && b instanceof Map) {
+			Map<String, Object> mapA = (Map<String, Object>) a;
+			Map<String, Object> mapB = (Map<String, Object>) b;
+			if (mapA.size() != mapB.size()) {
+				return false;
+			}
+			for (Map.Entry<String, Object> entry : mapA.entrySet()) {
+				if (!mapB.containsKey(entry.getKey())
+					|| !valueEquals(entry.getValue(), mapB.get(entry.getKey()))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (a instanceof List && b instanceof List) {
+			List<Object> listA = (List<Object>) a;
+			List<Object> listB = (List<Object>) b;
+			if (listA.size() != listB.size()) {
+				return false;
+			}
+			for (int i = 0; i < listA.size(); ++i) {
+				if (!valueEquals(listA.get(i), listB.get(i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (integerClasses.contains(a.getClass()) && integerClasses.contains(b.getClass())) {
+			return ((Number) a).longValue() == ((Number) b).longValue();
+		}
+		if (a instanceof BigInteger && integerClasses.contains(b.getClass())) {
+			return a.equals(BigInteger.valueOf(((Number) b).longValue()));
+		}
+		if (b instanceof BigInteger && integerClasses.contains(a.getClass())) {
+			return b.equals(BigInteger.valueOf(((Number) a).longValue()));
+		}
+		return a.equals(b);
+	}
+	
+	/// Deep copy of the Map / List tree, other values are assumed to be immutable
+	///
+	/// @param  value to copy
+	///
+	/// @returns The copied value
+	@SuppressWarnings("unchecked")
+	public static Object deepCopy(Object value) {
+		if (value instanceof Map) {
+			Map<String, Object> ret = new HashMap<String, Object>();
+			for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+				ret.put(entry.getKey(), deepCopy(entry.getValue()));
+			}
+			return ret;
+		}
+		if (value instanceof List) {
+			List<Object> list = (List<Object>) value;
+			List<Object> ret = new ArrayList<Object>(list.size());
+			for (Object item : list) {
+				ret.add(deepCopy(item));
+			}
+			return ret;
+		}
+		return value;
+	}
+	
+}
@@ -0,0 +1,361 @@
+package picoded.conv;
+
+// Java libs
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Jackson library used
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.PrettyPrinter;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.Instantiatable;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+///
+/// Opt-in "shape cache" JSON map writer, for endpoints whose output maps have a stable shape.
+/// That is the same keys (in the same iteration order), with the same value types.
+///
+/// The shape is learnt from the first map written. Later maps matching the shape, are written
+/// with the pre-escaped key names (jackson SerializedString), and type specific value writers.
+/// Skipping the per entry serializer lookup of the generic jackson path. Nested maps are
+/// handled as nested shapes, while lists and other values use the generic path.
+///
+/// Maps which do not match the shape are written via the generic path (with the same output),
+/// and after a number of consecutive mismatches, the shape is relearnt from the next map.
+/// Null values are allowed in any position, without breaking the shape.
+///
+/// Instances are thread safe, and are meant to be held as a static field per endpoint.
+///
+/// ### Example Usage
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~{.java}
+///
+/// protected static final JSONShapeWriter listingShape = new JSONShapeWriter();
+///
+/// String json = listingShape.fromMap(resultMap);
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+///
+public class JSONShapeWriter {
+	
+	//----------------------------------------
+	// Value kinds
+	//----------------------------------------
+	
+	/// Value kinds, with a type specific writer
+	protected static final byte KIND_STRING = 0;
+	protected static final byte KIND_INT = 1;
+	protected static final byte KIND_LONG = 2;
+	protected static final byte KIND_DOUBLE = 3;
+	protected static final byte KIND_BOOLEAN = 4;
+	protected static final byte KIND_MAP = 5;
+	
+	/// Any other value (or a null value when learnt), written via the generic path
+	protected static final byte KIND_GENERIC = 6;
+	
+	/// Default number of consecutive mismatches, before the shape is relearnt
+	public static final int DEFAULT_RELEARN_THRESHOLD = 16;
+	
+	/// The learnt map shape, which is immutable once built
+	protected static class Shape {
+		/// Map keys, in iteration order
+		protected final String[] keys;
+		
+		/// Pre-escaped map keys
+		protected final SerializedString[] names;
+		
+		/// Value kind, for each key
+		protected final byte[] kinds;
+		
+		/// Nested map shape, for each KIND_MAP key
+		protected final Shape[] nested;
+		
+		/// Constructor with the number of keys
+		protected Shape(int size) {
+			keys = new String[size];
+			names = new SerializedString[size];
+			kinds = new byte[size];
+			nested = new Shape[size];
+		}
+	}
+	
+	//----------------------------------------
+	// Writer state
+	//----------------------------------------
+	
+	/// The profile used for the generic path
+	protected final ConvertJSONProfile profile;
+	
+	/// Number of consecutive mismatches, before the shape is relearnt
+	protected final int relearnThreshold;
+	
+	/// The current shape, null if not learnt
+	protected volatile Shape shape = null;
+	
+	/// Current number of consecutive mismatches
+	protected final AtomicInteger consecutiveMisses = new AtomicInteger(0);
+	
+	/// Number of maps written with the shape
+	protected final LongAdder shapeHits = new LongAdder();
+	
+	/// Number of maps written with the generic path
+	protected final LongAdder shapeMisses = new LongAdder();
+	
+	/// Constructor, using the LENIENT (ConvertJSON) profile
+	public JSONShapeWriter() {
+		this(ConvertJSONProfile.LENIENT, DEFAULT_RELEARN_THRESHOLD);
+	}
+	
+	/// Constructor
+	///
+	/// @param  Profile to use for the generic path
+	/// @param  Number of consecutive mismatches, before the shape is relearnt
+	public JSONShapeWriter(ConvertJSONProfile inProfile, int inRelearnThreshold) {
+		if (inRelearnThreshold < 1) {
+			throw new IllegalArgumentException("Relearn threshold needs to be atleast 1");
+		}
+		profile = inProfile;
+		relearnThreshold = inRelearnThreshold;
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Public writing API
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Converts input Map into a json string
+	///
+	/// @param  Input map to convert
+	///
+	/// @return The json string
+	public String fromMap(Map<String, ?> input) {
+		StringWriter ret = new StringWriter();
+		try (JsonGenerator gen = configure(profile.mapper.getFactory().createGenerator(ret))) {
+			write(input, gen);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new ConvertJSON.InvalidFormatJSON(e);
+		}
+		return ret.toString();
+	}
+	
+	/// Writes the input Map as json, into the Writer (which is not closed)
+	///
+	/// @param  Input map to convert
+	/// @param  Writer to output into
+	public void fromMap(Map<String, ?> input, Writer output) throws IOException {
+		try (JsonGenerator gen = configure(profile.mapper.getFactory().createGenerator(output))) {
+			write(input, gen);
+		}
+	}
+	
+	/// Writes the input Map as UTF-8 json, into the OutputStream (which is not closed)
+	///
+	/// @param  Input map to convert
+	/// @param  OutputStream to output into
+	public void fromMap(Map<String, ?> input, OutputStream output) throws IOException {
+		try (JsonGenerator gen = configure(profile.mapper.getFactory().createGenerator(output,
+			JsonEncoding.UTF8))) {
+			write(input, gen);
+		}
+	}
+	
+	/// Returns the number of maps written with the learnt shape
+	public long shapeHitCount() {
+		return shapeHits.sum();
+	}
+	
+	/// Returns the number of maps written with the generic path
+	public long shapeMissCount() {
+		return shapeMisses.sum();
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Shape handling
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Configures the generator, with the profile pretty printer (if it indents its output).
+	/// So that the shape, and generic path (which uses the mapper config) writes the same output.
+	///
+	/// @param  Generator to configure
+	///
+	/// @returns The same generator
+	protected JsonGenerator configure(JsonGenerator gen) {
+		SerializationConfig config = profile.mapper.getSerializationConfig();
+		if (config.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+			PrettyPrinter pp = config.constructDefaultPrettyPrinter();
+			if (pp instanceof Instantiatable) {
+				pp = (PrettyPrinter) ((Instantiatable<?>) pp).createInstance();
+			}
+			gen.setPrettyPrinter(pp);
+		}
+		return gen;
+	}
+	
+	/// Writes the map, with the shape if it matches, else via the generic path
+	///
+	/// @param  Input map to write
+	/// @param  Generator to write with
+	protected void write(Map<String, ?> input, JsonGenerator gen) throws IOException {
+		Shape cur = shape;
+		if (cur != null && matches(cur, input)) {
+			shapeHits.increment();
+			if (consecutiveMisses.get() != 0) {
+				consecutiveMisses.set(0);
+			}
+			writeShape(cur, input, gen);
+			return;
+		}
+		
+		// Generic path, learning the shape if needed
+		shapeMisses.increment();
+		if (input != null
+			&& (cur == null || consecutiveMisses.incrementAndGet() >= relearnThreshold)) {
+			shape = learn(input);
+			consecutiveMisses.set(0);
+		}
+		gen.writeObject(input);
+	}
+	
+	/// Learns the shape of the map
+	///
+	/// @param  Map to learn from
+	///
+	/// @returns The shape, or null if it has non string keys
+	protected static Shape learn(Map<?, ?> input) {
+		Shape ret = new Shape(input.size());
+		int i = 0;
+		for (Map.Entry<?, ?> entry : input.entrySet()) {
+			if (!(entry.getKey() instanceof String) || i >= ret.keys.length) {
+				return null;
+			}
+			ret.keys[i] = (String) entry.getKey();
+			ret.names[i] = new SerializedString(ret.keys[i]);
+			ret.kinds[i] = kindOf(entry.getValue());
+			if (ret.kinds[i] == KIND_MAP) {
+				ret.nested[i] = learn((Map<?, ?>) entry.getValue());
+				if (ret.nested[i] == null) {
+					ret.kinds[i] = KIND_GENERIC;
+				}
+			}
+			++i;
+		}
+		return (i == ret.keys.length) ? ret : null;
+	}
+	
+	/// Gets the value kind
+	///
+	/// @param  Value to check
+	///
+	/// @returns The value kind
+	protected static byte kindOf(Object value) {
+		if (value == null) {
+			return KIND_GENERIC;
+		}
+		Class<?> c = value.getClass();
+		if (c == String.class) {
+			return KIND_STRING;
+		} else if (c == Integer.class) {
+			return KIND_INT;
+		} else if (c == Long.class) {
+			return KIND_LONG;
+		} else if (c == Double.class) {
+			return KIND_DOUBLE;
+		} else if (c == Boolean.class) {
+			return KIND_BOOLEAN;
+		} else if (value instanceof Map) {
+			return KIND_MAP;
+		}
+		return KIND_GENERIC;
+	}
+	
+	/// Checks if the map matches the shape
+	///
+	/// @param  Shape to match
+	/// @param  Map to check
+	///
+	/// @returns true, if the map can be written with the shape
+	protected static boolean matches(Shape cur, Map<?, ?> input) {
+		if (input == null || input.size() != cur.keys.length) {
+			return false;
+		}
+		int i = 0;
+		for (Map.Entry<?, ?> entry : input.entrySet()) {
+			if (i >= cur.keys.length) {
+				return false;
+			}
+			Object key = entry.getKey();
+			if (key != cur.keys[i] && !cur.keys[i].equals(key)) {
+				return false;
+			}
+			
+			// Null values are allowed in any position
+			Object value = entry.getValue();
+			byte kind = cur.kinds[i];
+			if (value != null && kind != KIND_GENERIC) {
+				if (kind == KIND_MAP) {
+					if (!(value instanceof Map) || !matches(cur.nested[i], (Map<?, ?>) value)) {
+						return false;
+					}
+				} else if (kindOf(value) != kind) {
+					return false;
+				}
+			}
+			++i;
+		}
+		return i == cur.keys.length;
+	}
+	
+	/// Writes the map with the shape, which must have been matched
+	///
+	/// @param  Shape to write with
+	/// @param  Map to write
+	/// @param  Generator to write with
+	protected static void writeShape(Shape cur, Map<?, ?> input, JsonGenerator gen)
+		throws IOException {
+		gen.writeStartObject();
+		int i = 0;
+		for (Object value : input.values()) {
+			gen.writeFieldName(cur.names[i]);
+			if (value == null) {
+				gen.writeNull();
+			} else {
+				switch (cur.kinds[i]) {
+				case KIND_STRING:
+					gen.writeString((String) value);
+					break;
+				case KIND_INT:
+					gen.writeNumber(((Integer) value).intValue());
+					break;
+				case KIND_LONG:
+					gen.writeNumber(((Long) value).longValue());
+					break;
+				case KIND_DOUBLE:
+					gen.writeNumber(((Double) value).doubleValue());
+					break;
+				case KIND_BOOLEAN:
+					gen.writeBoolean(((Boolean) value).booleanValue());
+					break;
+				case KIND_MAP:
+					writeShape(cur.nested[i], (Map<?, ?>) value, gen);
+					break;
+				default:
+					gen.writeObject(value);
+				}
+			}
+			++i;
+		}
+		gen.writeEndObject();
+	}
+	
+}
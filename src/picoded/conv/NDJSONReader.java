@@ -0,0 +1,321 @@
+package picoded.conv;
+
+// Java libs
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Jackson library used
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+// Picoded libs
+import picoded.struct.GenericConvertMap;
+import picoded.struct.ProxyGenericConvertMap;
+
+///
+/// NDJSON (newline delimited JSON, also known as JSON lines) reader, iterating a JSON object
+/// per line from an InputStream. Blank lines are skipped, while any other non object line,
+/// an object spanning multiple lines, or content after the object on the same line, throws
+/// an InvalidFormatJSON.
+///
+/// By default, a single jackson parser is reused across the whole stream. Alternatively, given
+/// a ForkJoinPool, lines are read in batches and parsed in parallel, while still being
+/// iterated in the original line order.
+///
+/// The reader is not thread safe, and closing it closes the InputStream.
+///
+/// ### Example Usage
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~{.java}
+///
+/// try (NDJSONReader reader = new NDJSONReader(inputStream)) {
+/// 	while (reader.hasNext()) {
+/// 		GenericConvertMap<String, Object> record = reader.next();
+/// 		...
+/// 	}
+/// }
+///
+/// // Or in parallel batches of 1000 lines
+/// try (NDJSONReader reader = new NDJSONReader(inputStream, ConvertJSONProfile.LENIENT,
+/// 	ForkJoinPool.commonPool(), 1000)) {
+/// 	reader.stream().forEach(...);
+/// }
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+///
+public class NDJSONReader implements Iterator<GenericConvertMap<String, Object>>, Closeable {
+	
+	//----------------------------------------
+	// Reader state
+	//----------------------------------------
+	
+	/// The InputStream being read
+	protected final InputStream input;
+	
+	/// Map reader, of the profile used
+	protected final ObjectReader mapReader;
+	
+	/// The reused parser, for sequential reading
+	protected JsonParser parser = null;
+	
+	/// Line number of the last record, for sequential reading
+	protected int lastLine = 0;
+	
+	/// The line reader, for parallel reading
+	protected BufferedReader lineReader = null;
+	
+	/// Pool to parse line batches with, for parallel reading
+	protected ForkJoinPool pool = null;
+	
+	/// Number of lines per batch, for parallel reading
+	protected int batchSize = 0;
+	
+	/// Batches being parsed, in line order, for parallel reading
+	protected ArrayDeque<ForkJoinTask<List<GenericConvertMap<String, Object>>>> pending = null;
+	
+	/// The current parsed batch, for parallel reading
+	protected Iterator<GenericConvertMap<String, Object>> batch = Collections.emptyIterator();
+	
+	/// The next record, if already read by hasNext()
+	protected GenericConvertMap<String, Object> nextRecord = null;
+	
+	/// Indicates the end of the stream is reached
+	protected boolean ended = false;
+	
+	//----------------------------------------
+	// Constructors
+	//----------------------------------------
+	
+	/// Constructor, using the LENIENT (ConvertJSON) profile
+	///
+	/// @param  InputStream of UTF-8 NDJSON to read
+	public NDJSONReader(InputStream input) {
+		this(input, ConvertJSONProfile.LENIENT);
+	}
+	
+	/// Constructor, for sequential reading with a single reused parser
+	///
+	/// @param  InputStream of UTF-8 NDJSON to read
+	/// @param  Profile to parse with
+	public NDJSONReader(InputStream inInput, ConvertJSONProfile profile) {
+		input = inInput;
+		mapReader = profile.reader(Map.class);
+		try {
+			parser = profile.mapper.getFactory().createParser(input);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new ConvertJSON.InvalidFormatJSON(e);
+		}
+	}
+	
+	/// Constructor, for parallel reading of line batches
+	///
+	/// @param  InputStream of UTF-8 NDJSON to read
+	/// @param  Profile to parse with
+	/// @param  ForkJoinPool to parse the line batches with
+	/// @param  Number of lines per batch
+	public NDJSONReader(InputStream inInput, ConvertJSONProfile profile, ForkJoinPool inPool,
+		int inBatchSize) {
+		if (inBatchSize < 1) {
+			throw new IllegalArgumentException("Batch size needs to be atleast 1");
+		}
+		input = inInput;
+		mapReader = profile.reader(Map.class);
+		lineReader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+		pool = inPool;
+		batchSize = inBatchSize;
+		pending = new ArrayDeque<ForkJoinTask<List<GenericConvertMap<String, Object>>>>();
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Iterator / Stream API
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Returns true, if there is another record
+	@Override
+	public boolean hasNext() {
+		if (nextRecord == null && !ended) {
+			try {
+				nextRecord = (parser != null) ? readSequential() : readParallel();
+			} catch (IOException e) {
+				// Any exception is recasted as InvalidFormatJSON
+				throw new ConvertJSON.InvalidFormatJSON(e);
+			}
+			ended = (nextRecord == null);
+		}
+		return nextRecord != null;
+	}
+	
+	/// Returns the next record
+	@Override
+	public GenericConvertMap<String, Object> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		GenericConvertMap<String, Object> ret = nextRecord;
+		nextRecord = null;
+		return ret;
+	}
+	
+	/// Returns an ordered spliterator, over the remaining records
+	public Spliterator<GenericConvertMap<String, Object>> spliterator() {
+		return Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+	}
+	
+	/// Returns a sequential stream, over the remaining records
+	public Stream<GenericConvertMap<String, Object>> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+	
+	/// Closes the reader, and its InputStream. Pending parallel batches are cancelled.
+	@Override
+	public void close() throws IOException {
+		ended = true;
+		nextRecord = null;
+		if (parser != null) {
+			parser.close();
+		}
+		if (pending != null) {
+			for (ForkJoinTask<?> task : pending) {
+				task.cancel(false);
+			}
+			pending.clear();
+		}
+		lineReader = null;
+		
+		// The profile parsers do not close the stream, hence it is closed here
+		input.close();
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Record reading
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Reads the next record with the reused parser
+	///
+	/// @returns The next record, or null at the end of the stream
+	protected GenericConvertMap<String, Object> readSequential() throws IOException {
+		JsonToken token = parser.nextToken();
+		if (token == null) {
+			return null;
+		}
+		int line = parser.getTokenLocation().getLineNr();
+		if (line <= lastLine) {
+			throw new ConvertJSON.InvalidFormatJSON("Unexpected content after the JSON object, at "
+				+ parser.getTokenLocation(), null);
+		}
+		if (token != JsonToken.START_OBJECT) {
+			throw new ConvertJSON.InvalidFormatJSON("Expected a JSON object per line, at "
+				+ parser.getTokenLocation(), null);
+		}
+		Map<String, Object> ret = mapReader.readValue(parser);
+		
+		// The object must end on the same line
+		lastLine = parser.getCurrentLocation().getLineNr();
+		if (lastLine != line) {
+			throw new ConvertJSON.InvalidFormatJSON("JSON object spans multiple lines, from line "
+				+ line + " to " + lastLine, null);
+		}
+		return ProxyGenericConvertMap.ensure(ret);
+	}
+	
+	/// Reads the next record from the parsed batches, queuing more batches as needed
+	///
+	/// @returns The next record, or null at the end of the stream
+	protected GenericConvertMap<String, Object> readParallel() throws IOException {
+		while (!batch.hasNext()) {
+			// Keep the pool busy, with a batch in flight per worker (and one spare)
+			int inFlight = pool.getParallelism() + 1;
+			while (lineReader != null && pending.size() < inFlight) {
+				List<String> lines = readLines();
+				if (lines == null) {
+					lineReader.close();
+					lineReader = null;
+					break;
+				}
+				pending.add(pool.submit(() -> parseLines(lines)));
+			}
+			if (pending.isEmpty()) {
+				return null;
+			}
+			batch = pending.poll().join().iterator();
+		}
+		return batch.next();
+	}
+	
+	/// Reads the next batch of lines
+	///
+	/// @returns The lines read, or null at the end of the stream
+	protected List<String> readLines() throws IOException {
+		List<String> ret = new ArrayList<String>(batchSize);
+		String line;
+		while (ret.size() < batchSize && (line = lineReader.readLine()) != null) {
+			ret.add(line);
+		}
+		return ret.isEmpty() ? null : ret;
+	}
+	
+	/// Parses a batch of lines, skipping blank lines
+	///
+	/// @param  Lines to parse
+	///
+	/// @returns The parsed records
+	protected List<GenericConvertMap<String, Object>> parseLines(List<String> lines) {
+		List<GenericConvertMap<String, Object>> ret =
+			new ArrayList<GenericConvertMap<String, Object>>(lines.size());
+		for (String line : lines) {
+			String trimmed = line.trim();
+			if (trimmed.isEmpty()) {
+				continue;
+			}
+			if (trimmed.charAt(0) != '{') {
+				throw new ConvertJSON.InvalidFormatJSON("Expected a JSON object per line, got: "
+					+ trimmed, null);
+			}
+			ret.add(ProxyGenericConvertMap.ensure(parseLine(trimmed)));
+		}
+		return ret;
+	}
+	
+	/// Parses a single line as a JSON object, which must not have any content after it
+	///
+	/// @param  Line to parse
+	///
+	/// @returns The parsed object
+	protected Map<String, Object> parseLine(String line) {
+		try (JsonParser lineParser = mapReader.getFactory().createParser(line)) {
+			Map<String, Object> ret = mapReader.readValue(lineParser);
+			if (lineParser.nextToken() != null) {
+				throw new ConvertJSON.InvalidFormatJSON("Unexpected content after the JSON object, "
+					+ "got: " + line, null);
+			}
+			return ret;
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new ConvertJSON.InvalidFormatJSON(e);
+		}
+	}
+	
+}
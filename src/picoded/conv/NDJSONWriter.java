@@ -0,0 +1,118 @@
+package picoded.conv;
+
+// Java libs
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+// Jackson library used
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+
+///
+/// NDJSON (newline delimited JSON, also known as JSON lines) writer, writing a JSON value per
+/// line into an OutputStream, as UTF-8.
+///
+/// A single jackson generator is reused across all the records, which buffers its output till
+/// its buffer is full, or flush() / close() is called. Records are always written compactly,
+/// even with a pretty printing profile (such as PRETTY), as each record must be a single line.
+///
+/// The writer is not thread safe, and closing it closes the OutputStream.
+///
+/// ### Example Usage
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~{.java}
+///
+/// try (NDJSONWriter writer = new NDJSONWriter(outputStream)) {
+/// 	for (Map<String, Object> record : records) {
+/// 		writer.write(record);
+/// 	}
+/// }
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+///
+public class NDJSONWriter implements Closeable, Flushable {
+	
+	/// The OutputStream being written into
+	protected final OutputStream output;
+	
+	/// The reused generator
+	protected final JsonGenerator generator;
+	
+	/// Number of records written
+	protected long count = 0;
+	
+	/// Constructor, using the LENIENT (ConvertJSON) profile
+	///
+	/// @param  OutputStream to write into
+	public NDJSONWriter(OutputStream output) {
+		this(output, ConvertJSONProfile.LENIENT);
+	}
+	
+	/// Constructor
+	///
+	/// @param  OutputStream to write into
+	/// @param  Profile to write with
+	public NDJSONWriter(OutputStream inOutput, ConvertJSONProfile profile) {
+		output = inOutput;
+		try {
+			generator = profile.mapper.getFactory().createGenerator(output, JsonEncoding.UTF8);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new ConvertJSON.InvalidFormatJSON(e);
+		}
+		
+		// A minimal pretty printer, prevents INDENT_OUTPUT profiles from setting an indenting one.
+		// Records are seperated by the newline written after each record instead.
+		generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+	}
+	
+	/// Writes a single record, as a line
+	///
+	/// @param  Record to write (typically a Map)
+	public void write(Object record) throws IOException {
+		generator.writeObject(record);
+		generator.writeRaw('\n');
+		++count;
+	}
+	
+	/// Writes all the records, as a line each
+	///
+	/// @param  Records to write
+	public void writeAll(Iterator<?> records) throws IOException {
+		while (records.hasNext()) {
+			write(records.next());
+		}
+	}
+	
+	/// Writes all the records, as a line each
+	///
+	/// @param  Records to write
+	public void writeAll(Iterable<?> records) throws IOException {
+		writeAll(records.iterator());
+	}
+	
+	/// Returns the number of records written
+	public long count() {
+		return count;
+	}
+	
+	/// Flushes the buffered output, into the OutputStream
+	@Override
+	public void flush() throws IOException {
+		generator.flush();
+	}
+	
+	/// Flushes the buffered output, and closes the OutputStream
+	@Override
+	public void close() throws IOException {
+		generator.close();
+		
+		// The profile generators do not close the stream, hence it is closed here
+		output.close();
+	}
+	
+}
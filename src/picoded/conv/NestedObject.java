@@ -41,140 +41,8 @@ public class NestedObject {
 			return fallback;
 		}
 		
-		// Reuse ret object
-		//Object ret;
-		
-		// Full key fetching found -> if found it is returned =)
-		Object ret = fetchObject(base, key, null);
-		if (ret != null) {
-			return ret;
-		}
-		
-		// Fallsback if key is ALREADY EMPTY !
-		// cause nothing is found, and nothing else can be done
-		if (key == null || key.length() <= 0) {
-			return fallback;
-		}
-		
-		// Trim off useless spaces, and try again (if applicable)
-		int keyLen = key.length();
-		key = key.trim();
-		if (key.length() != keyLen) {
-			return fetchNestedObject(base, key, fallback);
-		}
-		
-		// Trim off useless starting ".dots" and try again
-		if (key.startsWith(".")) {
-			return fetchNestedObject(base, key.substring(1), fallback);
-		}
-		
-		// Array bracket fetching
-		// This is most likely an array fetching,
-		// but could also be a case of map fetching with string
-		if (key.startsWith("[")) {
-			return fetchNestedObject_key_startsWithLeftBracket(base, key, fallback);
-		}
-		
-		// Fetch one nested level =(
-		int dotIndex = key.indexOf('.');
-		int leftBracketIndex = key.indexOf('[');
-		
-		if (dotIndex >= 0 && (leftBracketIndex < 0 || dotIndex <= leftBracketIndex)) {
-			// Dot Index exists, and is before left bracket index OR there is no left bracket index
-			//
-			// This is most likely a nested object fetch -> so recursion is done
-			return fetchNestedObject_key_withDotIndex(base, key, fallback, dotIndex);
-		} else if (leftBracketIndex > 0) {
-			// Left bracket index exists, and there is no dot before it
-			//
-			// This is most likely a nested object fetch -> so recursion is done
-			return fetchNestedObject_key_withLeftBracketIndex(base, key, fallback, leftBracketIndex);
-		}
-		
-		// All else failed, including full key fetch -> fallback
-		return fallback;
-	}
-	
-	///
-	/// unchecked, fetch for fetchNestedObject, where the key starts wihth "["
-	///
-	/// @param base      Map / List to manipulate from
-	/// @param key       The input key to fetch, possibly nested
-	/// @param fallbck   The fallback default (if not convertable)
-	///
-	/// @returns         The fetched object, always possible unless fallbck null
-	protected static Object fetchNestedObject_key_startsWithLeftBracket(Object base, String key,
-		Object fallback) {
-		int rightBracketIndex = key.indexOf(']', 1);
-		if (rightBracketIndex <= 0) {
-			throw new RuntimeException("Missing closing ']' right bracket for key : " + key);
-		}
-		
-		String bracketKey = key.substring(1, rightBracketIndex).trim();
-		
-		// Fetch [sub object]
-		Object subObject = fetchObject(base, bracketKey, null);
-		
-		// No sub object, cant go a step down, fallback
-		//
-		// Meaning this can neither be the final object (ending key)
-		// nor could it be a recusive fetch.
-		if (subObject == null) {
-			return fallback;
-		}
-		
-		String rightKey = key.substring(rightBracketIndex + 1).trim();
-		// subObject is THE object, as its the ending key
-		if (rightKey.length() <= 0) {
-			return subObject;
-		}
-		
-		// ELSE : Time to continue, recusively fetching
-		return fetchNestedObject(subObject, rightKey, fallback);
-	}
-	
-	///
-	/// unchecked, fetch for fetchNestedObject, where the key next split point is a "."
-	///
-	/// @param base      Map / List to manipulate from
-	/// @param key       The input key to fetch, possibly nested
-	/// @param fallbck   The fallback default (if not convertable)
-	/// @param dotIndex  dot index position in the key to process
-	///
-	/// @returns         The fetched object, always possible unless fallbck null
-	protected static Object fetchNestedObject_key_withDotIndex(Object base, String key,
-		Object fallback, int dotIndex) {
-		// Gets the left.right key
-		String leftKey = key.substring(0, dotIndex); //left
-		String rightKey = key.substring(dotIndex + 1); //right
-		
-		// Fetch left
-		Object left = fetchObject(base, leftKey, null);
-		
-		// Time to continue, recusively fetching
-		return fetchNestedObject(left, rightKey, fallback);
-	}
-	
-	///
-	/// unchecked, fetch for fetchNestedObject, where the key next split point is a "["
-	///
-	/// @param base               Map / List to manipulate from
-	/// @param key                The input key to fetch, possibly nested
-	/// @param fallbck            The fallback default (if not convertable)
-	/// @param leftBracketIndex   Left bracket index position in the key to process
-	///
-	/// @returns         The fetched object, always possible unless fallbck null
-	protected static Object fetchNestedObject_key_withLeftBracketIndex(Object base, String key,
-		Object fallback, int leftBracketIndex) {
-		// Gets the left[right] key
-		String leftKey = key.substring(0, leftBracketIndex); //left
-		String rightKey = key.substring(leftBracketIndex); //[right]
-		
-		// Fetch left
-		Object left = fetchObject(base, leftKey, null);
-		
-		// Time to continue, recusively fetching [right]
-		return fetchNestedObject(left, rightKey, fallback);
+		// Evaluated using the compiled (and cached) path, see NestedPath
+		return NestedPath.compile(key).fetch(base, fallback);
 	}
 	
 	///
@@ -208,7 +76,7 @@ public class NestedObject {
 		Map<String, Object> baseMap = null;
 		List<Object> baseList = null;
 		
-		Object obj = GenericConvert.resolvedListOrMap(base);
+		Object obj = GenericConvert.sharedResolvedListOrMap(base);
 		if (obj != null) {
 			if (obj instanceof Map) {
 				baseMap = (Map<String, Object>) obj;
@@ -236,9 +104,9 @@ public class NestedObject {
 			}
 		}
 		
-		// Full key found
+		// Full key found, values from a (shared) JSON string are copied, see resolvedListOrMap
 		if (ret != null) {
-			return ret;
+			return (base instanceof String) ? GenericConvert.copyResolved(ret) : ret;
 		}
 		
 		// Fallback
@@ -446,7 +314,8 @@ public class NestedObject {
 		Map<String, Object> baseMap = null;
 		List<Object> baseList = null;
 		
-		Object obj = GenericConvert.resolvedListOrMap(base);
+		// Only used for its type, hence the shared JSON string memo is used as it is
+		Object obj = GenericConvert.sharedResolvedListOrMap(base);
 		if (obj != null) {
 			if (obj instanceof Map) {
 				baseMap = (Map<String, Object>) obj;
@@ -0,0 +1,478 @@
+package picoded.conv;
+
+// Java libs
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Guava cache used
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+// Jackson library used
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+///
+/// A compiled nested object path, using the same dot / bracket key syntax as
+/// `NestedObject.fetchNestedObject`. Such as "hello.world[2].value", or "list[0]['key']".
+///
+/// The path string is parsed once, into a series of steps. Which can then be evaluated
+/// repeatedly, without any further substring / trimming of the path.
+///
+/// The path can be evaluated against either
+///
+/// + An already parsed Map / List, with the exact same result as fetchNestedObject. Including
+///   its attempt to do a FULL key match first, before going down each nested level.
+/// + A JSON string / Reader / InputStream, directly over the jackson token stream. Where
+///   non-matching values are skipped over without being built, and parsing stops once the
+///   value is found. Note that in this streaming mode, the first matching key at each level
+///   is used, even if a FULL key match appears after it.
+///
+/// ### Example Usage
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~{.java}
+///
+/// NestedPath path = new NestedPath("user.emails[0]");
+///
+/// // Or from the shared cache, as used by fetchNestedObject
+/// NestedPath path = NestedPath.compile("user.emails[0]");
+///
+/// // Against a parsed map
+/// Object email = path.fetch(userMap);
+///
+/// // Directly against a JSON string, or stream
+/// Object email = path.fetchJSON(jsonString);
+/// Object email = path.fetchJSON(request.getInputStream(), "default");
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+///
+public class NestedPath {
+	
+	//----------------------------------------
+	// Step types
+	//----------------------------------------
+	
+	/// Attempt a FULL key match on the current object, returning it if found
+	protected static final byte STEP_FULL_KEY = 0;
+	
+	/// Go down one nested level, using the key
+	protected static final byte STEP_DESCEND = 1;
+	
+	/// Returns the current object
+	protected static final byte STEP_RETURN = 2;
+	
+	/// Nothing else can be done, returns the fallback
+	protected static final byte STEP_END = 3;
+	
+	/// Invalid path, throws the key as the error message
+	protected static final byte STEP_FAIL = 4;
+	
+	//----------------------------------------
+	// Compiled path cache
+	//----------------------------------------
+	
+	/// Maximum number of paths in the shared cache, least recently used paths are evicted
+	public static final int CACHE_SIZE = 4096;
+	
+	/// Shared cache of compiled paths, used by compile()
+	protected static final Cache<String, NestedPath> cache = CacheBuilder.newBuilder()
+		.maximumSize(CACHE_SIZE).build();
+	
+	/// Gets the compiled path from the shared cache, compiling it if needed
+	///
+	/// @param  Nested path, such as "hello.world[2]"
+	///
+	/// @returns The compiled path
+	public static NestedPath compile(String path) {
+		// Null keys are not supported by the cache, and are (rarely) used
+		if (path == null) {
+			return new NestedPath(null);
+		}
+		NestedPath ret = cache.getIfPresent(path);
+		if (ret == null) {
+			ret = new NestedPath(path);
+			cache.put(path, ret);
+		}
+		return ret;
+	}
+	
+	//----------------------------------------
+	// Compiled path
+	//----------------------------------------
+	
+	/// The original path string
+	protected final String path;
+	
+	/// The step types, in order
+	protected final byte[] stepType;
+	
+	/// The key used by each step
+	protected final String[] stepKey;
+	
+	/// The key as a list index, for each step (-1 if not valid)
+	protected final int[] stepIndex;
+	
+	/// Compiles the nested path
+	///
+	/// @param  Nested path, such as "hello.world[2]"
+	public NestedPath(String inPath) {
+		path = inPath;
+		
+		List<Byte> types = new ArrayList<Byte>();
+		List<String> keys = new ArrayList<String>();
+		
+		// Follows the same parsing order as fetchNestedObject
+		String key = inPath;
+		while (true) {
+			// Full key fetching, for each key varient
+			types.add(STEP_FULL_KEY);
+			keys.add(key);
+			
+			// Fallsback if key is ALREADY EMPTY !
+			if (key == null || key.length() <= 0) {
+				types.add(STEP_END);
+				keys.add(null);
+				break;
+			}
+			
+			// Trim off useless spaces, and try again (if applicable)
+			String trimmed = key.trim();
+			if (trimmed.length() != key.length()) {
+				key = trimmed;
+				continue;
+			}
+			
+			// Trim off useless starting ".dots" and try again
+			if (key.startsWith(".")) {
+				key = key.substring(1);
+				continue;
+			}
+			
+			// Array bracket fetching, or map fetching with string
+			if (key.startsWith("[")) {
+				int rightBracketIndex = key.indexOf(']', 1);
+				if (rightBracketIndex <= 0) {
+					types.add(STEP_FAIL);
+					keys.add("Missing closing ']' right bracket for key : " + key);
+					break;
+				}
+				
+				types.add(STEP_DESCEND);
+				keys.add(key.substring(1, rightBracketIndex).trim());
+				
+				// Sub object is THE object, as its the ending key
+				String rightKey = key.substring(rightBracketIndex + 1).trim();
+				if (rightKey.length() <= 0) {
+					types.add(STEP_RETURN);
+					keys.add(null);
+					break;
+				}
+				key = rightKey;
+				continue;
+			}
+			
+			// Fetch one nested level
+			int dotIndex = key.indexOf('.');
+			int leftBracketIndex = key.indexOf('[');
+			if (dotIndex >= 0 && (leftBracketIndex < 0 || dotIndex <= leftBracketIndex)) {
+				types.add(STEP_DESCEND);
+				keys.add(key.substring(0, dotIndex));
+				key = key.substring(dotIndex + 1);
+			} else if (leftBracketIndex > 0) {
+				types.add(STEP_DESCEND);
+				keys.add(key.substring(0, leftBracketIndex));
+				key = key.substring(leftBracketIndex);
+			} else {
+				// All else failed, including full key fetch -> fallback
+				types.add(STEP_END);
+				keys.add(null);
+				break;
+			}
+		}
+		
+		// Flatten into arrays
+		int len = types.size();
+		stepType = new byte[len];
+		stepKey = new String[len];
+		stepIndex = new int[len];
+		for (int i = 0; i < len; ++i) {
+			stepType[i] = types.get(i);
+			stepKey[i] = keys.get(i);
+			stepIndex[i] = (stepKey[i] == null) ? -1 : GenericConvert.toInt(stepKey[i], -1);
+		}
+	}
+	
+	/// Returns the original path string
+	@Override
+	public String toString() {
+		return path;
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Map / List evaluation
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Fetch the nested object, from a Map / List
+	///
+	/// @param base      Map / List to fetch from
+	/// @param fallbck   The fallback default (if not found)
+	///
+	/// @returns         The fetched object, always possible unless fallbck null
+	public Object fetch(Object base, Object fallback) {
+		Object cur = base;
+		for (int i = 0; i < stepType.length; ++i) {
+			switch (stepType[i]) {
+			case STEP_FULL_KEY:
+				// Invalid base -> null, or not ( map OR list ) -> fallback
+				if (!(cur instanceof Map) && !(cur instanceof List)) {
+					return fallback;
+				}
+				Object ret = fetchStep(cur, i);
+				if (ret != null) {
+					return ret;
+				}
+				break;
+			case STEP_DESCEND:
+				cur = fetchStep(cur, i);
+				if (cur == null) {
+					return fallback;
+				}
+				break;
+			case STEP_RETURN:
+				return cur;
+			case STEP_FAIL:
+				throw new RuntimeException(stepKey[i]);
+			default:
+				return fallback;
+			}
+		}
+		return fallback;
+	}
+	
+	/// Fetch the step key from the Map / List, as per NestedObject.fetchObject.
+	/// Without converting the key to an index for lists, as its already compiled.
+	///
+	/// @param base      Map / List to fetch from
+	/// @param step      Step to use
+	///
+	/// @returns         The fetched object, or null
+	protected Object fetchStep(Object base, int step) {
+		if (base instanceof Map) {
+			return ((Map<?, ?>) base).get(stepKey[step]);
+		} else if (base instanceof List) {
+			List<?> list = (List<?>) base;
+			int idx = stepIndex[step];
+			return (idx >= 0 && idx < list.size()) ? list.get(idx) : null;
+		}
+		
+		// Other types, such as JSON strings, and arrays
+		return NestedObject.fetchObject(base, stepKey[step], null);
+	}
+	
+	/// Default Null fallback, for `fetch(base, fallback)`
+	///
+	/// @param base      Map / List to fetch from
+	///
+	/// @returns         The fetched object, or null
+	public Object fetch(Object base) {
+		return fetch(base, null);
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Streaming JSON evaluation
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Fetch the nested object, directly from the JSON string
+	///
+	/// @param json      JSON string to fetch from
+	/// @param fallbck   The fallback default (if not found)
+	///
+	/// @returns         The fetched object, always possible unless fallbck null
+	public Object fetchJSON(String json, Object fallback) {
+		try (JsonParser parser = ConvertJSONProfile.LENIENT.mapper.getFactory()
+			.createParser(json)) {
+			return fetch(parser, fallback);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new ConvertJSON.InvalidFormatJSON(e);
+		}
+	}
+	
+	/// Default Null fallback, for `fetchJSON(json, fallback)`
+	///
+	/// @param json      JSON string to fetch from
+	///
+	/// @returns         The fetched object, or null
+	public Object fetchJSON(String json) {
+		return fetchJSON(json, null);
+	}
+	
+	/// Fetch the nested object, directly from the JSON Reader.
+	///
+	/// Reading stops once the object is found, and the Reader is not closed.
+	///
+	/// @param json      JSON Reader to fetch from
+	/// @param fallbck   The fallback default (if not found)
+	///
+	/// @returns         The fetched object, always possible unless fallbck null
+	public Object fetchJSON(Reader json, Object fallback) throws IOException {
+		try (JsonParser parser = ConvertJSONProfile.LENIENT.mapper.getFactory()
+			.createParser(json)) {
+			return fetch(parser, fallback);
+		} catch (JsonProcessingException e) {
+			// Format exception is recasted as InvalidFormatJSON
+			throw new ConvertJSON.InvalidFormatJSON(e);
+		}
+	}
+	
+	/// Default Null fallback, for `fetchJSON(json, fallback)`
+	///
+	/// @param json      JSON Reader to fetch from
+	///
+	/// @returns         The fetched object, or null
+	public Object fetchJSON(Reader json) throws IOException {
+		return fetchJSON(json, null);
+	}
+	
+	/// Fetch the nested object, directly from the JSON InputStream.
+	///
+	/// Reading stops once the object is found, and the InputStream is not closed.
+	///
+	/// @param json      JSON InputStream to fetch from
+	/// @param fallbck   The fallback default (if not found)
+	///
+	/// @returns         The fetched object, always possible unless fallbck null
+	public Object fetchJSON(InputStream json, Object fallback) throws IOException {
+		try (JsonParser parser = ConvertJSONProfile.LENIENT.mapper.getFactory()
+			.createParser(json)) {
+			return fetch(parser, fallback);
+		} catch (JsonProcessingException e) {
+			// Format exception is recasted as InvalidFormatJSON
+			throw new ConvertJSON.InvalidFormatJSON(e);
+		}
+	}
+	
+	/// Default Null fallback, for `fetchJSON(json, fallback)`
+	///
+	/// @param json      JSON InputStream to fetch from
+	///
+	/// @returns         The fetched object, or null
+	public Object fetchJSON(InputStream json) throws IOException {
+		return fetchJSON(json, null);
+	}
+	
+	/// Fetch the nested object, from the parser token stream.
+	///
+	/// Each level is scanned for a FULL key match, or the key to go down with. With any
+	/// other value skipped over, without being built.
+	///
+	/// @param parser    JsonParser, before its first token
+	/// @param fallbck   The fallback default (if not found)
+	///
+	/// @returns         The fetched object, always possible unless fallbck null
+	protected Object fetch(JsonParser parser, Object fallback) throws IOException {
+		JsonToken token = parser.nextToken();
+		int i = 0;
+		while (true) {
+			byte type = stepType[i];
+			if (type == STEP_RETURN) {
+				return readValue(parser, fallback);
+			}
+			if (type == STEP_FAIL) {
+				throw new RuntimeException(stepKey[i]);
+			}
+			if (type != STEP_FULL_KEY) {
+				return fallback;
+			}
+			
+			// Consecutive full key varients [i, next), evaluated on the same level
+			int next = i;
+			while (stepType[next] == STEP_FULL_KEY) {
+				++next;
+			}
+			boolean descend = (stepType[next] == STEP_DESCEND);
+			
+			// Scan the current level
+			boolean found = false;
+			if (token == JsonToken.START_OBJECT) {
+				while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+					String name = parser.getCurrentName();
+					token = parser.nextToken();
+					if (isFullKey(name, -1, i, next)) {
+						Object ret = readValue(parser, null);
+						if (ret != null) {
+							return ret;
+						}
+					} else if (descend && name.equals(stepKey[next])) {
+						found = true;
+						break;
+					} else {
+						parser.skipChildren();
+					}
+				}
+			} else if (token == JsonToken.START_ARRAY) {
+				int idx = 0;
+				while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+					if (isFullKey(null, idx, i, next)) {
+						Object ret = readValue(parser, null);
+						if (ret != null) {
+							return ret;
+						}
+					} else if (descend && idx == stepIndex[next]) {
+						found = true;
+						break;
+					} else {
+						parser.skipChildren();
+					}
+					++idx;
+				}
+			}
+			
+			// Go down one level, on the current value token
+			if (!found || token == JsonToken.VALUE_NULL) {
+				return fallback;
+			}
+			i = next + 1;
+		}
+	}
+	
+	/// Checks if the map key, or list index, matches any of the full key steps
+	///
+	/// @param name      Map key name, or null if its a list
+	/// @param idx       List index
+	/// @param from      Starting full key step (inclusive)
+	/// @param to        Ending full key step (exclusive)
+	///
+	/// @returns         True if its a full key match
+	protected boolean isFullKey(String name, int idx, int from, int to) {
+		for (int i = from; i < to; ++i) {
+			if (name != null ? name.equals(stepKey[i]) : (idx >= 0 && idx == stepIndex[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/// Reads the value at the current token
+	///
+	/// @param parser    JsonParser, at the value token
+	/// @param fallbck   The fallback default (if null)
+	///
+	/// @returns         The value
+	protected static Object readValue(JsonParser parser, Object fallback) throws IOException {
+		if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+			return fallback;
+		}
+		Object ret = ConvertJSONProfile.LENIENT.reader(Object.class).readValue(parser);
+		return (ret == null) ? fallback : ret;
+	}
+}
@@ -0,0 +1,258 @@
+package picoded.conv;
+
+import java.math.BigDecimal;
+
+///
+/// Exception free numeric string parsing, used by the GenericConvert number conversions.
+///
+/// Accepts the same format as `new BigDecimal(String)`, with the same conversion results
+/// (including truncation towards zero for long / int). However invalid input returns the
+/// fallback without throwing (and building the stack trace of) a NumberFormatException.
+///
+/// Plain integers and decimals of up to 18 digits (15 digits for double) are parsed directly
+/// into primitives. Only longer values, exponents, and non ASCII digits use BigDecimal.
+///
+/// ### Example
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~{.java}
+///
+/// NumberConv.toLong("123", 0); // 123
+/// NumberConv.toLong("-1.9", 0); // -1
+/// NumberConv.toDouble("1.5e3", 0); // 1500.0
+/// NumberConv.toInt("abc", -1); // -1
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+///
+public class NumberConv {
+	
+	/// Invalid constructor (throws exception)
+	protected NumberConv() {
+		throw new IllegalAccessError("Utility class");
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Format scanning
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Scan result, for input that is not a valid number
+	protected static final int SCAN_INVALID = -1;
+	
+	/// Scan result, for valid input that needs to be parsed via BigDecimal
+	protected static final int SCAN_SLOW = -2;
+	
+	/// Maximum number of digits, for the long fast path (10^18 fits in a long)
+	protected static final int MAX_LONG_DIGITS = 18;
+	
+	/// Maximum number of digits, for the double fast path (10^15 fits in a double exactly)
+	protected static final int MAX_DOUBLE_DIGITS = 15;
+	
+	/// Powers of 10, for the fast paths
+	protected static final long[] LONG_POW10 = new long[MAX_LONG_DIGITS + 1];
+	protected static final double[] DOUBLE_POW10 = new double[MAX_LONG_DIGITS + 1];
+	static {
+		LONG_POW10[0] = 1;
+		DOUBLE_POW10[0] = 1;
+		for (int i = 1; i <= MAX_LONG_DIGITS; ++i) {
+			LONG_POW10[i] = LONG_POW10[i - 1] * 10;
+			DOUBLE_POW10[i] = DOUBLE_POW10[i - 1] * 10;
+		}
+	}
+	
+	/// Scans the input against the BigDecimal format, without any allocations.
+	/// That is an optional sign, digits with an optional decimal point, and an optional exponent.
+	///
+	/// @param  Input to scan
+	///
+	/// @returns The number of digits for plain ASCII integers / decimals of up to 18 digits,
+	///          SCAN_SLOW for other valid input, or SCAN_INVALID
+	protected static int scan(CharSequence input) {
+		int len = input.length();
+		int i = 0;
+		if (len > 0 && (input.charAt(0) == '-' || input.charAt(0) == '+')) {
+			++i;
+		}
+		
+		// Mantissa digits, with an optional decimal point
+		int digits = 0;
+		boolean point = false;
+		for (; i < len; ++i) {
+			char c = input.charAt(i);
+			if (c >= '0' && c <= '9') {
+				++digits;
+			} else if (c == '.' && !point) {
+				point = true;
+			} else if (c > 127) {
+				// Non ASCII digits are accepted by BigDecimal
+				return SCAN_SLOW;
+			} else {
+				break;
+			}
+		}
+		if (digits == 0) {
+			return SCAN_INVALID;
+		}
+		if (i == len) {
+			return (digits <= MAX_LONG_DIGITS) ? digits : SCAN_SLOW;
+		}
+		
+		// Exponent, which must have at least a digit
+		char c = input.charAt(i++);
+		if (c != 'e' && c != 'E') {
+			return SCAN_INVALID;
+		}
+		if (i < len && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+			++i;
+		}
+		if (i == len) {
+			return SCAN_INVALID;
+		}
+		for (; i < len; ++i) {
+			c = input.charAt(i);
+			if (c > 127) {
+				return SCAN_SLOW;
+			} else if (c < '0' || c > '9') {
+				return SCAN_INVALID;
+			}
+		}
+		return SCAN_SLOW;
+	}
+	
+	/// Parses the scanned input via BigDecimal
+	///
+	/// @param  Input to parse, which must not be SCAN_INVALID
+	///
+	/// @returns The BigDecimal, or null if invalid (such as an exponent overflow)
+	protected static BigDecimal parseSlow(CharSequence input) {
+		try {
+			return new BigDecimal(input.toString());
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+	
+	//--------------------------------------------------------------------------------------------
+	//
+	// Conversions
+	//
+	//--------------------------------------------------------------------------------------------
+	
+	/// Checks if the input is a valid number, as accepted by BigDecimal
+	///
+	/// @param  Input to check
+	///
+	/// @returns true if its a valid number
+	public static boolean isNumber(CharSequence input) {
+		if (input == null) {
+			return false;
+		}
+		int scan = scan(input);
+		return scan >= 0 || (scan == SCAN_SLOW && parseSlow(input) != null);
+	}
+	
+	/// Parses the input as a BigDecimal
+	///
+	/// @param  Input to parse
+	/// @param  Fallback, if the input is not a valid number
+	///
+	/// @returns The parsed value, or the fallback
+	public static BigDecimal toBigDecimal(CharSequence input, BigDecimal fallback) {
+		if (input == null || scan(input) == SCAN_INVALID) {
+			return fallback;
+		}
+		BigDecimal ret = parseSlow(input);
+		return (ret != null) ? ret : fallback;
+	}
+	
+	/// Parses the input as a long, truncating any decimals towards zero.
+	/// Out of range values returns the low order 64 bits, as per BigDecimal.longValue()
+	///
+	/// @param  Input to parse
+	/// @param  Fallback, if the input is not a valid number
+	///
+	/// @returns The parsed value, or the fallback
+	public static long toLong(CharSequence input, long fallback) {
+		if (input == null) {
+			return fallback;
+		}
+		int scan = scan(input);
+		if (scan == SCAN_INVALID) {
+			return fallback;
+		} else if (scan == SCAN_SLOW) {
+			BigDecimal ret = parseSlow(input);
+			return (ret != null) ? ret.longValue() : fallback;
+		}
+		
+		// Fast path, for up to 18 digits
+		long mantissa = 0;
+		int fraction = -1;
+		boolean negative = (input.charAt(0) == '-');
+		for (int i = 0, len = input.length(); i < len; ++i) {
+			char c = input.charAt(i);
+			if (c >= '0' && c <= '9') {
+				mantissa = mantissa * 10 + (c - '0');
+				if (fraction >= 0) {
+					++fraction;
+				}
+			} else if (c == '.') {
+				fraction = 0;
+			}
+		}
+		if (fraction > 0) {
+			mantissa /= LONG_POW10[fraction];
+		}
+		return negative ? -mantissa : mantissa;
+	}
+	
+	/// Parses the input as an int, truncating any decimals towards zero.
+	/// Out of range values returns the low order 32 bits, as per BigDecimal.intValue()
+	///
+	/// @param  Input to parse
+	/// @param  Fallback, if the input is not a valid number
+	///
+	/// @returns The parsed value, or the fallback
+	public static int toInt(CharSequence input, int fallback) {
+		return (int) toLong(input, fallback);
+	}
+	
+	/// Parses the input as a double
+	///
+	/// @param  Input to parse
+	/// @param  Fallback, if the input is not a valid number
+	///
+	/// @returns The parsed value, or the fallback
+	public static double toDouble(CharSequence input, double fallback) {
+		if (input == null) {
+			return fallback;
+		}
+		int scan = scan(input);
+		if (scan == SCAN_INVALID) {
+			return fallback;
+		} else if (scan == SCAN_SLOW || scan > MAX_DOUBLE_DIGITS) {
+			BigDecimal ret = parseSlow(input);
+			return (ret != null) ? ret.doubleValue() : fallback;
+		}
+		
+		// Fast path, for up to 15 digits, where both the mantissa and the power of 10 are
+		// exact doubles. So the division is correctly rounded, as with BigDecimal.
+		long mantissa = 0;
+		int fraction = 0;
+		boolean point = false;
+		for (int i = 0, len = input.length(); i < len; ++i) {
+			char c = input.charAt(i);
+			if (c >= '0' && c <= '9') {
+				mantissa = mantissa * 10 + (c - '0');
+				if (point) {
+					++fraction;
+				}
+			} else if (c == '.') {
+				point = true;
+			}
+		}
+		double ret = mantissa / DOUBLE_POW10[fraction];
+		
+		// BigDecimal has no negative zero
+		return (input.charAt(0) == '-' && mantissa != 0) ? -ret : ret;
+	}
+	
+}
@@ -0,0 +1,158 @@
+package picoded.conv;
+
+// Java includes
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+///
+/// Time ordered GUID generator, in the UUID version 7 layout. Used in place of GUID.randomUUID(),
+/// when the GUID is used as an index key (such as JSql primary keys). As new keys are always
+/// appended to the end of the B-tree, instead of being scattered all over it.
+///
+/// The 128 bits are laid out as the following (most significant first)
+///
+/// + 48 bits : unix timestamp in milliseconds
+/// + 4 bits  : version (7)
+/// + 12 bits : sequence counter, within the same millisecond
+/// + 2 bits  : variant (IETF)
+/// + 62 bits : random value
+///
+/// The timestamp and sequence counter is shared across all threads (via a lock free CAS),
+/// making the generated values strictly increasing within the JVM. If the sequence counter
+/// overflows, or the system clock moves backwards, the timestamp is simply carried forward.
+///
+/// As Base58 charset is in ascending ASCII order, and the GUID string is of fixed length,
+/// the lexicographic order of `base58()` strings matches its creation order. The same applies to
+/// `byteArray()` when compared as unsigned bytes. However this is NOT the case for `base64()`,
+/// as its charset is not in ASCII order.
+///
+/// Note that the random bits comes from ThreadLocalRandom, which does not block nor contend across
+/// threads, but is NOT cryptographically secure. Do not use this for unguessable tokens.
+///
+public class OrderedGUID {
+	
+	/// Invalid constructor (throws exception)
+	protected OrderedGUID() {
+		throw new IllegalAccessError("Utility class");
+	}
+	
+	//----------------------------------------
+	// Static vars
+	//----------------------------------------
+	
+	/// Number of bits used by the sequence counter
+	protected static final int SEQUENCE_BITS = 12;
+	
+	/// Version 7 bits, in its most significant bits position
+	protected static final long VERSION_BITS = 0x7000L;
+	
+	/// Variant bits, in its least significant bits position
+	protected static final long VARIANT_BITS = 0x8000000000000000L;
+	
+	/// Mask for the random least significant bits
+	protected static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+	
+	/// The last issued timestamp and sequence, as (timestamp << SEQUENCE_BITS | sequence)
+	protected static final AtomicLong lastTimeSequence = new AtomicLong(0);
+	
+	//---------------------------------------------------------------------------------------------
+	// Core generation
+	//---------------------------------------------------------------------------------------------
+	
+	/// Gets the next time sequence value, which is strictly increasing
+	///
+	/// @returns (timestamp << SEQUENCE_BITS | sequence)
+	protected static long nextTimeSequence() {
+		long now = System.currentTimeMillis() << SEQUENCE_BITS;
+		while (true) {
+			long prev = lastTimeSequence.get();
+			long next = (now > prev) ? now : prev + 1;
+			if (lastTimeSequence.compareAndSet(prev, next)) {
+				return next;
+			}
+		}
+	}
+	
+	/// Returns the most significant bits for the next GUID
+	///
+	/// @returns most significant bits
+	protected static long nextMostSignificantBits() {
+		long timeSeq = nextTimeSequence();
+		long sequenceMask = (1L << SEQUENCE_BITS) - 1;
+		return ((timeSeq >>> SEQUENCE_BITS) << 16) | VERSION_BITS | (timeSeq & sequenceMask);
+	}
+	
+	/// Returns the least significant bits for the next GUID
+	///
+	/// @returns least significant bits
+	protected static long nextLeastSignificantBits() {
+		return (ThreadLocalRandom.current().nextLong() & RANDOM_MASK) | VARIANT_BITS;
+	}
+	
+	//---------------------------------------------------------------------------------------------
+	// Generates various formats of a time ordered GUID value
+	//---------------------------------------------------------------------------------------------
+	
+	/// Returns the next time ordered UUID
+	///
+	/// @returns UUID representing the GUID
+	public static UUID randomUUID() {
+		long mostSignificant = nextMostSignificantBits();
+		return new UUID(mostSignificant, nextLeastSignificantBits());
+	}
+	
+	/// Returns the next time ordered GUID as a long[2] array
+	///
+	/// @returns long[2], representing the most, and least significant bits
+	public static long[] longPair() {
+		long mostSignificant = nextMostSignificantBits();
+		return new long[] { mostSignificant, nextLeastSignificantBits() };
+	}
+	
+	/// Returns the next time ordered GUID as a byte[16] array
+	///
+	/// @returns byte[16] array, representing the most, and least significant bits
+	public static byte[] byteArray() {
+		return GUID.byteArray(randomUUID());
+	}
+	
+	/// Returns the next time ordered GUID as a 22 character base64 string
+	///
+	/// Note that unlike base58, the base64 string does not sort in creation order
+	///
+	/// @returns string of 22 characters representing the GUID
+	public static String base64() {
+		return GUID.base64(randomUUID());
+	}
+	
+	/// Returns the next time ordered GUID as a 22 character base58 string,
+	/// which sorts lexicographically in creation order
+	///
+	/// @returns string of 22 characters representing the GUID
+	public static String base58() {
+		long mostSignificant = nextMostSignificantBits();
+		return Base58GUID.encode(mostSignificant, nextLeastSignificantBits());
+	}
+	
+	//---------------------------------------------------------------------------------------------
+	// Timestamp extraction
+	//---------------------------------------------------------------------------------------------
+	
+	/// Returns the unix timestamp (in milliseconds) of a time ordered UUID
+	///
+	/// @param   uuid generated from OrderedGUID
+	/// @returns unix timestamp in milliseconds
+	public static long timestamp(UUID uuid) {
+		return uuid.getMostSignificantBits() >>> 16;
+	}
+	
+	/// Returns the unix timestamp (in milliseconds) of a time ordered base58 GUID string
+	///
+	/// @param   base58 string generated from OrderedGUID
+	/// @returns unix timestamp in milliseconds
+	public static long timestamp(String base58str) {
+		return timestamp(GUID.fromBase58(base58str));
+	}
+	
+}
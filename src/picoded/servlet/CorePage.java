@@ -13,11 +13,13 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Enumeration;
 import java.io.PrintWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
 import java.net.URLDecoder;
 import java.io.UnsupportedEncodingException;
 
 import picoded.conv.ConvertJSON;
+import picoded.conv.JSONShapeWriter;
 import picoded.file.FileUtil;
 import picoded.enums.HttpRequestType;
 import picoded.enums.EmptyArray;
@@ -630,7 +632,7 @@ public class CorePage extends javax.servlet.http.HttpServlet {
 			}
 			
 			if (ret) {
-				outputJSON(jsonDataObj, templateDataObj, getWriter());
+				outputJSON(jsonDataObj, templateDataObj, getOutputStream());
 			}
 			
 			return ret;
@@ -779,6 +781,16 @@ public class CorePage extends javax.servlet.http.HttpServlet {
 		return true;
 	}
 	
+	/// [To be extended by sub class, if needed]
+	/// Returns the JSONShapeWriter used by outputJSON, for endpoints with a stable output shape.
+	/// This should be held as a static field of the sub class, as the shape is learnt across
+	/// requests.
+	///
+	/// @returns JSONShapeWriter to use, or null (default) for the generic ConvertJSON output
+	public JSONShapeWriter outputJSONShapeWriter() {
+		return null;
+	}
+	
 	/// [Avoid Extending, this handles all the various headers and JSONP / CORS]
 	/// Does the actual final json object to json string output, with contentType "application/javascript"
 	public boolean outputJSON(Map<String, Object> outputData, Map<String, Object> templateData,
@@ -788,8 +800,40 @@ public class CorePage extends javax.servlet.http.HttpServlet {
 			httpResponse.setContentType("application/javascript");
 		}
 		
+		// Serialize the data fully first, so a failure never leaves partial JSON in the output
+		JSONShapeWriter shapeWriter = outputJSONShapeWriter();
+		String json = (shapeWriter != null) ? shapeWriter.fromMap(outputData) : ConvertJSON
+			.fromObject(outputData);
+		
 		// Output the data
-		output.println(ConvertJSON.fromObject(outputData));
+		output.println(json);
+		return true;
+	}
+	
+	/// [Avoid Extending, this handles all the various headers and JSONP / CORS]
+	/// Does the actual final json object to json UTF-8 bytes output, with contentType "application/javascript"
+	public boolean outputJSON(Map<String, Object> outputData, Map<String, Object> templateData,
+		OutputStream output) throws Exception {
+		// Set content type to JSON
+		if (httpResponse != null) {
+			httpResponse.setContentType("application/javascript");
+		}
+		
+		// Serialize the data fully first, so a failure never leaves partial JSON in the output
+		byte[] json;
+		JSONShapeWriter shapeWriter = outputJSONShapeWriter();
+		if (shapeWriter != null) {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			shapeWriter.fromMap(outputData, buffer);
+			json = buffer.toByteArray();
+		} else {
+			json = ConvertJSON.fromObjectAsBytes(outputData);
+		}
+		
+		// Output the data, as raw UTF-8 bytes
+		output.write(json);
+		output.write('\n');
+		output.flush();
 		return true;
 	}
 	
@@ -0,0 +1,350 @@
+package picoded.struct;
+
+// Java libs
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Jackson library used
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import picoded.conv.ConvertJSON;
+import picoded.conv.GenericConvert;
+
+///
+/// A GenericConvertMap over a JSON object string, which only decodes the values that are read.
+///
+/// On first touch, the top level keys are indexed to their value offsets (skipping over the
+/// values themselves). Each value is then only decoded when it is read, and cached for reuse.
+/// Nested JSON objects are returned as LazyJSONMap themselves, sharing the same source, while
+/// nested arrays are decoded in full.
+///
+/// This is meant for the common case of large config / request JSON blobs, where only one or
+/// two keys are read via getString / getInt. Any mutation (put / remove / clear) falls back to
+/// fully materializing the map, after which it behaves like a LinkedHashMap.
+///
+/// Note that like HashMap, this is NOT thread safe, even for reads (as the first read fills the
+/// index). Hence it is opt-in via GenericConvert.toLazyMap, and not used by toStringMap.
+///
+/// ### Example Usage
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~{.java}
+///
+/// GenericConvertMap<String, Object> config = new LazyJSONMap(jsonString);
+///
+/// // Only the "timeout" value is decoded
+/// int timeout = config.getInt("timeout", 1000);
+///
+/// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+///
+public class LazyJSONMap extends AbstractMap<String, Object> implements
+	GenericConvertMap<String, Object> {
+	
+	// ------------------------------------------------------
+	//
+	// Internal vars
+	//
+	// ------------------------------------------------------
+	
+	/// The JSON source characters, null once materialized
+	protected char[] source = null;
+	
+	/// Offset of the JSON object, within the source
+	protected int sourceOffset = 0;
+	
+	/// Top level keys, to their value offset within the source. Null if not indexed yet
+	protected LinkedHashMap<String, Integer> keyOffsets = null;
+	
+	/// Values that has been decoded
+	protected HashMap<String, Object> decoded = null;
+	
+	/// The fully materialized map, after any mutation
+	protected LinkedHashMap<String, Object> materialized = null;
+	
+	// ------------------------------------------------------
+	//
+	// Constructors
+	//
+	// ------------------------------------------------------
+	
+	/// Constructor, from a JSON object string
+	///
+	/// @param  JSON object string
+	public LazyJSONMap(String json) {
+		this(json.toCharArray(), 0);
+	}
+	
+	/// Constructor, from a JSON object found at the given offset.
+	///
+	/// Note that the char array is used as it is, and should not be modified after.
+	///
+	/// @param  JSON characters
+	/// @param  Offset of the JSON object
+	public LazyJSONMap(char[] json, int offset) {
+		source = json;
+		sourceOffset = offset;
+	}
+	
+	/// Builds the LazyJSONMap, with its keys indexed immediately. Used by GenericConvert, so
+	/// that invalid JSON is still detected upfront (without decoding the values).
+	///
+	/// @param  JSON object string
+	///
+	/// @returns The LazyJSONMap, or null if the JSON is "null"
+	public static LazyJSONMap parse(String json) {
+		if (json.trim().equals("null")) {
+			return null;
+		}
+		LazyJSONMap ret = new LazyJSONMap(json);
+		ret.index();
+		return ret;
+	}
+	
+	// ------------------------------------------------------
+	//
+	// Indexing and decoding
+	//
+	// ------------------------------------------------------
+	
+	/// Creates a parser, over the given source range
+	///
+	/// @param  Source offset to parse from
+	/// @param  Number of characters to parse
+	///
+	/// @returns JsonParser, note that its char offsets are relative to the start of the source
+	protected JsonParser createParser(int offset, int length) throws IOException {
+		return ConvertJSON.sharedMapper().getFactory().createParser(source, offset, length);
+	}
+	
+	/// Returns true, if the character can be part of a JSON number
+	///
+	/// @param  Character to check
+	protected static boolean isNumberChar(char c) {
+		return (c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-';
+	}
+	
+	/// Indexes the top level keys to their value offsets (if not done previously)
+	///
+	/// @returns The key offsets
+	protected LinkedHashMap<String, Integer> index() {
+		if (keyOffsets != null) {
+			return keyOffsets;
+		}
+		
+		LinkedHashMap<String, Integer> offsets = new LinkedHashMap<String, Integer>();
+		try (JsonParser parser = createParser(sourceOffset, source.length - sourceOffset)) {
+			JsonToken token = parser.nextToken();
+			if (token != JsonToken.START_OBJECT) {
+				throw new ConvertJSON.InvalidFormatJSON("Expected a JSON object, got : " + token,
+					null);
+			}
+			
+			// Record each value offset, while skipping over its content
+			while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+				String key = parser.getCurrentName();
+				parser.nextToken();
+				offsets.put(key, (int) parser.getTokenLocation().getCharOffset());
+				parser.skipChildren();
+			}
+			if (token != JsonToken.END_OBJECT) {
+				throw new ConvertJSON.InvalidFormatJSON("Unexpected end of JSON object", null);
+			}
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new ConvertJSON.InvalidFormatJSON(e);
+		}
+		
+		decoded = new HashMap<String, Object>();
+		keyOffsets = offsets;
+		return offsets;
+	}
+	
+	/// Decodes the value at the given source offset
+	///
+	/// @param  Source offset of the value
+	///
+	/// @returns The decoded value
+	protected Object decode(int offset) {
+		// Nested objects are kept lazy, it was already validated when indexing this map
+		if (source[offset] == '{') {
+			return new LazyJSONMap(source, offset);
+		}
+		
+		// Jackson requires a separator after a root level number, so it is parsed on its own
+		int length = source.length - offset;
+		char c = source[offset];
+		if (c == '-' || (c >= '0' && c <= '9')) {
+			int end = offset + 1;
+			while (end < source.length && isNumberChar(source[end])) {
+				++end;
+			}
+			length = end - offset;
+		}
+		
+		try (JsonParser parser = createParser(offset, length)) {
+			return ConvertJSON.sharedMapper().readValue(parser, Object.class);
+		} catch (IOException e) {
+			// Any exception is recasted as InvalidFormatJSON
+			throw new ConvertJSON.InvalidFormatJSON(e);
+		}
+	}
+	
+	/// Fully materialize the map (if not done previously), releasing the JSON source
+	///
+	/// @returns The materialized map
+	protected Map<String, Object> materialize() {
+		if (materialized == null) {
+			LinkedHashMap<String, Object> full = new LinkedHashMap<String, Object>();
+			for (String key : index().keySet()) {
+				full.put(key, get(key));
+			}
+			materialized = full;
+			source = null;
+			keyOffsets = null;
+			decoded = null;
+		}
+		return materialized;
+	}
+	
+	/// Returns true, if the map has been fully materialized, due to a mutation
+	public boolean isMaterialized() {
+		return materialized != null;
+	}
+	
+	// ------------------------------------------------------
+	//
+	// Map read operations
+	//
+	// ------------------------------------------------------
+	
+	/// Gets the value, decoding it if needed
+	@Override
+	public Object get(Object key) {
+		if (materialized != null) {
+			return materialized.get(key);
+		}
+		
+		Integer offset = index().get(key);
+		if (offset == null) {
+			return null;
+		}
+		Object ret = decoded.get(key);
+		if (ret == null && !decoded.containsKey(key)) {
+			ret = decode(offset.intValue());
+			decoded.put((String) key, ret);
+		}
+		return ret;
+	}
+	
+	/// Checks for the key, without decoding its value
+	@Override
+	public boolean containsKey(Object key) {
+		if (materialized != null) {
+			return materialized.containsKey(key);
+		}
+		return index().containsKey(key);
+	}
+	
+	/// Returns the number of keys, without decoding any value
+	@Override
+	public int size() {
+		if (materialized != null) {
+			return materialized.size();
+		}
+		return index().size();
+	}
+	
+	/// Returns the entry set, where each value is only decoded when read
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		if (materialized != null) {
+			return materialized.entrySet();
+		}
+		return new AbstractSet<Map.Entry<String, Object>>() {
+			@Override
+			public int size() {
+				return LazyJSONMap.this.size();
+			}
+			
+			@Override
+			public Iterator<Map.Entry<String, Object>> iterator() {
+				// Iterates the index, which is left untouched on materialization
+				final Iterator<String> keys = index().keySet().iterator();
+				return new Iterator<Map.Entry<String, Object>>() {
+					String lastKey = null;
+					
+					@Override
+					public boolean hasNext() {
+						return keys.hasNext();
+					}
+					
+					@Override
+					public Map.Entry<String, Object> next() {
+						lastKey = keys.next();
+						return new DeferredMapEntry<String, Object>(LazyJSONMap.this, lastKey);
+					}
+					
+					@Override
+					public void remove() {
+						if (lastKey == null) {
+							throw new IllegalStateException();
+						}
+						LazyJSONMap.this.remove(lastKey);
+						lastKey = null;
+					}
+				};
+			}
+		};
+	}
+	
+	// ------------------------------------------------------
+	//
+	// Map write operations, which materialize the map
+	//
+	// ------------------------------------------------------
+	
+	/// Materialize the map, and put the value
+	@Override
+	public Object put(String key, Object value) {
+		return materialize().put(key, value);
+	}
+	
+	/// Materialize the map, and remove the value
+	@Override
+	public Object remove(Object key) {
+		return materialize().remove(key);
+	}
+	
+	/// Materialize the map, and put all the values
+	@Override
+	public void putAll(Map<? extends String, ? extends Object> m) {
+		materialize().putAll(m);
+	}
+	
+	/// Clears the map, without decoding any value
+	@Override
+	public void clear() {
+		materialized = new LinkedHashMap<String, Object>();
+		source = null;
+		keyOffsets = null;
+		decoded = null;
+	}
+	
+	// ------------------------------------------------------
+	//
+	// Overwrites
+	//
+	// ------------------------------------------------------
+	
+	/// Implments a JSON to string conversion
+	@Override
+	public String toString() {
+		return GenericConvert.toString(this);
+	}
+}
@@ -0,0 +1,99 @@
+package picoded.conv;
+
+// Junit includes
+import static org.junit.Assert.*;
+import org.junit.*;
+
+// Java libs used
+import java.util.UUID;
+
+///
+/// Test Case for picoded.conv.Base58GUID
+///
+public class Base58GUID_test {
+	
+	// Test run multiplier
+	protected int testRunMultiplier = 5000;
+	
+	/// Invalid constructor test
+	@Test(expected = IllegalAccessError.class)
+	public void invalidConstructor() throws Exception {
+		new Base58GUID();
+	}
+	
+	///
+	/// Must be identical to the generic Base58 encoding
+	///
+	@Test
+	public void matchesBase58() {
+		for (int a = 0; a < testRunMultiplier; ++a) {
+			UUID u = UUID.randomUUID();
+			String expected = Base58.getInstance().encode(GUID.byteArray(u));
+			
+			assertEquals(expected, Base58GUID.encode(u));
+			assertEquals(u, Base58GUID.decode(expected));
+		}
+	}
+	
+	///
+	/// Edge values, with leading zeros, and all bits set
+	///
+	@Test
+	public void edgeValues() {
+		long[][] pairs = new long[][] { { 0, 0 }, { 0, 1 }, { -1, -1 }, { Long.MIN_VALUE, 0 },
+			{ Long.MAX_VALUE, Long.MAX_VALUE }, { 0, -1 }, { -1, 0 } };
+		for (long[] pair : pairs) {
+			UUID u = new UUID(pair[0], pair[1]);
+			String expected = Base58.getInstance().encode(GUID.byteArray(u));
+			
+			assertEquals(expected, Base58GUID.encode(pair[0], pair[1]));
+			assertEquals(u, Base58GUID.decode(expected));
+		}
+	}
+	
+	///
+	/// Values above 128 bits, are truncated the same way as Base58.decode
+	///
+	@Test
+	public void overflowTruncation() {
+		String overflow = "zzzzzzzzzzzzzzzzzzzzzz";
+		assertEquals(GUID.fromByteArray(Base58.getInstance().decode(overflow)),
+			Base58GUID.decode(overflow));
+	}
+	
+	///
+	/// Writing into char array, StringBuilder, and reading from an offset
+	///
+	@Test
+	public void bufferVarients() {
+		UUID u = UUID.randomUUID();
+		String expected = Base58GUID.encode(u);
+		
+		char[] out = new char[30];
+		assertEquals(22, Base58GUID.encode(u.getMostSignificantBits(), u.getLeastSignificantBits(),
+			out, 4));
+		assertEquals(expected, new String(out, 4, 22));
+		
+		StringBuilder sb = new StringBuilder("user-");
+		Base58GUID.encode(u.getMostSignificantBits(), u.getLeastSignificantBits(), sb).append("-end");
+		assertEquals("user-" + expected + "-end", sb.toString());
+		
+		assertEquals(u, Base58GUID.decode(sb, 5));
+		
+		long[] pair = new long[4];
+		Base58GUID.decode(sb, 5, pair, 2);
+		assertEquals(u.getMostSignificantBits(), pair[2]);
+		assertEquals(u.getLeastSignificantBits(), pair[3]);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidCharacter() {
+		Base58GUID.decode("0000000000000000000000");
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidLength() {
+		Base58GUID.decode("user-1111", 5);
+	}
+	
+}
@@ -0,0 +1,107 @@
+package picoded.conv;
+
+// Junit includes
+import static org.junit.Assert.*;
+import org.junit.*;
+
+// Java libs used
+import java.util.UUID;
+
+// Apache reference
+import org.apache.commons.codec.binary.Base64;
+
+///
+/// Test Case for picoded.conv.Base64GUID
+///
+public class Base64GUID_test {
+	
+	// Test run multiplier
+	protected int testRunMultiplier = 5000;
+	
+	/// Invalid constructor test
+	@Test(expected = IllegalAccessError.class)
+	public void invalidConstructor() throws Exception {
+		new Base64GUID();
+	}
+	
+	///
+	/// Must be identical to the commons-codec encoding, with the padding removed
+	///
+	@Test
+	public void matchesCommonsCodec() {
+		for (int a = 0; a < testRunMultiplier; ++a) {
+			UUID u = UUID.randomUUID();
+			byte[] byteArr = GUID.byteArray(u);
+			String expected = new Base64().encodeAsString(byteArr).substring(0, 22);
+			String expectedURLSafe = Base64.encodeBase64URLSafeString(byteArr);
+			
+			assertEquals(expected, Base64GUID.encode(u));
+			assertEquals(expectedURLSafe, Base64GUID.encodeURLSafe(u));
+			assertEquals(u, Base64GUID.decode(expected));
+			assertEquals(u, Base64GUID.decode(expectedURLSafe));
+		}
+	}
+	
+	///
+	/// Edge values, with leading zeros, and all bits set
+	///
+	@Test
+	public void edgeValues() {
+		long[][] pairs = new long[][] { { 0, 0 }, { 0, 1 }, { -1, -1 }, { Long.MIN_VALUE, 0 },
+			{ Long.MAX_VALUE, Long.MAX_VALUE }, { 0, -1 }, { -1, 0 } };
+		for (long[] pair : pairs) {
+			UUID u = new UUID(pair[0], pair[1]);
+			String expected = new Base64().encodeAsString(GUID.byteArray(u)).substring(0, 22);
+			
+			assertEquals(expected, Base64GUID.encode(pair[0], pair[1]));
+			assertEquals(u, Base64GUID.decode(expected));
+		}
+	}
+	
+	///
+	/// GUID base64 functions, using the fast path
+	///
+	@Test
+	public void guidBase64() {
+		UUID u = GUID.randomUUID();
+		String base64 = GUID.base64(u);
+		String base64url = GUID.base64url(u);
+		
+		assertEquals(u, GUID.fromBase64(base64));
+		assertEquals(u, GUID.fromBase64(base64url));
+		assertEquals(u, GUID.fromBase64(base64 + "=="));
+		assertEquals(22, GUID.base64url().length());
+	}
+	
+	///
+	/// Writing into char array, and reading from an offset
+	///
+	@Test
+	public void bufferVarients() {
+		UUID u = UUID.randomUUID();
+		
+		char[] out = new char[30];
+		assertEquals(22, Base64GUID.encodeURLSafe(u.getMostSignificantBits(),
+			u.getLeastSignificantBits(), out, 4));
+		assertEquals(Base64GUID.encodeURLSafe(u), new String(out, 4, 22));
+		
+		String key = "user-" + Base64GUID.encode(u);
+		assertEquals(u, Base64GUID.decode(key, 5));
+		
+		long[] pair = new long[4];
+		Base64GUID.decode(key, 5, pair, 2);
+		assertEquals(u.getMostSignificantBits(), pair[2]);
+		assertEquals(u.getLeastSignificantBits(), pair[3]);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidCharacter() {
+		Base64GUID.decode("AAAAAAAAAA.AAAAAAAAAAA");
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidLength() {
+		Base64GUID.decode("user-AAAA", 5);
+	}
+	
+}
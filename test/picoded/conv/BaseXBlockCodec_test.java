@@ -0,0 +1,171 @@
+package picoded.conv;
+
+// Junit includes
+import static org.junit.Assert.*;
+import org.junit.*;
+
+// Apache reference
+import org.apache.commons.lang3.RandomUtils;
+
+// Java reference
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+///
+/// Test Case for picoded.conv.BaseXBlockCodec
+///
+public class BaseXBlockCodec_test {
+	
+	// Test run multiplier
+	protected int testRunMultiplier = 200;
+	
+	// Charsets to test against
+	protected String[] charsets = new String[] { Base58.DEFAULT_CHARSET, Base62.DEFAULT_CHARSET,
+		"01234567", "01", "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/" };
+	
+	///
+	/// Single block output, must be identical to BaseX
+	///
+	@Test
+	public void blockMatchesBaseX() {
+		for (String charset : charsets) {
+			BaseX baseObj = new BaseX(charset);
+			BaseXBlockCodec codec = new BaseXBlockCodec(baseObj);
+			
+			for (int a = 0; a < testRunMultiplier; ++a) {
+				int byteLen = RandomUtils.nextInt(1, codec.blockByteLength() + 1);
+				byte[] byteArr = RandomUtils.nextBytes(byteLen);
+				
+				String encoded = baseObj.encode(byteArr);
+				assertEquals(encoded, codec.encode(byteArr));
+				assertArrayEquals(baseObj.decode(encoded, byteLen), codec.decode(encoded));
+				assertArrayEquals(byteArr, codec.decode(encoded));
+			}
+		}
+	}
+	
+	///
+	/// Edge values, such as all zeros, and all ones
+	///
+	@Test
+	public void blockEdgeValues() {
+		BaseX baseObj = Base58.getInstance();
+		BaseXBlockCodec codec = new BaseXBlockCodec(baseObj);
+		
+		for (int byteLen = 1; byteLen <= codec.blockByteLength(); ++byteLen) {
+			byte[] zeros = new byte[byteLen];
+			byte[] ones = new byte[byteLen];
+			for (int a = 0; a < byteLen; ++a) {
+				ones[a] = (byte) 255;
+			}
+			assertEquals(baseObj.encode(zeros), codec.encode(zeros));
+			assertEquals(baseObj.encode(ones), codec.encode(ones));
+			assertArrayEquals(ones, codec.decode(codec.encode(ones)));
+		}
+	}
+	
+	///
+	/// Decoding with custom byte lengths, must be identical to BaseX
+	///
+	@Test
+	public void decodeBlockWithByteLength() {
+		BaseX baseObj = Base62.getInstance();
+		BaseXBlockCodec codec = new BaseXBlockCodec(baseObj);
+		
+		byte[] byteArr = new byte[] { 0, 0, 0, 7, 1, 2, 3, 4 };
+		String encoded = baseObj.encode(byteArr);
+		
+		for (int byteLen = 5; byteLen < 12; ++byteLen) {
+			byte[] out = new byte[byteLen];
+			codec.decodeBlock(encoded, 0, encoded.length(), out, 0, byteLen, false);
+			assertArrayEquals(baseObj.decode(encoded, byteLen, false), out);
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void decodingLossError() {
+		BaseX baseObj = Base62.getInstance();
+		BaseXBlockCodec codec = new BaseXBlockCodec(baseObj);
+		
+		byte fb = (byte) 255;
+		String encoded = baseObj.encode(new byte[] { 0, 0, 0, fb, fb, fb, fb, fb });
+		codec.decodeBlock(encoded, 0, encoded.length(), new byte[3], 0, 3, false);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidDecodeChar() {
+		new BaseXBlockCodec(Base58.getInstance()).decode("invalid0OIl");
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidDecodeLength() {
+		// A single base58 character cannot hold a full byte
+		new BaseXBlockCodec(Base58.getInstance()).decode("1");
+	}
+	
+	///
+	/// Multiple block encoding, and decoding
+	///
+	@Test
+	public void multipleBlocks() {
+		for (String charset : charsets) {
+			BaseXBlockCodec codec = new BaseXBlockCodec(new BaseX(charset), 16);
+			
+			for (int a = 0; a < 20; ++a) {
+				int byteLen = RandomUtils.nextInt(0, 1000);
+				byte[] byteArr = RandomUtils.nextBytes(byteLen);
+				
+				String encoded = codec.encode(byteArr);
+				assertEquals(codec.encodedLength(byteLen), encoded.length());
+				assertEquals(byteLen, codec.decodedLength(encoded.length()));
+				assertArrayEquals(byteArr, codec.decode(encoded));
+			}
+		}
+	}
+	
+	///
+	/// Streaming round trip, must be the same as the block by block encoding
+	///
+	@Test
+	public void streamingRoundTrip() throws Exception {
+		BaseXBlockCodec codec = new BaseXBlockCodec(Base58.getInstance());
+		byte[] byteArr = RandomUtils.nextBytes(64 * 1024 + 7);
+		
+		// Encode in uneven write sizes
+		StringWriter writer = new StringWriter();
+		try (OutputStream out = codec.encodingStream(writer)) {
+			int pos = 0;
+			while (pos < byteArr.length) {
+				int len = Math.min(RandomUtils.nextInt(1, 100), byteArr.length - pos);
+				if (len == 1) {
+					out.write(byteArr[pos]);
+				} else {
+					out.write(byteArr, pos, len);
+				}
+				pos += len;
+			}
+		}
+		String encoded = writer.toString();
+		assertEquals(codec.encode(byteArr), encoded);
+		
+		// And decode it back
+		ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+		try (InputStream in = codec.decodingStream(new StringReader(encoded))) {
+			byte[] buffer = new byte[77];
+			int len;
+			while ((len = in.read(buffer)) >= 0) {
+				decoded.write(buffer, 0, len);
+			}
+		}
+		assertArrayEquals(byteArr, decoded.toByteArray());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidBlockLength() {
+		new BaseXBlockCodec(Base58.getInstance(), 0);
+	}
+	
+}
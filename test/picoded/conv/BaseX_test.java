@@ -8,8 +8,16 @@ import org.junit.*;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.RandomUtils;
 
+import org.apache.commons.codec.digest.DigestUtils;
+
 // Java reference
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /// The actual test suite
 public class BaseX_test {
@@ -166,6 +174,41 @@ public class BaseX_test {
 		assertNotNull(baseObj.sha256hash(randStr));
 	}
 	
+	///
+	/// Streaming hash varients, must match the byte array result
+	///
+	@Test
+	public void hashStreaming() throws Exception {
+		byte[] randArr = RandomUtils.nextBytes(RandomUtils.nextInt(1, 300000));
+		String randStr = baseObj.encode(RandomUtils.nextBytes(stringAndByteFixedLength));
+		
+		assertEquals(baseObj.encode(DigestUtils.md5(randArr)), baseObj.md5hash(randArr));
+		assertEquals(baseObj.encode(DigestUtils.sha1(randStr)), baseObj.sha1hash(randStr));
+		
+		assertEquals(baseObj.md5hash(randArr), baseObj.md5hash(new ByteArrayInputStream(randArr)));
+		assertEquals(baseObj.sha1hash(randArr), baseObj.sha1hash(new ByteArrayInputStream(randArr)));
+		assertEquals(baseObj.sha256hash(randArr),
+			baseObj.sha256hash(new ByteArrayInputStream(randArr)));
+		
+		ByteBuffer buffer = ByteBuffer.wrap(randArr);
+		assertEquals(baseObj.md5hash(randArr), baseObj.md5hash(buffer));
+		assertEquals(baseObj.sha1hash(randArr), baseObj.sha1hash(buffer));
+		assertEquals(baseObj.sha256hash(randArr), baseObj.sha256hash(buffer));
+		assertEquals(0, buffer.position());
+		
+		File file = new File("./test-files/tmp/conv/BaseX/hashStreaming.bin");
+		file.getParentFile().mkdirs();
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			out.write(randArr);
+		}
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			FileChannel channel = raf.getChannel();
+			assertEquals(baseObj.md5hash(randArr), baseObj.md5hash(channel));
+			assertEquals(baseObj.sha1hash(randArr), baseObj.sha1hash(channel));
+			assertEquals(baseObj.sha256hash(randArr), baseObj.sha256hash(channel));
+		}
+	}
+	
 	@Test
 	public void hashAllTheStuffMultiple() {
 		for (int a = 0; a < testRunMultiplier; ++a) {
@@ -263,4 +306,177 @@ public class BaseX_test {
 		// Lets just call the check for encoding loss directly =.= for code coverage !
 		baseObj.checkForEncodingLoss(lotsOfBits, 2, 5, "coverage-test");
 	}
+	
+	///
+	/// Precomputed length tables, must match the lazily computed values
+	///
+	@Test
+	public void precomputedLengthTables() {
+		BaseX lazyObj = new BaseX(baseObj.charset(), 0);
+		for (int a = 0; a < baseObj.bitToStringTable.length; ++a) {
+			assertEquals(lazyObj.bitToStringLength(a), baseObj.bitToStringLength(a));
+		}
+		for (int a = 0; a < baseObj.stringToBitTable.length; ++a) {
+			assertEquals(lazyObj.stringToBitLength(a), baseObj.stringToBitLength(a));
+		}
+		
+		// Beyond the precomputed table
+		int bitLength = baseObj.bitToStringTable.length + 10;
+		assertEquals(lazyObj.bitToStringLength(bitLength), baseObj.bitToStringLength(bitLength));
+		assertEquals(baseObj.bitToStringLength(bitLength), baseObj.bitToStringLength(bitLength));
+	}
+	
+	///
+	/// Shared instance, used across multiple threads
+	///
+	@Test
+	public void concurrentUsage() throws Exception {
+		final BaseX sharedObj = new BaseX(baseObj.charset(), 8);
+		final Throwable[] error = new Throwable[1];
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; ++t) {
+			threads[t] = new Thread(() -> {
+				try {
+					for (int a = 0; a < testRunMultiplier; ++a) {
+						byte[] byteArr = RandomUtils.nextBytes(RandomUtils.nextInt(1, 40));
+						String encoded = sharedObj.encode(byteArr);
+						assertArrayEquals(byteArr, sharedObj.decode(encoded, byteArr.length));
+					}
+				} catch (Throwable e) {
+					error[0] = e;
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull(error[0]);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidPrecomputeLength() {
+		new BaseX(baseObj.charset(), -1);
+	}
+	
+	///
+	/// Validation without decoding
+	///
+	@Test
+	public void validation() {
+		for (int a = 0; a < testRunMultiplier; ++a) {
+			byte[] byteArr = RandomUtils.nextBytes(RandomUtils.nextInt(0, stringAndByteMaxLength));
+			String encoded = baseObj.encode(byteArr);
+			assertTrue(baseObj.isValid(encoded));
+			assertTrue(baseObj.isValid(encoded, byteArr.length));
+		}
+		
+		String encoded = baseObj.encode(new byte[16]);
+		assertFalse(baseObj.isValid(null));
+		assertFalse(baseObj.isValid(""));
+		assertFalse(baseObj.isValid(encoded, 15));
+		assertFalse(baseObj.isValid("~" + encoded.substring(1)));
+	}
+	
+	///
+	/// Valid lengths, must be exactly the lengths produced by encode
+	///
+	@Test
+	public void validationLengths() {
+		String charRange = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+		for (int radix = 2; radix <= charRange.length(); ++radix) {
+			BaseX b = new BaseX(charRange.substring(0, radix));
+			
+			boolean[] encodeLength = new boolean[b.bitToStringLength(64 * 8) + 1];
+			for (int byteLength = 0; byteLength <= 64; ++byteLength) {
+				encodeLength[b.bitToStringLength(byteLength * 8)] = true;
+			}
+			for (int strLen = 0; strLen < encodeLength.length; ++strLen) {
+				assertEquals("radix " + radix + ", length " + strLen, encodeLength[strLen],
+					b.isValidLength(strLen));
+			}
+		}
+	}
+	
+	///
+	/// Decoding across multiple long accumulated chunks
+	///
+	@Test
+	public void decodeLongValues() {
+		for (int a = 0; a < testRunMultiplier; ++a) {
+			byte[] byteArr = RandomUtils.nextBytes(RandomUtils.nextInt(1, 200));
+			byteArr[0] = (byte) 0xFF;
+			String encoded = baseObj.encode(byteArr);
+			assertArrayEquals(byteArr, baseObj.decode(encoded, byteArr.length, false));
+		}
+	}
+	
+	///
+	/// Sortable encoding, string order must match the value order
+	///
+	@Test
+	public void sortableEncoding() {
+		BaseX sortedObj = new BaseX(Base62.SORTED_CHARSET);
+		assertTrue(sortedObj.isSortable());
+		assertEquals(11, sortedObj.sortableLength());
+		
+		long[] longs = new long[] { Long.MIN_VALUE, Long.MIN_VALUE + 1, -1000000L, -1, 0, 1, 62, 63,
+			1000000L, Long.MAX_VALUE - 1, Long.MAX_VALUE };
+		for (int a = 0; a < longs.length; ++a) {
+			String encoded = sortedObj.encodeSortable(longs[a]);
+			assertEquals(sortedObj.sortableLength(), encoded.length());
+			assertEquals(longs[a], sortedObj.decodeSortableLong(encoded));
+			if (a > 0) {
+				assertTrue(sortedObj.encodeSortable(longs[a - 1]).compareTo(encoded) < 0);
+			}
+		}
+		
+		double[] doubles = new double[] { Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1.5, -0.0,
+			0.0, Double.MIN_VALUE, 1.5, Double.MAX_VALUE, Double.POSITIVE_INFINITY };
+		for (int a = 0; a < doubles.length; ++a) {
+			String encoded = sortedObj.encodeSortable(doubles[a]);
+			assertEquals(Double.doubleToLongBits(doubles[a]),
+				Double.doubleToLongBits(sortedObj.decodeSortableDouble(encoded)));
+			if (a > 0) {
+				assertTrue(sortedObj.encodeSortable(doubles[a - 1]).compareTo(encoded) < 0);
+			}
+		}
+		
+		// Tuples, and decoding from an offset
+		String tuple = sortedObj.encodeSortable(5L, -5L);
+		assertEquals(5L, sortedObj.decodeSortableLong(tuple, 0));
+		assertEquals(-5L, sortedObj.decodeSortableLong(tuple, 11));
+		assertTrue(tuple.compareTo(sortedObj.encodeSortable(5L, 6L)) < 0);
+		assertTrue(tuple.compareTo(sortedObj.encodeSortable(4L, 6L)) > 0);
+	}
+	
+	///
+	/// Random sortable values, across multiple charset sizes
+	///
+	@Test
+	public void sortableEncodingRandom() {
+		String charRange = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+		for (int radix = 2; radix <= charRange.length(); ++radix) {
+			BaseX b = new BaseX(charRange.substring(0, radix));
+			for (int a = 0; a < testRunMultiplier; ++a) {
+				long x = RandomUtils.nextLong(0, Long.MAX_VALUE) - Long.MAX_VALUE / 2;
+				long y = RandomUtils.nextLong(0, Long.MAX_VALUE) - Long.MAX_VALUE / 2;
+				String ex = b.encodeSortable(x);
+				String ey = b.encodeSortable(y);
+				assertEquals(x, b.decodeSortableLong(ex));
+				assertEquals(Long.signum(Long.compare(x, y)), Integer.signum(ex.compareTo(ey)));
+			}
+		}
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void sortableUnsortedCharset() {
+		new BaseX("ba").encodeSortable(1L);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void sortableOverflow() {
+		BaseX sortedObj = new BaseX(Base62.SORTED_CHARSET);
+		sortedObj.decodeSortableLong("zzzzzzzzzzz");
+	}
 }
@@ -0,0 +1,105 @@
+package picoded.conv;
+
+// Junit includes
+import static org.junit.Assert.*;
+import org.junit.*;
+
+// Java libs used
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+///
+/// Test Case for picoded.conv.ColumnConv
+///
+public class ColumnConv_test {
+	
+	@Test(expected = IllegalAccessError.class)
+	public void invalidConstructor() throws Exception {
+		new ColumnConv();
+	}
+	
+	/// Mixed column, with runs of various classes
+	protected List<Object> mixedColumn(int size) {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("a", 1);
+		Object[] values = new Object[] { 1, 2, 3, "4", "-5.5", "x", "", null, null, 6L, 7.5, 8.5f,
+			new BigDecimal("9.25"), true, map, "[1]", 'c', (short) 10, "1e3" };
+		List<Object> ret = new ArrayList<Object>();
+		for (int i = 0; i < size; ++i) {
+			ret.add(values[(i / 3) % values.length]);
+		}
+		return ret;
+	}
+	
+	/// Asserts the column conversions, against the per element GenericConvert conversions
+	protected void assertColumn(List<Object> column, ForkJoinPool pool) {
+		int size = column.size();
+		int[] ints = new int[size];
+		long[] longs = new long[size];
+		double[] doubles = new double[size];
+		String[] strings = new String[size];
+		ColumnConv.toIntArray(column, ints, -1, pool);
+		ColumnConv.toLongArray(column.toArray(), longs, -1L, pool);
+		ColumnConv.toDoubleArray(new LinkedList<Object>(column), doubles, -1.0, pool);
+		ColumnConv.toStringArray(column, strings, "fb", pool);
+		
+		for (int i = 0; i < size; ++i) {
+			Object e = column.get(i);
+			String msg = i + " : " + e;
+			assertEquals(msg, GenericConvert.toInt(e, -1), ints[i]);
+			assertEquals(msg, GenericConvert.toLong(e, -1L), longs[i]);
+			assertEquals(msg, GenericConvert.toDouble(e, -1.0), doubles[i], 0.0);
+			assertEquals(msg, GenericConvert.toString(e, "fb"), strings[i]);
+		}
+	}
+	
+	///
+	/// Sequential conversions
+	///
+	@Test
+	public void sequential() {
+		assertColumn(mixedColumn(500), null);
+		
+		// Allocating varients
+		List<Object> column = mixedColumn(60);
+		assertArrayEquals(ColumnConv.toIntArray(column.toArray(), 0), ColumnConv.toIntArray(
+			column, 0));
+		assertArrayEquals(ColumnConv.toLongArray(column.toArray(), 0L), ColumnConv.toLongArray(
+			column, 0L));
+		assertArrayEquals(ColumnConv.toDoubleArray(column.toArray(), 0.0), ColumnConv
+			.toDoubleArray(column, 0.0), 0.0);
+		assertArrayEquals(ColumnConv.toStringArray(column.toArray(), null), ColumnConv
+			.toStringArray(column, null));
+		
+		// Non collection iterable
+		assertArrayEquals(new int[] { 1, 2 }, ColumnConv.toIntArray(new LinkedHashSet<Object>(
+			Arrays.asList("1", 2))::iterator, 0));
+		assertEquals(0, ColumnConv.toIntArray(new ArrayList<Object>(), 0).length);
+	}
+	
+	///
+	/// Parallel conversions, of a large column
+	///
+	@Test
+	public void parallel() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			assertColumn(mixedColumn(ColumnConv.PARALLEL_THRESHOLD * 5 + 7), pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void outputTooSmall() {
+		ColumnConv.toIntArray(Arrays.asList(1, 2, 3), new int[2], 0, null);
+	}
+	
+}
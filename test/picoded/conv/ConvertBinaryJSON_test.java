@@ -0,0 +1,100 @@
+package picoded.conv;
+
+// Junit includes
+import static org.junit.Assert.*;
+import org.junit.*;
+
+// Java libs used
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+
+// Picoded libs used
+import picoded.struct.GenericConvertHashMap;
+import picoded.struct.GenericConvertMap;
+
+///
+/// Test Case for picoded.conv.ConvertBinaryJSON
+///
+public class ConvertBinaryJSON_test {
+	
+	/// Invalid constructor test
+	@Test(expected = IllegalAccessError.class)
+	public void invalidConstructor() throws Exception {
+		new ConvertBinaryJSON();
+	}
+	
+	/// Sample data, of the various json types
+	protected Map<String, Object> sampleMap() {
+		Map<String, Object> ret = new HashMap<String, Object>();
+		ret.put("str", "hello");
+		ret.put("int", 123);
+		ret.put("long", 10000000000L);
+		ret.put("double", 1.5);
+		ret.put("bool", true);
+		ret.put("null", null);
+		ret.put("list", Arrays.asList(1, "two", 3.0));
+		
+		Map<String, Object> inner = new HashMap<String, Object>();
+		inner.put("nested", "value");
+		ret.put("map", inner);
+		return ret;
+	}
+	
+	@Test
+	public void roundTrip() throws Exception {
+		Map<String, Object> map = sampleMap();
+		byte[] binary = ConvertBinaryJSON.fromMap(map);
+		assertEquals(map, ConvertBinaryJSON.toMap(binary));
+		
+		// Must match the text JSON round trip
+		assertEquals(ConvertJSON.toMap(ConvertJSON.fromMap(map)), ConvertBinaryJSON.toMap(binary));
+		
+		// Via streams
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ConvertBinaryJSON.fromObject(map, out);
+		assertArrayEquals(binary, out.toByteArray());
+		assertEquals(map, ConvertBinaryJSON.toMap(new ByteArrayInputStream(binary)));
+		
+		List<Object> list = Arrays.asList(1, "two", null);
+		assertEquals(list, ConvertBinaryJSON.toList(ConvertBinaryJSON.fromList(list)));
+		assertNull(ConvertBinaryJSON.toObject(ConvertBinaryJSON.fromObject(null)));
+	}
+	
+	@Test
+	public void genericConvertRoundTrip() {
+		GenericConvertMap<String, Object> map = new GenericConvertHashMap<String, Object>();
+		map.putAll(sampleMap());
+		
+		GenericConvertMap<String, Object> res = GenericConvertMap.build(ConvertBinaryJSON
+			.toMap(ConvertBinaryJSON.fromMap(map)));
+		assertEquals("hello", res.getString("str"));
+		assertEquals(123, res.getInt("int"));
+		assertEquals(10000000000L, res.getLong("long"));
+		assertEquals("value", res.getStringMap("map").get("nested"));
+		assertEquals("[1,\"two\",3.0]", ConvertJSON.fromObject(res.getObjectList("list")));
+	}
+	
+	@Test
+	public void textConversion() {
+		String json = "{ 'hello' : 'world', /* comment */ \"num\" : [1, 2] }";
+		byte[] binary = ConvertBinaryJSON.fromJSON(json);
+		assertEquals(ConvertJSON.toMap(json), ConvertBinaryJSON.toMap(binary));
+		assertEquals(ConvertJSON.toMap(json), ConvertJSON.toMap(ConvertBinaryJSON.toJSON(binary)));
+	}
+	
+	@Test
+	public void compactRepeatedKeys() {
+		List<Object> list = new ArrayList<Object>();
+		for (int a = 0; a < 100; ++a) {
+			list.add(sampleMap());
+		}
+		assertTrue(ConvertBinaryJSON.fromList(list).length < ConvertJSON.fromList(list).length());
+	}
+	
+	@Test(expected = ConvertJSON.InvalidFormatJSON.class)
+	public void invalidBinary() {
+		ConvertBinaryJSON.toMap(new byte[] { 1, 2, 3 });
+	}
+	
+}
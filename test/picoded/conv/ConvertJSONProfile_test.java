@@ -0,0 +1,142 @@
+package picoded.conv;
+
+// Junit includes
+import static org.junit.Assert.*;
+import org.junit.*;
+
+// Java libs used
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Jackson library used
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+///
+/// Test Case for picoded.conv.ConvertJSONProfile
+///
+public class ConvertJSONProfile_test {
+	
+	/// Simple custom class
+	public static class Point {
+		public int x = 0;
+		public int y = 0;
+	}
+	
+	///
+	/// Built in profiles
+	///
+	@Test
+	public void builtInProfiles() {
+		assertSame(ConvertJSONProfile.STRICT_FAST, ConvertJSONProfile.get("STRICT_FAST"));
+		assertSame(ConvertJSONProfile.LENIENT, ConvertJSONProfile.get("LENIENT"));
+		assertSame(ConvertJSONProfile.PRETTY, ConvertJSONProfile.get("PRETTY"));
+		assertTrue(ConvertJSONProfile.names().containsAll(
+			Arrays.asList("STRICT_FAST", "LENIENT", "PRETTY")));
+		
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("hello", "world");
+		map.put("list", Arrays.asList(1, 2));
+		
+		String strict = ConvertJSONProfile.STRICT_FAST.fromObject(map);
+		assertEquals(ConvertJSON.fromMap(map), strict);
+		assertEquals(map, ConvertJSONProfile.STRICT_FAST.toMap(strict));
+		assertEquals(map, ConvertJSONProfile.LENIENT.toObject(strict));
+		
+		String pretty = ConvertJSONProfile.PRETTY.fromObject(map);
+		assertTrue(pretty.contains("\n"));
+		assertEquals(map, ConvertJSONProfile.PRETTY.toMap(pretty));
+		assertArrayEquals(strict.getBytes(), ConvertJSONProfile.LENIENT.fromObjectAsBytes(map));
+	}
+	
+	///
+	/// Lenient vs strict parsing
+	///
+	@Test
+	public void lenientParsing() {
+		String lenient = "{ 'a' : 007 /* comment */ }";
+		assertEquals(7, ConvertJSONProfile.LENIENT.toMap(lenient).get("a"));
+		assertEquals(ConvertJSON.toMap(lenient), ConvertJSONProfile.LENIENT.toMap(lenient));
+	}
+	
+	@Test(expected = ConvertJSON.InvalidFormatJSON.class)
+	public void strictParsing() {
+		ConvertJSONProfile.STRICT_FAST.toMap("{ 'a' : 1 }");
+	}
+	
+	///
+	/// Cached readers, writers, and custom classes
+	///
+	@Test
+	public void cachedReadersWriters() {
+		ConvertJSONProfile profile = ConvertJSONProfile.STRICT_FAST;
+		assertSame(profile.reader(Point.class), profile.reader(Point.class));
+		assertSame(profile.writer(Point.class), profile.writer(Point.class));
+		
+		Point p = profile.toCustomClass("{\"x\":1,\"y\":2}", Point.class);
+		assertEquals(1, p.x);
+		assertEquals(2, p.y);
+		assertEquals(Arrays.asList(1, 2), profile.toList("[1,2]"));
+	}
+	
+	///
+	/// Custom profile registration
+	///
+	@Test
+	public void customProfile() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.configure(SerializationFeature.WRITE_SINGLE_ELEM_ARRAYS_UNWRAPPED, true);
+		ConvertJSONProfile profile = ConvertJSONProfile.register("ConvertJSONProfile_test", mapper);
+		assertSame(profile, ConvertJSONProfile.get("ConvertJSONProfile_test"));
+		assertEquals("ConvertJSONProfile_test", profile.name());
+		assertSame(mapper, profile.mapper());
+		
+		List<Object> single = new ArrayList<Object>();
+		single.add("one");
+		assertEquals("\"one\"", profile.fromObject(single));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void duplicateProfile() {
+		ConvertJSONProfile.register("LENIENT", new ObjectMapper());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownProfile() {
+		ConvertJSONProfile.get("ConvertJSONProfile_test_unknown");
+	}
+	
+	///
+	/// Concurrent reader usage
+	///
+	@Test
+	public void concurrentUsage() throws Exception {
+		final String json = "{\"x\":3,\"y\":4}";
+		List<Thread> threads = new ArrayList<Thread>();
+		final List<Throwable> errors = new ArrayList<Throwable>();
+		for (int t = 0; t < 4; ++t) {
+			Thread thread = new Thread(() -> {
+				try {
+					for (int a = 0; a < 1000; ++a) {
+						Point p = ConvertJSONProfile.STRICT_FAST.toCustomClass(json, Point.class);
+						assertEquals(7, p.x + p.y);
+					}
+				} catch (Throwable e) {
+					synchronized (errors) {
+						errors.add(e);
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(new ArrayList<Throwable>(), errors);
+	}
+	
+}
@@ -5,6 +5,11 @@ import static org.junit.Assert.*;
 import org.junit.*;
 
 // Java libs used
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 // Apache lib used
@@ -287,4 +292,153 @@ public class ConvertJSON_test {
 		assertArrayEquals(new Object[] { "one", null, "two" },
 			ConvertJSON.toObjectArray("[\"one\",null,\"two\"]"));
 	}
+	
+	//
+	// Streaming varients
+	//
+	
+	@Test
+	public void streamReadWrite() throws Exception {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("hello", "world");
+		map.put("list", Arrays.asList(1, 2, 3));
+		
+		StringWriter writer = new StringWriter();
+		ConvertJSON.fromObject(map, writer);
+		assertEquals(ConvertJSON.fromObject(map), writer.toString());
+		assertEquals(map, ConvertJSON.toMap(new StringReader(writer.toString())));
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ConvertJSON.fromObject(map, out);
+		assertEquals(map, ConvertJSON.toMap(new ByteArrayInputStream(out.toByteArray())));
+		
+		assertEquals(Arrays.asList(1, "two"), ConvertJSON.toList(new StringReader("[1, 'two']")));
+		assertEquals(Arrays.asList(1, "two"),
+			ConvertJSON.toObject(new ByteArrayInputStream("[1, \"two\"]".getBytes("UTF-8"))));
+	}
+	
+	@Test(expected = ConvertJSON.InvalidFormatJSON.class)
+	public void streamInvalidFormat() throws Exception {
+		ConvertJSON.toMap(new StringReader("{ invalid"));
+	}
+	
+	@Test
+	public void streamMapIterator() throws Exception {
+		StringBuilder sb = new StringBuilder("[");
+		for (int a = 0; a < 100; ++a) {
+			sb.append((a > 0) ? "," : "").append("{\"id\":").append(a).append("}");
+		}
+		sb.append("]");
+		
+		int count = 0;
+		try (ConvertJSON.JSONIterator<Map<String, Object>> iter = ConvertJSON
+			.toMapIterator(new StringReader(sb.toString()))) {
+			while (iter.hasNext()) {
+				assertEquals(count, iter.next().get("id"));
+				++count;
+			}
+		}
+		assertEquals(100, count);
+		
+		// Empty array
+		assertFalse(ConvertJSON.toMapIterator(new StringReader("[]")).hasNext());
+	}
+	
+	@Test(expected = ConvertJSON.InvalidFormatJSON.class)
+	public void streamMapIteratorInvalid() throws Exception {
+		Iterator<Map<String, Object>> iter = ConvertJSON.toMapIterator(new ByteArrayInputStream(
+			"[{\"a\":1}, 2]".getBytes("UTF-8")));
+		while (iter.hasNext()) {
+			iter.next();
+		}
+	}
+	
+	//
+	// Primitive array token stream parsing
+	//
+	
+	@Test
+	public void primitiveArrayLarge() {
+		int[] ints = new int[1000];
+		long[] longs = new long[1000];
+		double[] doubles = new double[1000];
+		float[] floats = new float[1000];
+		for (int a = 0; a < ints.length; ++a) {
+			ints[a] = a * 7 - 300;
+			longs[a] = a * 10000000000L;
+			doubles[a] = a / 8.0;
+			floats[a] = a / 4.0f;
+		}
+		assertArrayEquals(ints, ConvertJSON.toIntArray(ConvertJSON.fromArray(ints)));
+		assertArrayEquals(longs, ConvertJSON.toLongArray(ConvertJSON.fromArray(longs)));
+		assertArrayEquals(doubles, ConvertJSON.toDoubleArray(ConvertJSON.fromArray(doubles)), 0.0);
+		assertArrayEquals(floats, ConvertJSON.toFloatArray(ConvertJSON.fromArray(floats)), 0.0f);
+		
+		assertEquals(ConvertJSON.fromObject(floats), ConvertJSON.fromArray(floats));
+		assertEquals(ConvertJSON.fromObject(doubles), ConvertJSON.fromArray(doubles));
+	}
+	
+	@Test
+	public void primitiveArrayNarrowing() {
+		assertArrayEquals(new int[] { 1, -2, 3 }, ConvertJSON.toIntArray("[1.9, -2.5, 3]"));
+		assertArrayEquals(new long[] { 1, 10000000000L },
+			ConvertJSON.toLongArray("[1.2, 10000000000]"));
+		assertArrayEquals(new double[] { 1, 2.5 }, ConvertJSON.toDoubleArray("[1, 2.5]"), 0.0);
+		assertArrayEquals(new int[] { 5 }, ConvertJSON.toIntArray("[ /* comment */ 005 ]"));
+	}
+	
+	@Test(expected = ConvertJSON.InvalidFormatJSON.class)
+	public void primitiveArrayInvalidElement() {
+		ConvertJSON.toIntArray("[1, \"two\"]");
+	}
+	
+	@Test(expected = ConvertJSON.InvalidFormatJSON.class)
+	public void primitiveArrayNullElement() {
+		ConvertJSON.toDoubleArray("[1, null]");
+	}
+	
+	@Test(expected = ConvertJSON.InvalidFormatJSON.class)
+	public void primitiveArrayFromMap() {
+		ConvertJSON.toLongArray("{}");
+	}
+	
+	//
+	// UTF-8 byte varients
+	//
+	
+	@Test
+	public void utf8Bytes() throws Exception {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("hello", "w\u00f6rld \u4e16\u754c");
+		map.put("list", Arrays.asList(1, 2.5, null));
+		
+		byte[] utf8 = ConvertJSON.fromObjectAsBytes(map);
+		assertArrayEquals(ConvertJSON.fromObject(map).getBytes("UTF-8"), utf8);
+		assertEquals(map, ConvertJSON.toMap(utf8));
+		
+		// Within a larger buffer
+		byte[] padded = new byte[utf8.length + 10];
+		System.arraycopy(utf8, 0, padded, 5, utf8.length);
+		assertEquals(map, ConvertJSON.toMap(padded, 5, utf8.length));
+		assertEquals(map, ConvertJSON.toObject(padded, 5, utf8.length));
+		
+		// Heap, sliced, and direct byte buffers
+		ByteBuffer heap = ByteBuffer.wrap(padded, 5, utf8.length);
+		assertEquals(map, ConvertJSON.toMap(heap));
+		assertEquals(5, heap.position());
+		assertEquals(map, ConvertJSON.toMap(heap.slice()));
+		
+		ByteBuffer direct = ByteBuffer.allocateDirect(utf8.length);
+		direct.put(utf8).flip();
+		assertEquals(map, ConvertJSON.toObject(direct));
+		assertEquals(0, direct.position());
+		
+		byte[] list = "[1,'two']".getBytes("UTF-8");
+		assertEquals(Arrays.asList(1, "two"), ConvertJSON.toList(list, 0, list.length));
+	}
+	
+	@Test(expected = ConvertJSON.InvalidFormatJSON.class)
+	public void utf8BytesInvalid() throws Exception {
+		ConvertJSON.toMap("{ invalid".getBytes("UTF-8"));
+	}
 }
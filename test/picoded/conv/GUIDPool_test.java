@@ -0,0 +1,72 @@
+package picoded.conv;
+
+// Junit includes
+import static org.junit.Assert.*;
+import org.junit.*;
+
+// Java libs used
+import java.util.HashSet;
+
+///
+/// Test Case for picoded.conv.GUIDPool
+///
+public class GUIDPool_test {
+	
+	///
+	/// Pool usage without the background thread
+	///
+	@Test
+	public void manualFill() {
+		GUIDPool pool = new GUIDPool(100, 10, 50);
+		assertEquals(100, pool.fill());
+		assertEquals(100, pool.size());
+		assertEquals(2, pool.refillBatchCount());
+		
+		HashSet<String> unique = new HashSet<String>();
+		for (int a = 0; a < 150; ++a) {
+			String guid = pool.base58();
+			assertEquals(22, guid.length());
+			assertNotNull(GUID.fromBase58(guid));
+			unique.add(guid);
+		}
+		assertEquals(150, unique.size());
+		
+		assertEquals(100, pool.servedFromPoolCount());
+		assertEquals(50, pool.servedInlineCount());
+		assertEquals(100, pool.refilledCount());
+		
+		pool.resetCounters();
+		assertEquals(0, pool.servedFromPoolCount());
+	}
+	
+	///
+	/// Pool usage with the background thread
+	///
+	@Test
+	public void backgroundRefill() throws Exception {
+		GUIDPool pool = new GUIDPool(1000, 500).start();
+		try {
+			HashSet<String> unique = new HashSet<String>();
+			for (int a = 0; a < 5000; ++a) {
+				unique.add(pool.base58());
+			}
+			assertEquals(5000, unique.size());
+			assertEquals(5000, pool.servedFromPoolCount() + pool.servedInlineCount());
+			
+			// Wait for the background refill to kick in
+			for (int a = 0; a < 100 && pool.size() <= 500; ++a) {
+				Thread.sleep(10);
+			}
+			assertTrue(pool.size() > 500);
+			assertTrue(pool.refilledCount() > 0);
+		} finally {
+			pool.stop();
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidWatermark() {
+		new GUIDPool(10, 10);
+	}
+	
+}
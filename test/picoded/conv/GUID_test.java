@@ -5,6 +5,8 @@ import static org.junit.Assert.*;
 import org.junit.*;
 
 // Java libs used
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.UUID;
 
 ///
@@ -62,4 +64,37 @@ public class GUID_test {
 		}
 	}
 	
+	///
+	/// Batch generation
+	///
+	@Test
+	public void batchGeneration() {
+		long[] pairs = GUID.longPairs(new long[1000]);
+		HashSet<UUID> unique = new HashSet<UUID>();
+		for (int a = 0; a < pairs.length; a += 2) {
+			UUID u = GUID.fromLongPair(pairs[a], pairs[a + 1]);
+			assertEquals(4, u.version());
+			assertEquals(2, u.variant());
+			unique.add(u);
+		}
+		assertEquals(500, unique.size());
+		
+		String[] strArr = GUID.base58(600);
+		assertEquals(600, new HashSet<String>(Arrays.asList(strArr)).size());
+		for (String str : strArr) {
+			assertEquals(4, GUID.fromBase58(str).version());
+		}
+		
+		char[][] charArr = GUID.base58(new char[300][]);
+		for (char[] chars : charArr) {
+			assertEquals(22, chars.length);
+			assertEquals(4, GUID.fromBase58(new String(chars)).version());
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void batchOddLongPairs() {
+		GUID.longPairs(new long[3]);
+	}
+	
 }
@@ -0,0 +1,175 @@
+package picoded.conv;
+
+// Junit includes
+import static org.junit.Assert.*;
+import org.junit.*;
+
+// Java libs used
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+// Picoded libs used
+import picoded.struct.GenericConvertList;
+import picoded.struct.GenericConvertMap;
+
+///
+/// Test Case for picoded.conv.GenericConvertRegistry
+///
+public class GenericConvertRegistry_test {
+	
+	@Test(expected = IllegalAccessError.class)
+	public void invalidConstructor() throws Exception {
+		new GenericConvertRegistry();
+	}
+	
+	/// Sample inputs, of various source classes
+	protected List<Object> inputs() {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("a", 1);
+		return new ArrayList<Object>(Arrays.asList(null, "12", "-3.7", "abc", "", "true", "[1,2]",
+			"{\"a\":1}", 5, 7L, 2.5, 0.25f, new BigDecimal("12.5"), true, 'c', map, Arrays.asList(
+				"x", "y"), new String[] { "s" }, UUID.randomUUID()));
+	}
+	
+	///
+	/// Dispatched conversions, must match the GenericConvert.toX results
+	///
+	@Test
+	public void matchesGenericConvert() {
+		for (Object input : inputs()) {
+			String msg = String.valueOf(input);
+			assertEquals(msg, GenericConvert.toInt(input, 9), (int) GenericConvert.convert(input,
+				int.class, 9));
+			assertEquals(msg, GenericConvert.toLong(input, 9), (long) GenericConvert.convert(input,
+				Long.class, 9));
+			assertEquals(msg, GenericConvert.toDouble(input, 9), GenericConvert.convert(input,
+				double.class, 9), 0.0);
+			assertEquals(msg, GenericConvert.toFloat(input, 9), GenericConvert.convert(input,
+				float.class, 9), 0.0);
+			assertEquals(msg, GenericConvert.toBoolean(input, false), GenericConvert.convert(input,
+				boolean.class, false));
+			assertEquals(msg, GenericConvert.toShort(input, (short) 9), (short) GenericConvert
+				.convert(input, short.class, 9));
+			assertEquals(msg, GenericConvert.toNumber(input, 9), GenericConvert.convert(input,
+				Number.class, 9));
+			assertEquals(msg, GenericConvert.toString(input, "fb"), GenericConvert.convert(input,
+				String.class, "fb"));
+			assertEquals(msg, GenericConvert.toStringMap(input, null), GenericConvert.convert(input,
+				Map.class));
+			assertEquals(msg, GenericConvert.toList(input, null), GenericConvert.convert(input,
+				List.class));
+			assertArrayEquals(msg, GenericConvert.toStringArray(input, null), GenericConvert
+				.convert(input, String[].class));
+			assertEquals(msg, GenericConvert.toUUID(input, null), GenericConvert.convert(input,
+				UUID.class));
+			assertEquals(msg, GenericConvert.toGenericConvertStringMap(input, null), GenericConvert
+				.convert(input, GenericConvertMap.class));
+			assertEquals(msg, GenericConvert.toGenericConvertList(input, null), GenericConvert
+				.convert(input, GenericConvertList.class));
+		}
+	}
+	
+	///
+	/// Pair hit counters
+	///
+	@Test
+	public void hitCounts() {
+		String key = "java.lang.Short -> java.lang.Integer";
+		Long before = GenericConvertRegistry.hitCounts().get(key);
+		for (int i = 0; i < 10; ++i) {
+			Integer converted = GenericConvertRegistry.convert((short) i, Integer.class);
+			assertEquals(Integer.valueOf(i), converted);
+		}
+		long after = GenericConvertRegistry.hitCounts().get(key);
+		assertEquals((before == null ? 0 : before) + 10, after);
+	}
+	
+	/// Custom user classes, for registration
+	public static interface Named {
+		String name();
+	}
+	
+	public static class Person implements Named {
+		public int age = 1;
+		
+		public String name() {
+			return "person";
+		}
+	}
+	
+	public static class Employee extends Person {
+	}
+	
+	///
+	/// User registered converters, including for sub classes and interfaces
+	///
+	@Test
+	public void registration() {
+		assertFalse(GenericConvertRegistry.isSupported(Named.class));
+		
+		// Resolved before registration, must be resolved again after it
+		assertTrue(GenericConvertRegistry.convert(new Employee(), String.class).startsWith("{"));
+		
+		GenericConvertRegistry.register(Named.class, String.class, (i, f) -> ((Named) i).name());
+		assertEquals("person", GenericConvertRegistry.convert(new Employee(), String.class));
+		assertEquals("fallback", GenericConvertRegistry.convert(null, String.class, "fallback"));
+		
+		GenericConvertRegistry.register(String.class, Named.class, (i, f) -> () -> (String) i);
+		assertTrue(GenericConvertRegistry.isSupported(Named.class));
+		assertEquals("bob", GenericConvertRegistry.convert("bob", Named.class).name());
+		
+		// Closest class wins
+		GenericConvertRegistry.register(Employee.class, String.class, (i, f) -> "employee");
+		assertEquals("employee", GenericConvertRegistry.convert(new Employee(), String.class));
+		assertEquals("person", GenericConvertRegistry.convert(new Person(), String.class));
+	}
+	
+	/// Classes only used by the unregisteredSource test
+	public static class Money {
+		public long cents = 150;
+	}
+	
+	public static class Cents {
+		public final long value;
+		
+		public Cents(long inValue) {
+			value = inValue;
+		}
+	}
+	
+	///
+	/// Registered targets, for null inputs, or sources without a converter, gives the fallback
+	///
+	@Test
+	public void unregisteredSource() {
+		GenericConvertRegistry.register(Money.class, Cents.class, (i, f) -> new Cents(
+			((Money) i).cents));
+		assertTrue(GenericConvertRegistry.isSupported(Cents.class));
+		
+		Cents fallback = new Cents(-1);
+		BiFunction<Object, Object, Cents> function = GenericConvert.getBiFunction(Cents.class);
+		assertEquals(150, function.apply(new Money(), fallback).value);
+		assertSame(fallback, function.apply(null, fallback));
+		assertSame(fallback, function.apply("abc", fallback));
+		assertSame(fallback, function.apply(123, fallback));
+		assertNull(function.apply("abc", null));
+		assertSame(fallback, GenericConvertRegistry.convert(new Person(), Cents.class, fallback));
+	}
+	
+	@Test(expected = RuntimeException.class)
+	public void unsupportedTarget() {
+		GenericConvertRegistry.convert("abc", StringBuilder.class);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidRegistration() {
+		GenericConvertRegistry.register(String.class, Integer.class, null);
+	}
+	
+}
@@ -25,6 +25,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
 import static picoded.conv.GenericConvert.*;
 
 public class GenericConvert_test {
@@ -581,17 +582,18 @@ public class GenericConvert_test {
 		assertEquals(key, splitObjectPath("abc[.KEY [[key1.KEY[]", list));
 	}
 	
-	// @Test(expected = RuntimeException.class)
-	// public void getBiFunction_noisySelfTest() {
-	// 	assertNotNull(getBiFunction_noisy(getClass()));
-	// }
-	// 
-	// @Test
-	// public void getBiFunction_noisyTest() {
-	// 	biFunctionMap = null;
-	// 	assertNotNull(getBiFunction_noisy(String.class));
-	// 	assertNotNull(getBiFunction_noisy(String[].class));
-	// }
+	@Test(expected = RuntimeException.class)
+	public void getBiFunction_noisySelfTest() {
+		assertNotNull(getBiFunction_noisy(getClass()));
+	}
+	
+	@Test
+	public void getBiFunction_noisyTest() {
+		assertNotNull(getBiFunction_noisy(String.class));
+		assertNotNull(getBiFunction_noisy(String[].class));
+		assertEquals("1", getBiFunction_noisy(String.class).apply(1, null));
+		assertEquals(Integer.valueOf(2), getBiFunction_noisy(int.class).apply("x", "2"));
+	}
 	
 	@Test
 	public void toStringArrayForceToStringTest() {
@@ -659,4 +661,60 @@ public class GenericConvert_test {
 		assertEquals(defMap, toGenericConvertStringMap(ConvertJSON.fromMap(defMap), "default"));
 	}
 	
+	@Test
+	public void resolvedListOrMapMemoTest() {
+		// New string instances, so they are not memorized by other tests
+		String jsonMap = new String("{ \"a\" : { \"b\" : [ 1, 2 ] } }");
+		String jsonList = new String(" [ { \"c\" : 3 } ]");
+		String invalid = new String("not json");
+		
+		long hits = resolvedJSONCacheStats().hitCount();
+		long misses = resolvedJSONCacheStats().missCount();
+		
+		Object resolvedMap = resolvedListOrMap(jsonMap);
+		assertEquals(ConvertJSON.toMap(jsonMap), resolvedMap);
+		assertNotSame(resolvedMap, resolvedListOrMap(jsonMap));
+		assertEquals(resolvedMap, resolvedListOrMap(jsonMap));
+		assertEquals(ConvertJSON.toList(jsonList), resolvedListOrMap(jsonList));
+		assertNull(resolvedListOrMap(invalid));
+		assertNull(resolvedListOrMap(invalid));
+		
+		// Equal, but different string instance
+		assertEquals(resolvedMap, resolvedListOrMap(new String(jsonMap)));
+		
+		assertEquals(hits + 3, resolvedJSONCacheStats().hitCount());
+		assertEquals(misses + 4, resolvedJSONCacheStats().missCount());
+		
+		// Fetches over JSON strings
+		assertEquals(ConvertJSON.toMap("{ \"b\" : [ 1, 2 ] }"), NestedObject.fetchObject(jsonMap,
+			"a"));
+		Object listItem = NestedObject.fetchObject(jsonList, "0");
+		assertEquals(3, NestedObject.fetchNestedObject(listItem, "c"));
+		assertEquals(hits + 5, resolvedJSONCacheStats().hitCount());
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void resolvedListOrMapMutationTest() {
+		String json = new String("{ \"a\" : { \"b\" : [ 1, 2 ] }, \"c\" : [ { \"d\" : 4 } ] }");
+		
+		// Modifying fetched values, must not affect later fetches
+		Map<String, Object> a = (Map<String, Object>) NestedObject.fetchObject(json, "a");
+		a.put("b", 999);
+		assertEquals(ConvertJSON.toMap("{ \"b\" : [ 1, 2 ] }"), NestedObject.fetchObject(json,
+			"a"));
+		
+		List<Object> c = (List<Object>) NestedObject.fetchObject(json, "c");
+		((Map<String, Object>) c.get(0)).put("d", 999);
+		c.clear();
+		c = (List<Object>) NestedObject.fetchObject(json, "c");
+		assertEquals(4, NestedObject.fetchNestedObject(c, "[0].d"));
+		
+		// Including the fully resolved map
+		Map<String, Object> resolved = (Map<String, Object>) resolvedListOrMap(json);
+		resolved.clear();
+		assertEquals(ConvertJSON.toMap(json), resolvedListOrMap(json));
+		assertEquals(ConvertJSON.toMap(json), toStringMap(json));
+	}
+	
 }
@@ -0,0 +1,155 @@
+package picoded.conv;
+
+// Junit includes
+import static org.junit.Assert.*;
+import org.junit.*;
+
+// Java libs used
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+///
+/// Test Case for picoded.conv.JSONDiff
+///
+public class JSONDiff_test {
+	
+	/// Invalid constructor test
+	@Test(expected = IllegalAccessError.class)
+	public void invalidConstructor() throws Exception {
+		new JSONDiff();
+	}
+	
+	/// Source and target documents
+	protected String sourceJSON = "{ \"name\" : \"doc\", \"count\" : 1, \"removed\" : true, "
+		+ "\"nested\" : { \"a/b\" : 1, \"c~d\" : [1, 2, 3], \"deep\" : { \"x\" : \"y\" } }, "
+		+ "\"list\" : [ { \"id\" : 1 }, { \"id\" : 2 } ], \"type\" : [1] }";
+	protected String targetJSON = "{ \"name\" : \"doc\", \"count\" : 2, \"added\" : null, "
+		+ "\"nested\" : { \"a/b\" : 1, \"c~d\" : [1, 5], "
+		+ "\"deep\" : { \"x\" : \"z\", \"w\" : 1 } }, "
+		+ "\"list\" : [ { \"id\" : 1 }, { \"id\" : 2, \"v\" : [] }, { \"id\" : 3 }, 4 ], "
+		+ "\"type\" : { \"is\" : \"map\" } }";
+	
+	///
+	/// RFC 6902 diff, and apply round trip
+	///
+	@Test
+	public void patchRoundTrip() {
+		Map<String, Object> source = ConvertJSON.toMap(sourceJSON);
+		Map<String, Object> target = ConvertJSON.toMap(targetJSON);
+		
+		List<Map<String, Object>> patch = JSONDiff.diff(source, target);
+		assertTrue(patch.size() < 15);
+		
+		// Pointer escaping
+		assertTrue(ConvertJSON.fromList(patch).contains("/nested/c~0d/1"));
+		
+		// Patch via its JSON form, against the source
+		Object res = JSONDiff.applyPatch(source, ConvertJSON.toList(ConvertJSON.fromList(patch)));
+		assertSame(source, res);
+		assertEquals(target, source);
+		assertEquals(new ArrayList<Object>(), JSONDiff.diff(source, target));
+	}
+	
+	///
+	/// Patch values must not be shared with the tree
+	///
+	@Test
+	public void patchValuesCopied() {
+		Map<String, Object> source = new HashMap<String, Object>();
+		Map<String, Object> target = ConvertJSON.toMap("{\"a\":{\"b\":1}}");
+		List<Map<String, Object>> patch = JSONDiff.diff(source, target);
+		JSONDiff.applyPatch(source, patch);
+		
+		assertEquals(target, source);
+		assertNotSame(target.get("a"), source.get("a"));
+	}
+	
+	///
+	/// All the RFC 6902 operations
+	///
+	@Test
+	public void patchOperations() {
+		Object doc = ConvertJSON.toMap("{\"a\":{\"b\":[1,2]},\"c\":\"d\"}");
+		String patch = "[ { \"op\" : \"test\", \"path\" : \"/c\", \"value\" : \"d\" }, "
+			+ "{ \"op\" : \"add\", \"path\" : \"/a/b/0\", \"value\" : 0 }, "
+			+ "{ \"op\" : \"copy\", \"from\" : \"/a/b\", \"path\" : \"/e\" }, "
+			+ "{ \"op\" : \"move\", \"from\" : \"/c\", \"path\" : \"/a/c\" }, "
+			+ "{ \"op\" : \"remove\", \"path\" : \"/a/b/1\" }, "
+			+ "{ \"op\" : \"replace\", \"path\" : \"/e/2\", \"value\" : 3 } ]";
+		doc = JSONDiff.applyPatch(doc, ConvertJSON.toList(patch));
+		assertEquals(ConvertJSON.toMap("{\"a\":{\"b\":[0,2],\"c\":\"d\"},\"e\":[0,1,3]}"), doc);
+		
+		// Root replacement
+		assertEquals(Arrays.asList(1),
+			JSONDiff.applyPatch(doc, ConvertJSON.toList("[{\"op\":\"replace\",\"path\":\"\","
+				+ "\"value\":[1]}]")));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void patchTestFailure() {
+		JSONDiff.applyPatch(ConvertJSON.toMap("{\"a\":1}"),
+			ConvertJSON.toList("[{\"op\":\"test\",\"path\":\"/a\",\"value\":2}]"));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void patchMissingPath() {
+		JSONDiff.applyPatch(ConvertJSON.toMap("{\"a\":1}"),
+			ConvertJSON.toList("[{\"op\":\"remove\",\"path\":\"/b\"}]"));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void patchInvalidIndex() {
+		JSONDiff.applyPatch(ConvertJSON.toMap("{\"a\":[1]}"),
+			ConvertJSON.toList("[{\"op\":\"add\",\"path\":\"/a/2\",\"value\":1}]"));
+	}
+	
+	///
+	/// RFC 7396 merge patch
+	///
+	@Test
+	public void mergePatchRoundTrip() {
+		Map<String, Object> source = ConvertJSON.toMap(sourceJSON);
+		Map<String, Object> target = ConvertJSON.toMap(targetJSON);
+		
+		// Null values cannot be set with merge patch
+		target.remove("added");
+		
+		Object patch = JSONDiff.mergePatch(source, target);
+		assertFalse(((Map<?, ?>) patch).containsKey("name"));
+		assertSame(source, JSONDiff.applyMergePatch(source, patch));
+		assertEquals(target, source);
+		assertEquals(new HashMap<String, Object>(), JSONDiff.mergePatch(source, target));
+	}
+	
+	///
+	/// RFC 7396 examples
+	///
+	@Test
+	public void mergePatchExamples() {
+		assertEquals(ConvertJSON.toMap("{\"a\":\"z\",\"c\":{\"d\":\"e\"}}"), JSONDiff
+			.applyMergePatch(ConvertJSON.toMap("{\"a\":\"b\",\"c\":{\"d\":\"e\",\"f\":\"g\"}}"),
+				ConvertJSON.toMap("{\"a\":\"z\",\"c\":{\"f\":null}}")));
+		assertEquals(Arrays.asList(1L), JSONDiff.applyMergePatch(ConvertJSON.toMap("{}"),
+			Arrays.asList(1L)));
+		assertEquals(ConvertJSON.toMap("{\"a\":{\"b\":1}}"), JSONDiff.applyMergePatch("str",
+			ConvertJSON.toMap("{\"a\":{\"b\":1}}")));
+	}
+	
+	///
+	/// Pointer parsing, and value equality
+	///
+	@Test
+	public void utilities() {
+		assertEquals(Arrays.asList("a/b", "c~d", ""), JSONDiff.parsePointer("/a~1b/c~0d/"));
+		assertEquals("/a~1b/c~0d/", JSONDiff.toPointer(Arrays.asList("a/b", "c~d", "")));
+		assertEquals(new ArrayList<String>(), JSONDiff.parsePointer(""));
+		
+		assertTrue(JSONDiff.valueEquals(1, 1L));
+		assertFalse(JSONDiff.valueEquals(1, 1.5));
+		assertTrue(JSONDiff.valueEquals(Arrays.asList(1, "a"), Arrays.asList(1L, "a")));
+	}
+	
+}
@@ -0,0 +1,140 @@
+package picoded.conv;
+
+// Junit includes
+import static org.junit.Assert.*;
+import org.junit.*;
+
+// Java libs used
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+///
+/// Test Case for picoded.conv.JSONShapeWriter
+///
+public class JSONShapeWriter_test {
+	
+	/// Builds a response map of a stable shape
+	protected Map<String, Object> response(int id) {
+		Map<String, Object> meta = new LinkedHashMap<String, Object>();
+		meta.put("page", id);
+		meta.put("total", (long) id * 1000000000L);
+		
+		Map<String, Object> ret = new LinkedHashMap<String, Object>();
+		ret.put("id", "item-" + id + "\"quoted\"\n");
+		ret.put("score", id / 3.0);
+		ret.put("valid", id % 2 == 0);
+		ret.put("tags", Arrays.asList("a", id));
+		ret.put("meta", meta);
+		ret.put("note", null);
+		ret.put("世界 key", id);
+		return ret;
+	}
+	
+	///
+	/// Output must match the generic ConvertJSON output, with later maps using the shape
+	///
+	@Test
+	public void matchesGenericOutput() throws Exception {
+		JSONShapeWriter writer = new JSONShapeWriter();
+		for (int i = 0; i < 50; ++i) {
+			Map<String, Object> map = response(i);
+			if (i == 5) {
+				map.put("note", "not null");
+			}
+			assertEquals(ConvertJSON.fromMap(map), writer.fromMap(map));
+		}
+		assertEquals(1, writer.shapeMissCount());
+		assertEquals(49, writer.shapeHitCount());
+		
+		// Writer, and OutputStream varients
+		Map<String, Object> map = response(7);
+		StringWriter sw = new StringWriter();
+		writer.fromMap(map, sw);
+		assertEquals(ConvertJSON.fromMap(map), sw.toString());
+		
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		writer.fromMap(map, bos);
+		assertArrayEquals(ConvertJSON.fromObjectAsBytes(map), bos.toByteArray());
+		assertEquals(51, writer.shapeHitCount());
+	}
+	
+	///
+	/// Pretty printing profile, must indent the shape output the same way
+	///
+	@Test
+	public void prettyProfile() throws Exception {
+		JSONShapeWriter writer = new JSONShapeWriter(ConvertJSONProfile.PRETTY,
+			JSONShapeWriter.DEFAULT_RELEARN_THRESHOLD);
+		for (int i = 0; i < 5; ++i) {
+			Map<String, Object> map = response(i);
+			assertEquals(ConvertJSONProfile.PRETTY.fromObject(map), writer.fromMap(map));
+			
+			StringWriter sw = new StringWriter();
+			writer.fromMap(map, sw);
+			assertEquals(ConvertJSONProfile.PRETTY.fromObject(map), sw.toString());
+		}
+		assertEquals(9, writer.shapeHitCount());
+		assertTrue(writer.fromMap(response(1)).contains("\n"));
+	}
+	
+	///
+	/// Shape changes falls back to the generic path, and is relearnt
+	///
+	@Test
+	public void shapeChanges() {
+		JSONShapeWriter writer = new JSONShapeWriter(ConvertJSONProfile.LENIENT, 3);
+		writer.fromMap(response(1));
+		
+		// Different value type, and different keys
+		List<Map<String, Object>> changed = new ArrayList<Map<String, Object>>();
+		Map<String, Object> map = response(2);
+		map.put("score", "high");
+		changed.add(map);
+		map = response(3);
+		GenericConvert.toStringMap(map.get("meta")).put("extra", true);
+		changed.add(map);
+		map = response(4);
+		map.remove("valid");
+		changed.add(map);
+		for (Map<String, Object> c : changed) {
+			assertEquals(ConvertJSON.fromMap(c), writer.fromMap(c));
+		}
+		assertEquals(0, writer.shapeHitCount());
+		assertEquals(4, writer.shapeMissCount());
+		
+		// Relearnt from the third mismatch
+		map = response(5);
+		map.remove("valid");
+		assertEquals(ConvertJSON.fromMap(map), writer.fromMap(map));
+		assertEquals(1, writer.shapeHitCount());
+	}
+	
+	///
+	/// Null, empty, and non string keyed maps
+	///
+	@Test
+	public void edgeCases() {
+		JSONShapeWriter writer = new JSONShapeWriter();
+		assertEquals("null", writer.fromMap(null));
+		assertEquals("{}", writer.fromMap(new HashMap<String, Object>()));
+		assertEquals("{}", writer.fromMap(new HashMap<String, Object>()));
+		assertEquals(1, writer.shapeHitCount());
+		
+		Map<Object, Object> rawMap = new HashMap<Object, Object>();
+		rawMap.put(1, "one");
+		Map<String, Object> intKeys = GenericConvert.toStringMap(rawMap);
+		assertEquals(ConvertJSON.fromMap(intKeys), new JSONShapeWriter().fromMap(intKeys));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidThreshold() {
+		new JSONShapeWriter(ConvertJSONProfile.LENIENT, 0);
+	}
+	
+}
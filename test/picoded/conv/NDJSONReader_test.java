@@ -0,0 +1,215 @@
+package picoded.conv;
+
+// Junit includes
+import static org.junit.Assert.*;
+import org.junit.*;
+
+// Java libs used
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+// Picoded libs used
+import picoded.struct.GenericConvertMap;
+
+///
+/// Test Case for picoded.conv.NDJSONReader, and picoded.conv.NDJSONWriter
+///
+public class NDJSONReader_test {
+	
+	/// The records written, and expected to be read
+	protected List<Map<String, Object>> records = null;
+	
+	/// The NDJSON bytes of the records
+	protected byte[] ndjson = null;
+	
+	@Before
+	public void setUp() throws Exception {
+		records = new ArrayList<Map<String, Object>>();
+		for (int i = 0; i < 250; ++i) {
+			Map<String, Object> record = new HashMap<String, Object>();
+			record.put("id", i);
+			record.put("name", "line\n" + i + " 世界");
+			records.add(record);
+		}
+		
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (NDJSONWriter writer = new NDJSONWriter(bos)) {
+			writer.write(records.get(0));
+			writer.writeAll(records.subList(1, records.size()));
+			assertEquals(records.size(), writer.count());
+		}
+		ndjson = bos.toByteArray();
+	}
+	
+	/// Opens the NDJSON bytes, with an optional blank line in between
+	protected InputStream input(boolean blankLine) throws Exception {
+		String str = new String(ndjson, "UTF-8");
+		if (blankLine) {
+			str = str.replaceFirst("\n", "\n  \n\n");
+		}
+		return new ByteArrayInputStream(str.getBytes("UTF-8"));
+	}
+	
+	///
+	/// Written format, a compact object per line
+	///
+	@Test
+	public void writerFormat() throws Exception {
+		String[] lines = new String(ndjson, "UTF-8").split("\n");
+		assertEquals(records.size(), lines.length);
+		for (int i = 0; i < lines.length; ++i) {
+			assertEquals(ConvertJSON.fromMap(records.get(i)), lines[i]);
+		}
+	}
+	
+	///
+	/// Sequential reading, with the reused parser
+	///
+	@Test
+	public void sequentialRead() throws Exception {
+		try (NDJSONReader reader = new NDJSONReader(input(true))) {
+			List<Map<String, Object>> read = new ArrayList<Map<String, Object>>();
+			while (reader.hasNext()) {
+				GenericConvertMap<String, Object> record = reader.next();
+				assertEquals(read.size(), record.getInt("id"));
+				read.add(record);
+			}
+			assertEquals(records, read);
+			assertFalse(reader.hasNext());
+		}
+	}
+	
+	///
+	/// Parallel reading, which must preserve the line order
+	///
+	@Test
+	public void parallelRead() throws Exception {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try (NDJSONReader reader = new NDJSONReader(input(true), ConvertJSONProfile.LENIENT,
+			pool, 7)) {
+			assertEquals(records, reader.stream().collect(Collectors.toList()));
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	@Test(expected = NoSuchElementException.class)
+	public void readPastEnd() throws Exception {
+		try (NDJSONReader reader = new NDJSONReader(new ByteArrayInputStream(new byte[0]))) {
+			reader.next();
+		}
+	}
+	
+	@Test(expected = ConvertJSON.InvalidFormatJSON.class)
+	public void sequentialNonObject() throws Exception {
+		try (NDJSONReader reader = new NDJSONReader(input("{\"a\":1}\n[1, 2]\n"))) {
+			assertEquals(1, reader.next().getInt("a"));
+			reader.next();
+		}
+	}
+	
+	@Test(expected = ConvertJSON.InvalidFormatJSON.class)
+	public void parallelInvalidLine() throws Exception {
+		try (NDJSONReader reader = new NDJSONReader(input("{\"a\":1}\n{\"a\":\n"),
+			ConvertJSONProfile.LENIENT, ForkJoinPool.commonPool(), 1)) {
+			assertEquals(1, reader.next().getInt("a"));
+			reader.next();
+		}
+	}
+	
+	/// Reads all the records, in either sequential, or parallel mode
+	protected List<Map<String, Object>> readAll(String str, boolean parallel) throws Exception {
+		NDJSONReader reader = parallel ? new NDJSONReader(input(str), ConvertJSONProfile.LENIENT,
+			ForkJoinPool.commonPool(), 2) : new NDJSONReader(input(str));
+		try {
+			return new ArrayList<Map<String, Object>>(reader.stream().collect(Collectors.toList()));
+		} finally {
+			reader.close();
+		}
+	}
+	
+	///
+	/// Both modes must agree on the same input, with a record per line
+	///
+	@Test
+	public void modesAgree() throws Exception {
+		String valid = "{\"a\":1}\r\n\n { \"b\" : [ 2 ] } \n{}";
+		assertEquals(readAll(valid, false), readAll(valid, true));
+		assertEquals(3, readAll(valid, true).size());
+		
+		String[] invalid = new String[] { "{\"a\":1} {\"b\":2}\n", "{\"a\":1}{\"b\":2}",
+			"{\"a\":\n1}\n", "{\"a\":1}\n{\"b\":2} 3\n", "{\"a\":1}\n\"str\"" };
+		for (String str : invalid) {
+			for (boolean parallel : new boolean[] { false, true }) {
+				try {
+					readAll(str, parallel);
+					fail("Expected an InvalidFormatJSON for : " + str + ", parallel : " + parallel);
+				} catch (ConvertJSON.InvalidFormatJSON e) {
+					// Expected
+				}
+			}
+		}
+	}
+	
+	/// Stream which tracks if it is closed
+	protected static class CloseTracking extends ByteArrayOutputStream {
+		protected boolean closed = false;
+		
+		@Override
+		public void close() {
+			closed = true;
+		}
+	}
+	
+	///
+	/// Closing the reader / writer, closes the underlying stream
+	///
+	@Test
+	public void closesStreams() throws Exception {
+		CloseTracking out = new CloseTracking();
+		new NDJSONWriter(out).close();
+		assertTrue(out.closed);
+		
+		boolean[] closed = new boolean[2];
+		new NDJSONReader(new ByteArrayInputStream(ndjson) {
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+		}).close();
+		new NDJSONReader(new ByteArrayInputStream(ndjson) {
+			@Override
+			public void close() {
+				closed[1] = true;
+			}
+		}, ConvertJSONProfile.LENIENT, ForkJoinPool.commonPool(), 10).close();
+		assertTrue(closed[0]);
+		assertTrue(closed[1]);
+	}
+	
+	///
+	/// Pretty printing profiles, must still write a compact record per line
+	///
+	@Test
+	public void writerPrettyProfile() throws Exception {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (NDJSONWriter writer = new NDJSONWriter(bos, ConvertJSONProfile.PRETTY)) {
+			writer.writeAll(records);
+		}
+		assertArrayEquals(ndjson, bos.toByteArray());
+	}
+	
+	/// Opens the string as an InputStream
+	protected InputStream input(String str) throws Exception {
+		return new ByteArrayInputStream(str.getBytes("UTF-8"));
+	}
+	
+}
@@ -0,0 +1,169 @@
+package picoded.conv;
+
+// Junit includes
+import static org.junit.Assert.*;
+import org.junit.*;
+
+// Java libs used
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+///
+/// Test Case for picoded.conv.NestedPath
+///
+public class NestedPath_test {
+	
+	protected String json = "{ \"hello\" : \"world\", \"num\" : 1, \"nil\" : null, "
+		+ "\"full.key\" : \"fullValue\", \"nested\" : { \"arr\" : [ 'zero', { \"k\" : 'v' }, "
+		+ "[ 10, 20 ] ], \"inner\" : { \"deep\" : 3.5 }, \"skip\" : { \"a\" : [1, 2, 3] } }, "
+		+ "\"list\" : [ { \"name\" : \"first\" }, { \"name\" : \"second\" } ] }";
+	
+	protected Map<String, Object> map = null;
+	
+	/// Paths to test, including invalid / missing ones
+	protected String[] paths = new String[] { "hello", "num", "nil", "missing", "full.key",
+		"nested", "nested.arr", "nested.arr[0]", "nested.arr[1].k", "nested.arr[1]['k']",
+		"nested.arr[2][1]", "nested.arr[3]", "nested.inner.deep", " .nested.inner", "list[1].name",
+		"list[0]", "list.1.name", "list[5].name", "hello.world", "nested.missing.deep", "",
+		"nested.arr[-1]", "[list][0]" };
+	
+	@Before
+	public void setUp() {
+		map = ConvertJSON.toMap(json);
+	}
+	
+	///
+	/// The original (uncompiled) fetchNestedObject implementation, which recursively parses the
+	/// key at each nested level. Used as the reference, that NestedPath must match.
+	///
+	protected static Object fetchUncompiled(Object base, String key, Object fallback) {
+		// Invalid base -> null, or not ( map OR list ) -> fallback
+		if (base == null || !((base instanceof Map) || (base instanceof List))) {
+			return fallback;
+		}
+		
+		// Full key fetching found -> if found it is returned
+		Object ret = NestedObject.fetchObject(base, key, null);
+		if (ret != null) {
+			return ret;
+		}
+		if (key == null || key.length() <= 0) {
+			return fallback;
+		}
+		
+		// Trim off useless spaces, and starting ".dots" and try again
+		int keyLen = key.length();
+		key = key.trim();
+		if (key.length() != keyLen) {
+			return fetchUncompiled(base, key, fallback);
+		}
+		if (key.startsWith(".")) {
+			return fetchUncompiled(base, key.substring(1), fallback);
+		}
+		
+		// Array bracket fetching
+		if (key.startsWith("[")) {
+			int rightBracketIndex = key.indexOf(']', 1);
+			if (rightBracketIndex <= 0) {
+				throw new RuntimeException("Missing closing ']' right bracket for key : " + key);
+			}
+			Object subObject = NestedObject.fetchObject(base, key.substring(1, rightBracketIndex)
+				.trim(), null);
+			if (subObject == null) {
+				return fallback;
+			}
+			String rightKey = key.substring(rightBracketIndex + 1).trim();
+			if (rightKey.length() <= 0) {
+				return subObject;
+			}
+			return fetchUncompiled(subObject, rightKey, fallback);
+		}
+		
+		// Fetch one nested level, on the "left.right" or "left[right]" split
+		int dotIndex = key.indexOf('.');
+		int leftBracketIndex = key.indexOf('[');
+		if (dotIndex >= 0 && (leftBracketIndex < 0 || dotIndex <= leftBracketIndex)) {
+			Object left = NestedObject.fetchObject(base, key.substring(0, dotIndex), null);
+			return fetchUncompiled(left, key.substring(dotIndex + 1), fallback);
+		} else if (leftBracketIndex > 0) {
+			Object left = NestedObject.fetchObject(base, key.substring(0, leftBracketIndex), null);
+			return fetchUncompiled(left, key.substring(leftBracketIndex), fallback);
+		}
+		return fallback;
+	}
+	
+	///
+	/// Map / List evaluation, must match fetchNestedObject
+	///
+	@Test
+	public void matchesFetchNestedObject() {
+		for (String path : paths) {
+			NestedPath compiled = new NestedPath(path);
+			Object expected = fetchUncompiled(map, path, "fallback");
+			assertEquals(path, expected, compiled.fetch(map, "fallback"));
+			assertEquals(path, expected, NestedObject.fetchNestedObject(map, path, "fallback"));
+			assertEquals(path, fetchUncompiled(map, path, null), compiled
+				.fetch(map));
+		}
+		assertEquals("fallback", new NestedPath("hello").fetch("not a map", "fallback"));
+		assertNull(new NestedPath("hello").fetch(null));
+		
+		// Nested JSON string, and array values
+		map.put("jsonStr", "{ \"inner\" : [ 1, 2 ] }");
+		map.put("array", new Object[] { "a", "b" });
+		for (String path : new String[] { "jsonStr.inner[1]", "jsonStr.inner", "array[1]" }) {
+			assertEquals(path, fetchUncompiled(map, path, "fallback"),
+				NestedObject.fetchNestedObject(map, path, "fallback"));
+		}
+	}
+	
+	///
+	/// Shared compiled path cache
+	///
+	@Test
+	public void compileCache() {
+		NestedPath compiled = NestedPath.compile("nested.inner.deep");
+		assertSame(compiled, NestedPath.compile("nested.inner.deep"));
+		assertEquals(3.5, compiled.fetch(map));
+		assertNotSame(NestedPath.compile("hello"), NestedPath.compile("hello "));
+		assertNull(NestedPath.compile(null).fetch(map));
+	}
+	
+	///
+	/// Streaming JSON evaluation, must match the parsed map evaluation
+	///
+	@Test
+	public void streamingJSON() throws Exception {
+		for (String path : paths) {
+			NestedPath compiled = new NestedPath(path);
+			Object expected = compiled.fetch(map, "fallback");
+			assertEquals(path, expected, compiled.fetchJSON(json, "fallback"));
+			assertEquals(path, expected, compiled.fetchJSON(new StringReader(json), "fallback"));
+			assertEquals(path, expected, compiled.fetchJSON(new ByteArrayInputStream(json
+				.getBytes("UTF-8")), "fallback"));
+		}
+		assertNull(new NestedPath("hello").fetchJSON("[1, 2]"));
+		assertEquals(2, new NestedPath("[1]").fetchJSON("[1, 2]"));
+	}
+	
+	///
+	/// Parsing stops once the value is found
+	///
+	@Test
+	public void streamingStopsEarly() {
+		assertEquals("v", new NestedPath("a[1].b").fetchJSON("{\"a\":[{},{\"b\":\"v\"}, <invalid"));
+	}
+	
+	@Test(expected = ConvertJSON.InvalidFormatJSON.class)
+	public void streamingInvalidJSON() {
+		new NestedPath("b").fetchJSON("{\"a\": [1, 2 }");
+	}
+	
+	@Test(expected = RuntimeException.class)
+	public void missingBracket() {
+		new NestedPath("nested.arr[1").fetch(map);
+	}
+	
+}
@@ -0,0 +1,112 @@
+package picoded.conv;
+
+// Junit includes
+import static org.junit.Assert.*;
+import org.junit.*;
+
+// Java libs used
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+///
+/// Test Case for picoded.conv.NumberConv
+///
+public class NumberConv_test {
+	
+	@Test(expected = IllegalAccessError.class)
+	public void invalidConstructor() throws Exception {
+		new NumberConv();
+	}
+	
+	/// Valid, invalid, and edge case inputs
+	protected String[] inputs = new String[] { "0", "-0", "+0", "1", "-1", "+12", "007",
+		"123456789", "2147483647", "2147483648", "-2147483649", "999999999999999999",
+		"9223372036854775807", "9223372036854775808", "-9223372036854775809",
+		"123456789012345678901234567890", "1.5", "-1.5", "1.9", "-1.9", "0.1", "0.3", "5.", ".5",
+		"-.5", "+.5", "3.14159265358979", "3.141592653589793", "0.000000000000001",
+		"123456.789012345678", "1e3", "1E3", "-1.5e-3", "1e+2", "1e400", "1e-400", "2.5E10",
+		"1e99999999999", "", "-", "+", ".", "-.", "e5", "1e", "1e+", "1.2.3", "1,000", " 1", "1 ",
+		"0x10", "NaN", "Infinity", "abc", "1a", "--1", "1-", "١٢٣", "1e٣" };
+	
+	/// The expected (reference) BigDecimal, or null if invalid
+	protected BigDecimal reference(String input) {
+		try {
+			return new BigDecimal(input);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+	
+	/// Asserts the conversions of a single input, against the BigDecimal conversions
+	protected void assertMatches(String input) {
+		BigDecimal ref = reference(input);
+		assertEquals(input, ref != null, NumberConv.isNumber(input));
+		assertEquals(input, ref, NumberConv.toBigDecimal(input, null));
+		if (ref == null) {
+			assertEquals(input, -7L, NumberConv.toLong(input, -7L));
+			assertEquals(input, -7, NumberConv.toInt(input, -7));
+			assertTrue(input, Double.isNaN(NumberConv.toDouble(input, Double.NaN)));
+		} else {
+			assertEquals(input, ref.longValue(), NumberConv.toLong(input, -7L));
+			assertEquals(input, ref.intValue(), NumberConv.toInt(input, -7));
+			assertEquals(input, Double.valueOf(ref.doubleValue()), Double.valueOf(NumberConv
+				.toDouble(input, Double.NaN)));
+		}
+	}
+	
+	///
+	/// Listed inputs, must match the BigDecimal conversions
+	///
+	@Test
+	public void matchesBigDecimal() {
+		for (String input : inputs) {
+			assertMatches(input);
+		}
+		assertFalse(NumberConv.isNumber(null));
+		assertEquals(3L, NumberConv.toLong(null, 3L));
+		assertEquals(3.0, NumberConv.toDouble(null, 3.0), 0.0);
+		assertEquals(12L, NumberConv.toLong(new StringBuilder("12"), 0));
+	}
+	
+	///
+	/// Random decimals, and random mutations of them, must match the BigDecimal conversions
+	///
+	@Test
+	public void randomMatchesBigDecimal() {
+		Random rand = new Random(21);
+		String chars = "0123456789.-+eE x";
+		List<String> randomInputs = new ArrayList<String>();
+		for (int i = 0; i < 20000; ++i) {
+			String input = (rand.nextBoolean() ? "-" : "") + rand.nextInt(Integer.MAX_VALUE) + "."
+				+ rand.nextInt(Integer.MAX_VALUE);
+			input = input.substring(0, 1 + rand.nextInt(input.length()));
+			randomInputs.add(input);
+			
+			// Mutated varient
+			StringBuilder mutated = new StringBuilder(input);
+			mutated.setCharAt(rand.nextInt(mutated.length()), chars.charAt(rand.nextInt(chars
+				.length())));
+			randomInputs.add(mutated.toString());
+		}
+		for (String input : randomInputs) {
+			assertMatches(input);
+		}
+	}
+	
+	///
+	/// GenericConvert conversions, now using the fast paths
+	///
+	@Test
+	public void genericConvert() {
+		assertEquals(12, GenericConvert.toInt("12", 1));
+		assertEquals(1, GenericConvert.toInt("twelve", 1));
+		assertEquals(-3L, GenericConvert.toLong("-3.7", 1L));
+		assertEquals(2.5, GenericConvert.toDouble("2.5", 1.0), 0.0);
+		assertEquals(1.0, GenericConvert.toDouble("", 1.0), 0.0);
+		assertEquals(new BigDecimal("2.50"), GenericConvert.toNumber("2.50"));
+		assertEquals(4, GenericConvert.toNumber("$4", 4));
+	}
+	
+}
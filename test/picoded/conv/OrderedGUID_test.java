@@ -0,0 +1,104 @@
+package picoded.conv;
+
+// Junit includes
+import static org.junit.Assert.*;
+import org.junit.*;
+
+// Java libs used
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+///
+/// Test Case for picoded.conv.OrderedGUID
+///
+public class OrderedGUID_test {
+	
+	// Test run multiplier
+	protected int testRunMultiplier = 5000;
+	
+	/// Invalid constructor test
+	@Test(expected = IllegalAccessError.class)
+	public void invalidConstructor() throws Exception {
+		new OrderedGUID();
+	}
+	
+	///
+	/// Version, variant, and timestamp
+	///
+	@Test
+	public void uuidLayout() {
+		long before = System.currentTimeMillis();
+		UUID u = OrderedGUID.randomUUID();
+		
+		assertEquals(7, u.version());
+		assertEquals(2, u.variant());
+		assertTrue(OrderedGUID.timestamp(u) >= before);
+		assertTrue(OrderedGUID.timestamp(u) <= System.currentTimeMillis() + 1000);
+		assertEquals(OrderedGUID.timestamp(u), OrderedGUID.timestamp(GUID.base58(u)));
+	}
+	
+	///
+	/// Base58 strings, must sort in creation order
+	///
+	@Test
+	public void base58Ordering() {
+		List<String> created = new ArrayList<String>();
+		for (int a = 0; a < testRunMultiplier; ++a) {
+			created.add(OrderedGUID.base58());
+		}
+		
+		List<String> sorted = new ArrayList<String>(created);
+		Collections.sort(sorted);
+		assertEquals(created, sorted);
+		assertEquals(created.size(), new HashSet<String>(created).size());
+	}
+	
+	///
+	/// Values must be strictly increasing across threads
+	///
+	@Test
+	public void multiThreadedUniqueness() throws Exception {
+		final int threadCount = 4;
+		final List<List<UUID>> results = new ArrayList<List<UUID>>();
+		List<Thread> threads = new ArrayList<Thread>();
+		
+		for (int t = 0; t < threadCount; ++t) {
+			final List<UUID> res = new ArrayList<UUID>();
+			results.add(res);
+			Thread thread = new Thread(() -> {
+				for (int a = 0; a < testRunMultiplier; ++a) {
+					res.add(OrderedGUID.randomUUID());
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		
+		HashSet<UUID> all = new HashSet<UUID>();
+		for (List<UUID> res : results) {
+			for (int a = 1; a < res.size(); ++a) {
+				assertTrue(res.get(a - 1).compareTo(res.get(a)) < 0);
+			}
+			all.addAll(res);
+		}
+		assertEquals(threadCount * testRunMultiplier, all.size());
+	}
+	
+	///
+	/// Other output formats
+	///
+	@Test
+	public void otherFormats() {
+		assertEquals(2, OrderedGUID.longPair().length);
+		assertEquals(16, OrderedGUID.byteArray().length);
+		assertEquals(22, OrderedGUID.base64().length());
+		assertEquals(22, OrderedGUID.base58().length());
+	}
+	
+}
@@ -12,10 +12,12 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.spy;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.util.ArrayList;
@@ -707,6 +709,58 @@ public class CorePage_test {
 		rFile.delete();
 	}
 	
+	@Test
+	public void outputJSONOutputStreamTest() throws Exception {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("hello", "w\u00f6rld");
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		assertTrue(corePage.outputJSON(map, map, buffer));
+		assertEquals(ConvertJSON.fromObject(map) + "\n", new String(buffer.toByteArray(), "UTF-8"));
+	}
+	
+	@Test
+	public void outputJSONOwnWriterTest() throws Exception {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("hello", "world");
+		
+		// The given writer is used, even with a response stream
+		ByteArrayOutputStream responseBuffer = new ByteArrayOutputStream();
+		corePage.responseOutputStream = responseBuffer;
+		StringWriter writer = new StringWriter();
+		assertTrue(corePage.outputJSON(map, map, new PrintWriter(writer)));
+		assertEquals(ConvertJSON.fromObject(map), writer.toString().trim());
+		assertEquals(0, responseBuffer.size());
+	}
+	
+	/// Value which fails to serialize
+	public static class FailingValue {
+		public String getValue() {
+			throw new IllegalStateException("failing value");
+		}
+	}
+	
+	@Test
+	public void outputJSONFailureTest() throws Exception {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("a", "first");
+		map.put("b", new FailingValue());
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		StringWriter writer = new StringWriter();
+		try {
+			corePage.outputJSON(map, map, buffer);
+			assertTrue("Expected a serialization failure", false);
+		} catch (RuntimeException e) {
+			// Nothing should be written on failure
+			assertEquals(0, buffer.size());
+		}
+		try {
+			corePage.outputJSON(map, map, new PrintWriter(writer));
+			assertTrue("Expected a serialization failure", false);
+		} catch (RuntimeException e) {
+			assertEquals(0, writer.toString().length());
+		}
+	}
+	
 	@Test
 	public void outputJSONHTTPResponseNotNullTest() throws Exception {
 		Map<String, Object> map = new HashMap<String, Object>();
@@ -0,0 +1,159 @@
+package picoded.struct;
+
+// Junit includes
+import static org.junit.Assert.*;
+import org.junit.*;
+
+// Java libs used
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import picoded.conv.ConvertJSON;
+import picoded.conv.GenericConvert;
+
+///
+/// Test Case for picoded.struct.LazyJSONMap
+///
+public class LazyJSONMap_test {
+	
+	protected String json = "{ 'str' : 'hello\\nworld', \"num\" : 123, \"dbl\": 4.5, "
+		+ "\"bool\" : true, \"nil\" : null, /* comment */ \"list\" : [1, {\"a\":[]}, 'x'], "
+		+ "\"obj\" : { \"inner\" : { \"deep\" : \"value\" }, \"arr\" : [] } }";
+	
+	protected Map<String, Object> expected = null;
+	
+	@Before
+	public void setUp() {
+		expected = ConvertJSON.toMap(json);
+	}
+	
+	///
+	/// Values are only decoded when read, and cached for reuse
+	///
+	@Test
+	public void lazyDecoding() {
+		LazyJSONMap map = new LazyJSONMap(json);
+		assertNull(map.keyOffsets);
+		
+		assertEquals(7, map.size());
+		assertTrue(map.containsKey("nil"));
+		assertFalse(map.containsKey("missing"));
+		assertEquals(0, map.decoded.size());
+		
+		assertEquals("hello\nworld", map.getString("str"));
+		assertEquals(123, map.getInt("num"));
+		assertEquals(4.5, map.getDouble("dbl"), 0.0);
+		assertTrue(map.getBoolean("bool"));
+		assertNull(map.get("nil"));
+		assertNull(map.get("missing"));
+		assertEquals(5, map.decoded.size());
+		
+		List<Object> list = map.getObjectList("list");
+		assertEquals(expected.get("list"), list);
+		assertSame(list, map.get("list"));
+		assertFalse(map.isMaterialized());
+	}
+	
+	///
+	/// Nested objects are lazy as well
+	///
+	@Test
+	public void nestedMaps() {
+		LazyJSONMap map = new LazyJSONMap(json);
+		Object obj = map.get("obj");
+		assertTrue(obj instanceof LazyJSONMap);
+		
+		GenericConvertMap<String, Object> inner = map.getGenericConvertStringMap("obj")
+			.getGenericConvertStringMap("inner");
+		assertEquals("value", inner.getString("deep"));
+		assertEquals("value", GenericConvert.fetchNestedObject(map, "obj.inner.deep"));
+		assertEquals(expected.get("obj"), obj);
+	}
+	
+	///
+	/// Equality, iteration, and JSON output matches the fully decoded map
+	///
+	@Test
+	public void matchesFullDecode() {
+		LazyJSONMap map = new LazyJSONMap(json);
+		assertEquals(expected, map);
+		assertEquals(map, expected);
+		assertEquals(expected.hashCode(), map.hashCode());
+		assertEquals(expected, ConvertJSON.toMap(map.toString()));
+		assertEquals(Arrays.asList("str", "num", "dbl", "bool", "nil", "list", "obj"), Arrays
+			.asList(map.keySet().toArray()));
+		assertFalse(map.isMaterialized());
+	}
+	
+	///
+	/// Mutations materialize the map
+	///
+	@Test
+	public void mutation() {
+		LazyJSONMap map = new LazyJSONMap(json);
+		assertEquals("hello\nworld", map.get("str"));
+		
+		map.put("added", "new");
+		assertTrue(map.isMaterialized());
+		expected.put("added", "new");
+		assertEquals(expected, map);
+		
+		map.remove("num");
+		assertFalse(map.containsKey("num"));
+		assertEquals(7, map.size());
+		
+		map.clear();
+		assertTrue(map.isEmpty());
+	}
+	
+	///
+	/// Removal via iterator, and setValue via entry
+	///
+	@Test
+	public void iteratorMutation() {
+		LazyJSONMap map = new LazyJSONMap("{\"a\":1,\"b\":2,\"c\":3}");
+		Iterator<Map.Entry<String, Object>> iter = map.entrySet().iterator();
+		while (iter.hasNext()) {
+			Map.Entry<String, Object> entry = iter.next();
+			if (entry.getKey().equals("a")) {
+				iter.remove();
+			} else if (entry.getKey().equals("b")) {
+				entry.setValue(20);
+			}
+		}
+		
+		Map<String, Object> res = new HashMap<String, Object>();
+		res.put("b", 20);
+		res.put("c", 3);
+		assertEquals(res, map);
+	}
+	
+	///
+	/// Parsing, and GenericConvert usage
+	///
+	@Test
+	public void parse() {
+		assertNull(LazyJSONMap.parse(" null "));
+		assertNotNull(LazyJSONMap.parse("{}"));
+		assertTrue(GenericConvert.toLazyMap(json) instanceof LazyJSONMap);
+		assertEquals(GenericConvert.toStringMap(json), GenericConvert.toLazyMap(json));
+		assertFalse(GenericConvert.toStringMap(json) instanceof LazyJSONMap);
+		assertFalse(GenericConvert.toGenericConvertStringMap(json) instanceof LazyJSONMap);
+		assertEquals("fb", GenericConvert.toLazyMap("{ invalid", "{ \"a\" : \"fb\" }").get("a"));
+		assertNull(GenericConvert.toStringMap("[1,2]"));
+		assertNull(GenericConvert.toStringMap("{ invalid"));
+	}
+	
+	@Test(expected = ConvertJSON.InvalidFormatJSON.class)
+	public void invalidJSON() {
+		LazyJSONMap.parse("{ \"a\" : [1, 2 }");
+	}
+	
+	@Test(expected = ConvertJSON.InvalidFormatJSON.class)
+	public void notAnObject() {
+		new LazyJSONMap("[1, 2]").size();
+	}
+}